@@ -16,19 +16,15 @@ package gov.nasa.pds.tools.label;
 
 import java.io.ByteArrayInputStream;
 import java.io.IOException;
-import java.io.InputStream;
 import java.net.URL;
-import java.net.URLConnection;
-import java.util.HashMap;
 import java.util.Map;
-import org.apache.commons.io.IOUtils;
+import java.util.concurrent.ConcurrentHashMap;
 import org.xml.sax.EntityResolver;
 import org.xml.sax.InputSource;
 import org.xml.sax.SAXException;
-import gov.nasa.pds.tools.util.Utility;
 
 /**
- * Class that caches entities into memory.
+ * Class that caches entities into memory. Remote entities are also kept in the {@link SchemaStore}.
  *
  * @author mcayanan
  *
@@ -36,13 +32,13 @@ import gov.nasa.pds.tools.util.Utility;
 public class CachedEntityResolver implements EntityResolver {
 
   /** Hashmap to hold the entities. */
-  private Map<String, byte[]> cachedEntities = new HashMap<>();
+  private Map<String, byte[]> cachedEntities = new ConcurrentHashMap<>();
 
   /**
    * Constructor.
    */
   public CachedEntityResolver() {
-    cachedEntities = new HashMap<>();
+    cachedEntities = new ConcurrentHashMap<>();
   }
 
   @Override
@@ -50,20 +46,8 @@ public class CachedEntityResolver implements EntityResolver {
       throws SAXException, IOException {
     byte[] entity = cachedEntities.get(systemId);
     if (entity == null) {
-      URL url = new URL(systemId);
-      InputStream in = null;
-      URLConnection conn = null;
-      try {
-        conn = url.openConnection();
-        in = Utility.openConnection(conn);
-        entity = IOUtils.toByteArray(in);
-        cachedEntities.put(systemId, entity);
-      } catch (IOException io) {
-        throw io;
-      } finally {
-        IOUtils.closeQuietly(in);
-        IOUtils.close(conn);
-      }
+      entity = SchemaStore.read(new URL(systemId));
+      cachedEntities.put(systemId, entity);
     }
     InputSource inputSource = new InputSource(new ByteArrayInputStream(entity));
     inputSource.setSystemId(systemId);
@@ -19,13 +19,10 @@ import java.io.InputStreamReader;
 import java.io.Reader;
 import java.net.MalformedURLException;
 import java.net.URL;
-import java.net.URLConnection;
 import java.util.HashMap;
 import java.util.Map;
-import org.apache.commons.io.IOUtils;
 import org.w3c.dom.ls.LSInput;
 import org.w3c.dom.ls.LSResourceResolver;
-import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemHandler;
 import gov.nasa.pds.tools.validate.ProblemType;
@@ -166,8 +163,6 @@ public class CachedLSResourceResolver implements LSResourceResolver {
     byte[] entity = cachedEntities.get(systemId);
     LSInputImpl input = new LSInputImpl();
     if (entity == null) {
-      InputStream in = null;
-      URLConnection conn = null;
       URL url = null;
       try {
         URL base = new URL(baseURI);
@@ -191,9 +186,7 @@ public class CachedLSResourceResolver implements LSResourceResolver {
               : base.toURI().resolve(".").toURL();
           url = new URL(base, systemId);
         }
-        conn = url.openConnection();
-        in = Utility.openConnection(conn);
-        entity = IOUtils.toByteArray(in);
+        entity = SchemaStore.read(url);
         cachedEntities.put(systemId, entity);
       } catch (Exception e) {
         if (handler != null) {
@@ -208,9 +201,6 @@ public class CachedLSResourceResolver implements LSResourceResolver {
         } else {
           e.printStackTrace();
         }
-      } finally {
-        IOUtils.closeQuietly(in);
-        IOUtils.close(conn);
       }
     }
     input.setPublicId(publicId);
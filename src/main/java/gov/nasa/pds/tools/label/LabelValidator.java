@@ -15,6 +15,7 @@
 
 package gov.nasa.pds.tools.label;
 
+import java.io.ByteArrayInputStream;
 import java.io.File;
 import java.io.IOException;
 import java.net.MalformedURLException;
@@ -23,6 +24,9 @@ import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.XMLConstants;
@@ -30,12 +34,11 @@ import javax.xml.parsers.DocumentBuilder;
 import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.parsers.ParserConfigurationException;
 import javax.xml.parsers.SAXParserFactory;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
-import javax.xml.transform.dom.DOMResult;
 import javax.xml.transform.dom.DOMSource;
-import javax.xml.transform.sax.SAXSource;
+import javax.xml.transform.sax.SAXResult;
 import javax.xml.transform.stream.StreamSource;
 import javax.xml.validation.Schema;
 import javax.xml.validation.SchemaFactory;
@@ -45,6 +48,7 @@ import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
 import javax.xml.xpath.XPathFactory;
 import org.apache.commons.io.FilenameUtils;
+import org.apache.xerces.jaxp.validation.XMLSchemaFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Attr;
@@ -64,6 +68,7 @@ import org.xml.sax.Locator;
 import org.xml.sax.SAXException;
 import org.xml.sax.SAXNotRecognizedException;
 import org.xml.sax.SAXNotSupportedException;
+import org.xml.sax.SAXParseException;
 import org.xml.sax.XMLReader;
 import org.xml.sax.helpers.AttributesImpl;
 import gov.nasa.pds.tools.label.validate.DefaultDocumentValidator;
@@ -74,6 +79,7 @@ import gov.nasa.pds.tools.util.LabelUtil;
 import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.util.VersionInfo;
 import gov.nasa.pds.tools.util.XMLExtractor;
+import gov.nasa.pds.tools.validate.BufferedListenerPropagator;
 import gov.nasa.pds.tools.validate.ProblemContainer;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemHandler;
@@ -93,15 +99,21 @@ public class LabelValidator {
   private Map<String, Boolean> configurations = new HashMap<>();
   private List<URL> userSchemaFiles;
   private List<URL> userSchematronFiles;
-  private List<Transformer> userSchematronTransformers;
+  private List<Templates> userSchematronTransformers;
   private XMLReader cachedParser;
   private ValidatorHandler cachedValidatorHandler;
-  private List<Transformer> cachedSchematron;
+  private List<Templates> cachedSchematron;
   private XMLCatalogResolver resolver;
   private Boolean useLabelSchema;
   private Boolean useLabelSchematron;
   private Boolean skipProductValidation;
-  private Map<String, Transformer> cachedLabelSchematrons;
+  private Map<String, Templates> cachedLabelSchematrons;
+
+  /** The schemas compiled for the labels, keyed by their set of schema locations. */
+  private static Map<String, Schema> labelSchemas = new ConcurrentHashMap<>();
+
+  /** The sets of schema locations that could not be compiled on their own. */
+  private static Set<String> failedLabelSchemas = ConcurrentHashMap.newKeySet();
 
   public static final String SCHEMA_CHECK = "gov.nasa.pds.tools.label.SchemaCheck";
   public static final String SCHEMATRON_CHECK = "gov.nasa.pds.tools.label.SchematronCheck";
@@ -120,6 +132,9 @@ public class LabelValidator {
   private SchematronTransformer schematronTransformer;
   private XPathFactory xPathFactory;
 
+  /** The validator this one was copied from. It compiles the schema shared by its copies. */
+  private LabelValidator parent;
+
   private String labelExtension;
 
   private long filesProcessed = 0;
@@ -199,6 +214,45 @@ public class LabelValidator {
     schematronTransformer = new SchematronTransformer();
 
     xPathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
+    parent = null;
+  }
+
+  /**
+   * Creates a copy of this validator for use by another thread. The copy has its own parser,
+   * validator handler and document builder so labels can be validated concurrently, while the
+   * compiled schema is shared with this validator.
+   *
+   * @return A new label validator with the same configuration as this one.
+   *
+   * @throws ParserConfigurationException If there was an error setting up the parser.
+   * @throws TransformerConfigurationException If there was an error setting up the schematron
+   *         transformer.
+   */
+  public synchronized LabelValidator newInstance()
+      throws ParserConfigurationException, TransformerConfigurationException {
+    LabelValidator copy = new LabelValidator();
+    copy.parent = this;
+    copy.configurations.putAll(configurations);
+    copy.userSchemaFiles = userSchemaFiles;
+    copy.userSchematronFiles = userSchematronFiles;
+    copy.userSchematronTransformers = userSchematronTransformers;
+    if (resolver != null) {
+      // The catalog resolver keeps the problem handler of the label being validated, so each copy
+      // needs its own.
+      copy.resolver = new XMLCatalogResolver(resolver.getCatalogList(), resolver.getPreferPublic());
+    }
+    copy.useLabelSchema = useLabelSchema;
+    copy.useLabelSchematron = useLabelSchematron;
+    copy.skipProductValidation = skipProductValidation;
+    copy.cachedLabelSchematrons = new HashMap<>(cachedLabelSchematrons);
+    copy.bundleLabelPattern = bundleLabelPattern;
+    copy.collectionLabelPattern = collectionLabelPattern;
+    copy.externalValidators = new ArrayList<>(externalValidators);
+    copy.documentValidators = new ArrayList<>(documentValidators);
+    copy.cachedEntityResolver = cachedEntityResolver;
+    copy.cachedLSResolver = cachedLSResolver;
+    copy.labelExtension = labelExtension;
+    return copy;
   }
 
   /**
@@ -215,9 +269,9 @@ public class LabelValidator {
   /**
    * Pass in a list of transformed schematrons to validate against.
    *
-   * @param schematrons A list of transformed schematrons.
+   * @param schematrons A list of compiled schematrons.
    */
-  public void setSchematrons(List<Transformer> schematrons) {
+  public void setSchematrons(List<Templates> schematrons) {
     userSchematronTransformers = schematrons;
     LOG.debug("setSchematrons:schematrons.size(),schematrons {},{}", schematrons.size(),
         schematrons);
@@ -229,7 +283,7 @@ public class LabelValidator {
    *
    * @param schematronMap
    */
-  public void setLabelSchematrons(Map<String, Transformer> schematronMap) {
+  public void setLabelSchematrons(Map<String, Templates> schematronMap) {
     cachedLabelSchematrons = schematronMap;
   }
 
@@ -399,6 +453,27 @@ public class LabelValidator {
   public synchronized Document parseAndValidate(ProblemHandler handler, URL url)
       throws SAXException, IOException, ParserConfigurationException, TransformerException,
       MissingLabelSchemaException {
+    return parseAndValidate(handler, url, new HashMap<>());
+  }
+
+  /**
+   * Parses and validates a label against the schema and Schematron files, and returns the parsed
+   * XML.
+   *
+   * @param handler an problem handler to receive errors during the validation
+   * @param url the URL of the label to validate
+   * @param parsedLabels the labels already parsed, keyed by their URL. The label is taken from this
+   *        map when running the document validators, and added to it if it has to be parsed.
+   * @return the XML document represented by the label
+   * @throws SAXException if there are parsing exceptions
+   * @throws IOException if there are I/O errors during the parse
+   * @throws ParserConfigurationException if the parser configuration is invalid
+   * @throws TransformerException if there is an error during Schematron transformation
+   * @throws MissingLabelSchemaException if the label schema cannot be found
+   */
+  public synchronized Document parseAndValidate(ProblemHandler handler, URL url,
+      Map<String, DocumentInfo> parsedLabels) throws SAXException, IOException,
+      ParserConfigurationException, TransformerException, MissingLabelSchemaException {
     List<String> labelSchematronRefs = new ArrayList<>();
     Document xml = null;
 
@@ -416,23 +491,12 @@ public class LabelValidator {
     if (performsSchemaValidation()) {
       createParserIfNeeded(handler);
 
-      // Do we need this to clear the cache?
-
-      if (useLabelSchema) {
-        LOG.debug("parseAndValidate:#00AA0");
-        cachedValidatorHandler = schemaFactory.newSchema().newValidatorHandler();
-      } else {
-        LOG.debug("parseAndValidate:#00AA1");
-        cachedValidatorHandler = validatingSchema.newValidatorHandler();
-      }
-
       // Capture messages in a container
+      ErrorHandler eh = null;
       if (handler != null) {
         LOG.debug("parseAndValidate:#00AA2");
-        ErrorHandler eh = new LabelErrorHandler(handler);
+        eh = new LabelErrorHandler(handler);
         cachedParser.setErrorHandler(eh);
-        cachedValidatorHandler.setErrorHandler(eh);
-
       }
       LOG.debug("parseAndValidate:#00AA3");
       // Finally parse and validate the file
@@ -440,11 +504,28 @@ public class LabelValidator {
       cachedParser.setContentHandler(new DocumentCreator(xml));
       cachedParser.parse(Utility.getInputSourceByURL(url));
 
+      // The label is parsed before its validator is created, so the schema compiled for
+      // the schema locations of the label can be used.
+      if (useLabelSchema) {
+        LOG.debug("parseAndValidate:#00AA0");
+        cachedValidatorHandler = getLabelSchema(xml, url).newValidatorHandler();
+      } else {
+        LOG.debug("parseAndValidate:#00AA1");
+        cachedValidatorHandler = validatingSchema.newValidatorHandler();
+      }
+      if (eh != null) {
+        cachedValidatorHandler.setErrorHandler(eh);
+      }
+
       // Each version of the Information Model (IM) must be registered so in the end,
-      // multiple versions can be reported.
-      LabelUtil.setLocation(url.toString());
+      // multiple versions can be reported. The versions are registered in the order of the
+      // labels, as the first one is kept when the list is reduced.
+      String location = url.toString();
       String informationModelVersion = LabelUtil.getIMVersion(new DOMSource(xml), url);
-      LabelUtil.registerIMVersion(informationModelVersion);
+      BufferedListenerPropagator.runInOrder(() -> {
+        LabelUtil.setLocation(location);
+        LabelUtil.registerIMVersion(informationModelVersion);
+      });
 
       DOMLocator locator = new DOMLocator(url);
       cachedValidatorHandler.setDocumentLocator(locator);
@@ -512,11 +593,11 @@ public class LabelValidator {
           LOG.debug("parseAndValidate:0003:url,useLabelSchematron,cachedSchematron.size() {},{},{}",
               url, useLabelSchematron, cachedSchematron.size());
         } else if (userSchematronFiles != null) {
-          List<Transformer> transformers = new ArrayList<>();
+          List<Templates> transformers = new ArrayList<>();
           for (URL schematron : userSchematronFiles) {
             StreamSource source = new StreamSource(schematron.toString());
             source.setSystemId(schematron.toString());
-            Transformer transformer = schematronTransformer.transform(source, handler);
+            Templates transformer = schematronTransformer.transform(source, handler);
             transformers.add(transformer);
           }
           cachedSchematron = transformers;
@@ -552,27 +633,22 @@ public class LabelValidator {
       LOG.debug("parseAndValidate:url,skipProductValidation,validateAgainstSchematronFlag {},{},{}",
           url, skipProductValidation, validateAgainstSchematronFlag);
 
-      for (Transformer schematron : cachedSchematron) {
+      final Document labelDoc = xml;
+      // Add an error for each failed assert as the svrl:schematron-output document is written.
+      SvrlFailedAssertHandler failedAsserts =
+          new SvrlFailedAssertHandler((role, location, test, message) -> handler
+              .addProblem(processFailedAssert(url, role, location, test, message, labelDoc)));
+      for (Templates schematron : cachedSchematron) {
         long singleSchematronStartTime = System.currentTimeMillis();
         if (!validateAgainstSchematronFlag) {
           continue; // Skip the validation if validateAgainstSchematronFlag is not true.
         }
-        DOMResult result = new DOMResult();
         DOMSource domSource = new DOMSource(xml);
         LOG.debug("parseAndValidate:VALIDATING_SCHEMATRON_URL:START {} against schematron", url);
         domSource.setSystemId(url.toString());
-        // Apply the rules specified in the schematron file
-        schematron.transform(domSource, result);
-        // Output is svrl:schematron-output document
-        // Select out svrl:failed-assert nodes and put into problem container
-        Document reportDoc = (Document) result.getNode();
-        NodeList nodes =
-            reportDoc.getElementsByTagNameNS("http://purl.oclc.org/dsdl/svrl", "failed-assert");
-        for (int i = 0; i < nodes.getLength(); i++) {
-          Node node = nodes.item(i);
-          // Add an error for each failed asssert
-          handler.addProblem(processFailedAssert(url, node, xml));
-        }
+        // Apply the rules specified in the schematron file. The compiled schematron is shared by
+        // all copies of this validator, so each run gets its own transformer from it.
+        schematron.newTransformer().transform(domSource, new SAXResult(failedAsserts));
         long singleSchematronFinishTime = System.currentTimeMillis();
         long singleSchematronTimeElapsed = singleSchematronFinishTime - singleSchematronStartTime;
         LOG.debug("parseAndValidate:VALIDATING_SCHEMATRON_URL:ELAPSED {} {}", url,
@@ -593,9 +669,7 @@ public class LabelValidator {
       // Perform any additional checks that were added
       if (!documentValidators.isEmpty()) {
 
-        SAXSource saxSource = new SAXSource(Utility.getInputSourceByURL(url));
-        saxSource.setSystemId(url.toString());
-        DocumentInfo docInfo = LabelParser.parse(saxSource);
+        DocumentInfo docInfo = LabelParser.parse(url, parsedLabels);
         for (DocumentValidator dv : documentValidators) {
           dv.validate(handler, docInfo);
         }
@@ -613,6 +687,149 @@ public class LabelValidator {
     return xml;
   }
 
+  /**
+   * Gets the schema used to validate labels, compiling it if it has not been done already.
+   *
+   * @param handler The handler to receive errors found while compiling the schema.
+   * @return The compiled schema.
+   */
+  private synchronized Schema getValidatingSchema(ProblemHandler handler)
+      throws SAXException, IOException, ParserConfigurationException {
+    if (validatingSchema == null) {
+      createParserIfNeeded(handler);
+    }
+    return validatingSchema;
+  }
+
+  /**
+   * Creates a schema that loads the schemas referenced by each label. The schemas already compiled
+   * for other labels are taken from the {@link SchemaGrammarPool}.
+   *
+   * @return The schema.
+   */
+  private Schema newLabelSchema() throws SAXException {
+    if (schemaFactory instanceof XMLSchemaFactory) {
+      return ((XMLSchemaFactory) schemaFactory).newSchema(SchemaGrammarPool.INSTANCE);
+    }
+    return schemaFactory.newSchema();
+  }
+
+  /**
+   * Gets the schema to validate a label against its own schema locations. Labels with the same set
+   * of schema locations share a schema compiled once from those locations. The label's schema
+   * locations are used as hints during the validation if they cannot be compiled on their own, so
+   * any problem with them is reported with the label.
+   *
+   * @param xml The parsed label.
+   * @param url The location of the label.
+   * @return The schema.
+   */
+  private Schema getLabelSchema(Document xml, URL url) throws SAXException {
+    Map<String, String> locations = getSchemaLocations(xml, url);
+    if (locations == null || resolver != null) {
+      // The catalog resolver maps the locations while validating, so the hints are used.
+      return newLabelSchema();
+    }
+    String key = locations.toString();
+    Schema schema = labelSchemas.get(key);
+    if (schema == null && !failedLabelSchemas.contains(key)) {
+      schema = compileLabelSchema(locations);
+      if (schema != null) {
+        Schema previous = labelSchemas.putIfAbsent(key, schema);
+        schema = previous == null ? schema : previous;
+      } else {
+        failedLabelSchemas.add(key);
+      }
+    }
+    LOG.debug("getLabelSchema:url,key,compiled {},{},{}", url, key, schema != null);
+    return schema == null ? newLabelSchema() : schema;
+  }
+
+  /**
+   * Gets the schema locations of a label.
+   *
+   * @param xml The parsed label.
+   * @param url The location of the label.
+   * @return The absolute schema locations sorted by namespace, or null if they are missing or not
+   *         valid.
+   */
+  private Map<String, String> getSchemaLocations(Document xml, URL url) {
+    String value = xml.getDocumentElement()
+        .getAttributeNS(XMLConstants.W3C_XML_SCHEMA_INSTANCE_NS_URI, "schemaLocation");
+    String[] tokens = value.trim().split("\\s+");
+    if (value.trim().isEmpty() || tokens.length % 2 != 0) {
+      return null;
+    }
+    Map<String, String> locations = new TreeMap<>();
+    for (int i = 0; i < tokens.length; i += 2) {
+      try {
+        String location = new URL(url, tokens[i + 1]).toString();
+        if (locations.put(tokens[i], location) != null) {
+          return null;
+        }
+      } catch (MalformedURLException e) {
+        return null;
+      }
+    }
+    return locations;
+  }
+
+  /**
+   * Compiles the schemas at the given locations into one schema.
+   *
+   * @param locations The schema locations, by namespace.
+   * @return The compiled schema, or null if the schemas could not be compiled without a problem.
+   */
+  private Schema compileLabelSchema(Map<String, String> locations) {
+    List<StreamSource> sources = new ArrayList<>();
+    for (String location : locations.values()) {
+      try {
+        StreamSource source =
+            new StreamSource(new ByteArrayInputStream(SchemaStore.read(new URL(location))));
+        source.setSystemId(location);
+        sources.add(source);
+      } catch (IOException e) {
+        return null;
+      }
+    }
+    // Any problem, even a warning, must be reported with the label, so the schemas are then
+    // loaded again from the hints in the label.
+    ErrorHandler labelHandler = schemaFactory.getErrorHandler();
+    schemaFactory.setErrorHandler(new ErrorHandler() {
+      @Override
+      public void warning(SAXParseException exception) throws SAXException {
+        throw exception;
+      }
+
+      @Override
+      public void error(SAXParseException exception) throws SAXException {
+        throw exception;
+      }
+
+      @Override
+      public void fatalError(SAXParseException exception) throws SAXException {
+        throw exception;
+      }
+    });
+    try {
+      return schemaFactory.newSchema(sources.toArray(new StreamSource[0]));
+    } catch (SAXException e) {
+      LOG.debug("compileLabelSchema:locations,message {},{}", locations, e.getMessage());
+      return null;
+    } finally {
+      schemaFactory.setErrorHandler(labelHandler);
+    }
+  }
+
+  /**
+   * Releases the schemas compiled for the labels. Should be called between runs since the schemas
+   * may have changed.
+   */
+  public static void clearLabelSchemas() {
+    labelSchemas.clear();
+    failedLabelSchemas.clear();
+  }
+
   private void createParserIfNeeded(ProblemHandler handler) throws SAXNotRecognizedException,
       SAXNotSupportedException, SAXException, IOException, ParserConfigurationException {
     // Do we have a schema we have loaded previously?
@@ -642,7 +859,11 @@ public class LabelValidator {
       }
       LOG.debug("createParserIfNeeded:#00BB6");
       // Time to load schema that will be used for validation
-      if (userSchemaFiles != null) {
+      if (parent != null) {
+        LOG.debug("createParserIfNeeded:#00BB6A");
+        // A compiled schema is thread safe, so a copy uses the one compiled by its parent.
+        validatingSchema = parent.getValidatingSchema(handler);
+      } else if (userSchemaFiles != null) {
         LOG.debug("createParserIfNeeded:#00BB7");
         // User has specified schema files to use
         validatingSchema = schemaFactory
@@ -651,7 +872,7 @@ public class LabelValidator {
         LOG.debug("createParserIfNeeded:#00BB8");
         if (useLabelSchema) {
           LOG.debug("createParserIfNeeded:#00BB9");
-          validatingSchema = schemaFactory.newSchema();
+          validatingSchema = newLabelSchema();
         } else {
           LOG.debug("createParserIfNeeded:#00BC0");
           // Load from user specified external directory
@@ -662,7 +883,7 @@ public class LabelValidator {
       } else {
         LOG.debug("createParserIfNeeded:#00BC1");
         // We're only going to use the catalog to validate against.
-        validatingSchema = schemaFactory.newSchema();
+        validatingSchema = newLabelSchema();
       }
 
       LOG.debug("createParserIfNeeded:#00BC2");
@@ -692,7 +913,7 @@ public class LabelValidator {
       if (useLabelSchema) {
         LOG.debug("createParserIfNeeded:#00BC7");
         cachedParser = saxParserFactory.newSAXParser().getXMLReader();
-        cachedValidatorHandler = schemaFactory.newSchema().newValidatorHandler();
+        cachedValidatorHandler = newLabelSchema().newValidatorHandler();
         cachedParser.setEntityResolver(cachedEntityResolver);
       }
       LOG.debug("createParserIfNeeded:#00BC8");
@@ -811,9 +1032,9 @@ public class LabelValidator {
     return results;
   }
 
-  private List<Transformer> loadLabelSchematrons(List<String> schematronSources, URL url,
+  private List<Templates> loadLabelSchematrons(List<String> schematronSources, URL url,
       ProblemHandler handler) {
-    List<Transformer> transformers = new ArrayList<>();
+    List<Templates> transformers = new ArrayList<>();
     LOG.debug("loadLabelSchematrons:resolver,schematronSources {},{}", resolver, schematronSources);
     for (String source : schematronSources) {
       try {
@@ -832,7 +1053,7 @@ public class LabelValidator {
                 + "' through the catalog: " + io.getMessage());
           }
         }
-        Transformer transformer = cachedLabelSchematrons.get(source);
+        Templates transformer = cachedLabelSchematrons.get(source);
         if (transformer != null) {
           transformers.add(transformer);
           LOG.debug("loadLabelSchematrons:transformers.add:source {}", source);
@@ -860,36 +1081,39 @@ public class LabelValidator {
    * Process a failed assert message from the schematron report.
    *
    * @param url The url of the xml being validated.
-   * @param node The node object containing the failed assert message.
+   * @param role The role attribute of the failed assert, or null if there is none.
+   * @param location The location attribute of the failed assert.
+   * @param test The test attribute of the failed assert.
+   * @param message The failed assert message.
    * @param doc the original document that was being validated, used to obtain line numbers, or null
    *        for no document
    *
    * @return A ValidationProblem object.
    */
-  private ValidationProblem processFailedAssert(URL url, Node node, Document doc) {
+  private ValidationProblem processFailedAssert(URL url, String role, String location,
+      String test, String message, Document doc) {
     Integer lineNumber = -1;
     Integer columnNumber = -1;
-    String message = node.getTextContent().trim();
     URL sourceUrl = url;
     ProblemType problemType = ProblemType.SCHEMATRON_ERROR;
     ExceptionType exceptionType = ExceptionType.ERROR;
-    if (node.getAttributes().getNamedItem("role") != null) {
-      String type = node.getAttributes().getNamedItem("role").getTextContent();
-      if ("warn".equalsIgnoreCase(type) || "warning".equalsIgnoreCase(type)) {
+    if (role != null) {
+      if ("warn".equalsIgnoreCase(role) || "warning".equalsIgnoreCase(role)) {
         exceptionType = ExceptionType.WARNING;
         problemType = ProblemType.SCHEMATRON_WARNING;
-      } else if ("info".equalsIgnoreCase(type)) {
+      } else if ("info".equalsIgnoreCase(role)) {
         exceptionType = ExceptionType.INFO;
         problemType = ProblemType.SCHEMATRON_INFO;
       }
     }
 
-    String location = ((Attr) node.getAttributes().getNamedItem("location")).getValue();
     SourceLocation sourceLoc = null;
     try {
       XPath documentPath = xPathFactory.newXPath();
       Node failureNode = (Node) documentPath.evaluate(location, doc, XPathConstants.NODE);
-      sourceLoc = (SourceLocation) failureNode.getUserData(SourceLocation.class.getName());
+      if (failureNode != null) {
+        sourceLoc = (SourceLocation) failureNode.getUserData(SourceLocation.class.getName());
+      }
     } catch (XPathExpressionException e) {
       // ignore - will use default line and column number
     }
@@ -904,7 +1128,6 @@ public class LabelValidator {
         }
       }
     } else {
-      String test = node.getAttributes().getNamedItem("test").getTextContent();
       message = String.format("%s [Context: \"%s\"; Test: \"%s\"]", message, location, test);
     }
 
@@ -22,7 +22,7 @@ import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import org.apache.commons.chain.Catalog;
 import org.apache.commons.chain.CatalogFactory;
@@ -51,6 +51,7 @@ import gov.nasa.pds.tools.validate.crawler.CrawlerFactory;
 import gov.nasa.pds.tools.validate.rule.RuleContext;
 import gov.nasa.pds.tools.validate.rule.ValidationRule;
 import gov.nasa.pds.tools.validate.rule.ValidationRuleManager;
+import gov.nasa.pds.tools.validate.rule.pds4.LabelWorkerPool;
 import gov.nasa.pds.tools.validate.task.BlockingTaskManager;
 import gov.nasa.pds.tools.validate.task.TaskManager;
 import gov.nasa.pds.tools.validate.task.ValidationTask;
@@ -279,11 +280,23 @@ public class LocationValidator {
       ruleContext.setCrawler(crawler);
       ruleContext.setRule(rule);
 
-      LOG.debug("validate:Submitting task to taskManager location {} rule {} ", location,
-          rule.getCaption());
-      taskManager.submit(task);
-      LOG.debug("validate:Returning from task to taskManager location {} rule {} ", location,
-          rule.getCaption());
+      // The threads that validate the labels of the directories are made once for the
+      // location, and stopped once it is validated.
+      LabelWorkerPool workerPool =
+          ruleContext.getThreads() > 1 ? new LabelWorkerPool(ruleContext.getThreads()) : null;
+      ruleContext.setLabelWorkerPool(workerPool);
+      try {
+        LOG.debug("validate:Submitting task to taskManager location {} rule {} ", location,
+            rule.getCaption());
+        taskManager.submit(task);
+        LOG.debug("validate:Returning from task to taskManager location {} rule {} ", location,
+            rule.getCaption());
+      } finally {
+        ruleContext.setLabelWorkerPool(null);
+        if (workerPool != null) {
+          workerPool.close();
+        }
+      }
     }
   }
 
@@ -348,7 +361,7 @@ public class LocationValidator {
     LOG.debug("setSchema:schemaFiles {}", schemaFiles);
   }
 
-  public void setSchematrons(List<Transformer> schematrons) {
+  public void setSchematrons(List<Templates> schematrons) {
     labelValidator.setSchematrons(schematrons);
   }
 
@@ -378,7 +391,7 @@ public class LocationValidator {
     labelValidator.addValidator(validator);
   }
 
-  public void setLabelSchematrons(Map<String, Transformer> labelSchematrons) {
+  public void setLabelSchematrons(Map<String, Templates> labelSchematrons) {
     labelValidator.setLabelSchematrons(labelSchematrons);
   }
 
@@ -433,6 +446,22 @@ public class LocationValidator {
     ruleContext.setSpotCheckData(value);
   }
 
+  public void setSampleData(int value) {
+    ruleContext.setSampleData(value);
+  }
+
+  public void setThreads(int value) {
+    ruleContext.setThreads(value);
+  }
+
+  public void setTableThreads(int value) {
+    ruleContext.setTableThreads(value);
+  }
+
+  public void setArrayThreads(int value) {
+    ruleContext.setArrayThreads(value);
+  }
+
   public void setAllowUnlabeledFiles(boolean flag) {
     ruleContext.setAllowUnlabeledFiles(flag);
   }
@@ -503,6 +532,11 @@ public class LocationValidator {
       // TODO Auto-generated method stub
 
     }
+
+    @Override
+    public ExceptionType getSeverityThreshold() {
+      return ExceptionType.DEBUG;
+    }
   }
 
 }
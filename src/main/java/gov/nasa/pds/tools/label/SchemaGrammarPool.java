@@ -0,0 +1,125 @@
+// Copyright 2009-2014, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology
+// Transfer at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+//
+package gov.nasa.pds.tools.label;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.apache.xerces.impl.XMLEntityManager;
+import org.apache.xerces.impl.xs.XSDDescription;
+import org.apache.xerces.util.URI;
+import org.apache.xerces.xni.grammars.Grammar;
+import org.apache.xerces.xni.grammars.XMLGrammarDescription;
+import org.apache.xerces.xni.grammars.XMLGrammarPool;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Grammar pool that shares the compiled XML schemas between labels and threads.
+ *
+ * The Xerces grammar pools match a schema by its namespace only, while the labels of a bundle may
+ * refer to different versions of the same namespace. This pool matches a schema by its namespace
+ * and its location, which holds the version of the schema.
+ */
+public class SchemaGrammarPool implements XMLGrammarPool {
+  private static final Logger LOG = LoggerFactory.getLogger(SchemaGrammarPool.class);
+
+  /** The pool shared by all the label validators. */
+  public static final SchemaGrammarPool INSTANCE = new SchemaGrammarPool();
+
+  private static final Grammar[] NO_GRAMMARS = new Grammar[0];
+
+  private Map<String, Grammar> grammars = new ConcurrentHashMap<>();
+  private volatile boolean locked = false;
+
+  @Override
+  public Grammar[] retrieveInitialGrammarSet(String grammarType) {
+    // The grammars are only given once a label asks for them by location, as the pool may hold
+    // several versions of a namespace.
+    return NO_GRAMMARS;
+  }
+
+  @Override
+  public void cacheGrammars(String grammarType, Grammar[] newGrammars) {
+    if (locked || !XMLGrammarDescription.XML_SCHEMA.equals(grammarType)) {
+      return;
+    }
+    for (Grammar grammar : newGrammars) {
+      String key = getKey(grammar.getGrammarDescription());
+      if (key != null && grammars.putIfAbsent(key, grammar) == null) {
+        LOG.debug("cacheGrammars:key {}", key);
+      }
+    }
+  }
+
+  @Override
+  public Grammar retrieveGrammar(XMLGrammarDescription desc) {
+    if (!XMLGrammarDescription.XML_SCHEMA.equals(desc.getGrammarType())) {
+      return null;
+    }
+    String key = getKey(desc);
+    return key == null ? null : grammars.get(key);
+  }
+
+  @Override
+  public void lockPool() {
+    locked = true;
+  }
+
+  @Override
+  public void unlockPool() {
+    locked = false;
+  }
+
+  @Override
+  public void clear() {
+    grammars.clear();
+  }
+
+  /**
+   * @return the number of schemas in the pool.
+   */
+  public int size() {
+    return grammars.size();
+  }
+
+  /**
+   * Gets the key of a schema, made of its namespace and location.
+   *
+   * @param desc The description of the schema.
+   * @return The key, or null if the location of the schema is not known.
+   */
+  private String getKey(XMLGrammarDescription desc) {
+    String location = desc.getExpandedSystemId();
+    if (location == null) {
+      location = desc.getLiteralSystemId();
+      if (location == null && desc instanceof XSDDescription) {
+        String[] hints = ((XSDDescription) desc).getLocationHints();
+        if (hints != null && hints.length > 0) {
+          location = hints[0];
+        }
+      }
+      if (location == null) {
+        return null;
+      }
+      try {
+        location = XMLEntityManager.expandSystemId(location, desc.getBaseSystemId(), false);
+      } catch (URI.MalformedURIException e) {
+        return null;
+      }
+    }
+    String namespace = desc.getNamespace() == null ? "" : desc.getNamespace();
+    return namespace + " " + location;
+  }
+}
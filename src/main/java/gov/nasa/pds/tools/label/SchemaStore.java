@@ -0,0 +1,207 @@
+// Copyright 2009-2014, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology
+// Transfer at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+//
+package gov.nasa.pds.tools.label;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.net.URL;
+import java.net.URLConnection;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.TimeUnit;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.parsers.SAXParserFactory;
+import org.apache.commons.io.IOUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.xml.sax.Attributes;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+import org.xml.sax.helpers.DefaultHandler;
+import gov.nasa.pds.tools.util.SettingsManager;
+import gov.nasa.pds.tools.util.Utility;
+
+/**
+ * Class that keeps a copy of the remote schemas on disk, so they are only downloaded once.
+ *
+ * The store is only used when a directory is set, which should be one that only the user can write
+ * to. A schema is stored under its host name and path, which for the PDS4 schemas holds the
+ * namespace and the version of the schema (e.g. pds.nasa.gov/pds4/pds/v1/PDS4_PDS_1K00.xsd). Only
+ * the responses that parse as an XML Schema are stored. A stored schema is downloaded again once it
+ * is older than the maximum age, and is used as is if it cannot be, so a store populated beforehand
+ * can be used offline.
+ */
+public class SchemaStore {
+  private static final Logger LOG = LoggerFactory.getLogger(SchemaStore.class);
+
+  /** The default maximum age of a stored schema, in days. */
+  public static final long DEFAULT_MAX_AGE_DAYS = 30;
+
+  private SchemaStore() {
+    // never called
+  }
+
+  /**
+   * @return the directory of the schema store, or null if the store is turned off.
+   */
+  public static File getStoreDir() {
+    String dir = SettingsManager.INSTANCE.getString(ValidationSettings.SCHEMA_STORE_DIR, null);
+    return (dir == null || dir.trim().isEmpty()) ? null : new File(dir);
+  }
+
+  /**
+   * @return the maximum age of a stored schema in milliseconds, or a negative value if the stored
+   *         schemas never expire.
+   */
+  private static long getMaxAge() {
+    String value = SettingsManager.INSTANCE.getString(ValidationSettings.SCHEMA_STORE_MAX_AGE,
+        String.valueOf(DEFAULT_MAX_AGE_DAYS));
+    long days = DEFAULT_MAX_AGE_DAYS;
+    try {
+      days = Long.parseLong(value.trim());
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid maximum age of the schema store '{}', using {} days", value,
+          DEFAULT_MAX_AGE_DAYS);
+    }
+    return days < 0 ? -1 : TimeUnit.DAYS.toMillis(days);
+  }
+
+  /**
+   * Gets the file where a schema is stored.
+   *
+   * @param url The location of the schema.
+   * @return The file in the store, or null if the schema is not a remote one or the store is turned
+   *         off.
+   */
+  public static File getStoreFile(URL url) {
+    File storeDir = getStoreDir();
+    String protocol = url.getProtocol();
+    if (storeDir == null || !("http".equals(protocol) || "https".equals(protocol))
+        || url.getQuery() != null || url.getPath().isEmpty() || url.getPath().contains("..")) {
+      return null;
+    }
+    return new File(new File(storeDir, url.getHost()), url.getPath());
+  }
+
+  /**
+   * Reads a schema, or any other resource referenced by a label, from the store. A remote schema
+   * not found in the store, or stored for longer than the maximum age, is downloaded and added to
+   * it.
+   *
+   * @param url The location of the schema.
+   * @return The content of the schema.
+   *
+   * @throws IOException If the schema cannot be read.
+   */
+  public static byte[] read(URL url) throws IOException {
+    File file = getStoreFile(url);
+    boolean stored = file != null && file.isFile();
+    if (stored) {
+      long maxAge = getMaxAge();
+      if (maxAge < 0 || System.currentTimeMillis() - file.lastModified() <= maxAge) {
+        LOG.debug("read:STORE_HIT:url,file {},{}", url, file);
+        return Files.readAllBytes(file.toPath());
+      }
+      LOG.debug("read:STORE_EXPIRED:url,file {},{}", url, file);
+    }
+    byte[] content = null;
+    InputStream in = null;
+    URLConnection conn = null;
+    try {
+      conn = url.openConnection();
+      in = Utility.openConnection(conn);
+      content = IOUtils.toByteArray(in);
+    } catch (IOException io) {
+      if (!stored) {
+        throw io;
+      }
+      // An expired schema is still better than none when the network cannot be used.
+      LOG.warn("Cannot refresh stored schema {}, using the stored copy: {}", url, io.getMessage());
+      return Files.readAllBytes(file.toPath());
+    } finally {
+      IOUtils.closeQuietly(in);
+      IOUtils.close(conn);
+    }
+    if (file != null) {
+      if (isSchema(content)) {
+        write(file, content);
+      } else {
+        LOG.debug("read:NOT_STORED:url {} is not an XML Schema", url);
+      }
+    }
+    return content;
+  }
+
+  /**
+   * Checks that content is a well-formed XML document whose root element is an XML Schema, so that
+   * an error page or a truncated download is never stored.
+   *
+   * @param content The content.
+   * @return true if the content parses as an XML Schema.
+   */
+  private static boolean isSchema(byte[] content) {
+    final boolean[] schema = {false};
+    try {
+      SAXParserFactory factory = SAXParserFactory.newInstance();
+      factory.setNamespaceAware(true);
+      factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      factory.setFeature("http://xml.org/sax/features/external-general-entities", false);
+      factory.setFeature("http://xml.org/sax/features/external-parameter-entities", false);
+      XMLReader reader = factory.newSAXParser().getXMLReader();
+      // The DTD of a schema, if any, is never loaded.
+      reader.setEntityResolver((publicId, systemId) -> new InputSource(new StringReader("")));
+      reader.setContentHandler(new DefaultHandler() {
+        private boolean root = true;
+
+        @Override
+        public void startElement(String uri, String localName, String qName,
+            Attributes attributes) {
+          if (root) {
+            schema[0] = XMLConstants.W3C_XML_SCHEMA_NS_URI.equals(uri)
+                && "schema".equals(localName);
+            root = false;
+          }
+        }
+      });
+      reader.parse(new InputSource(new ByteArrayInputStream(content)));
+    } catch (ParserConfigurationException | SAXException | IOException e) {
+      return false;
+    }
+    return schema[0];
+  }
+
+  private static void write(File file, byte[] content) {
+    try {
+      Files.createDirectories(file.getParentFile().toPath());
+      // Write to a temporary file first so other processes never read a partial schema.
+      Path tmp = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp");
+      Files.write(tmp, content);
+      try {
+        Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
+      } catch (IOException io) {
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
+      }
+      LOG.debug("write:file {}", file);
+    } catch (IOException io) {
+      LOG.warn("Cannot store schema {}: {}", file, io.getMessage());
+    }
+  }
+}
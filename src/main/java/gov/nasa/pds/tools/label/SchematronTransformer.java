@@ -13,16 +13,25 @@
 // $Id$
 package gov.nasa.pds.tools.label;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.FileNotFoundException;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.StringReader;
 import java.io.StringWriter;
+import java.net.MalformedURLException;
 import java.net.URL;
 import java.net.URLConnection;
-import java.util.HashMap;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.xml.transform.Source;
+import javax.xml.transform.Templates;
 import javax.xml.transform.Transformer;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
@@ -32,24 +41,44 @@ import javax.xml.transform.stream.StreamSource;
 import org.apache.commons.io.IOUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import com.google.common.hash.Hashing;
+import gov.nasa.pds.tools.util.SettingsManager;
 import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.util.XslURIResolver;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemHandler;
 import gov.nasa.pds.tools.validate.ProblemType;
 import gov.nasa.pds.tools.validate.ValidationProblem;
+import gov.nasa.pds.validate.util.ToolInfo;
 
 /**
  * A class that transforms Schematron files based on the isoSchematron stylesheet.
  *
+ * The stylesheets generated from the schematrons are compiled once per JVM and shared by all
+ * instances, keyed by the hash of the schematron content, of the isoSchematron stylesheets and of
+ * the tool version. When a cache directory is set, the stylesheets are also written to it so later
+ * runs do not need to run the isoSchematron stylesheet again.
+ *
  * @author mcayanan
  *
  */
 public class SchematronTransformer {
   private static final Logger LOG = LoggerFactory.getLogger(SchematronTransformer.class);
+  private static final String ISO_SCHEMATRON = "/schematron/iso_svrl_for_xslt2.xsl";
+
+  /** The isoSchematron stylesheets whose content changes the generated stylesheets. */
+  private static final String[] ISO_SCHEMATRON_FILES =
+      {ISO_SCHEMATRON, "/schematron/iso_schematron_skeleton_for_saxon.xsl"};
+
+  /** The compiled schematrons, keyed by the hash of the schematron content. */
+  private static Map<String, Templates> compiledSchematrons = new ConcurrentHashMap<>();
+
+  /** The content of the isoSchematron stylesheets and the tool version, hashed into every key. */
+  private static byte[] skeletonKey;
+
   private Transformer isoTransformer;
   private TransformerFactory transformerFactory;
-  private Map<String, Transformer> cachedTransformers;
+  private File cacheDir;
 
   /**
    * Constructor.
@@ -65,11 +94,41 @@ public class SchematronTransformer {
     isoFactory.setURIResolver(new XslURIResolver());
     // Load the isoSchematron stylesheet that will be used to transform each
     // schematron file
-    Source isoSchematron = new StreamSource(
-        LabelValidator.class.getResourceAsStream("/schematron/iso_svrl_for_xslt2.xsl"));
+    Source isoSchematron =
+        new StreamSource(LabelValidator.class.getResourceAsStream(ISO_SCHEMATRON));
     isoTransformer = isoFactory.newTransformer(isoSchematron);
     transformerFactory = TransformerFactory.newInstance();
-    cachedTransformers = new HashMap<>();
+    // The stylesheets are only kept on disk when a directory is set.
+    String dir = SettingsManager.INSTANCE.getString(ValidationSettings.SCHEMATRON_CACHE_DIR, null);
+    cacheDir = (dir == null || dir.trim().isEmpty()) ? null : new File(dir);
+  }
+
+  /**
+   * Gets the content of the isoSchematron stylesheets followed by the tool version, so that the
+   * stylesheets cached by another release are not used.
+   *
+   * @return The bytes hashed into every key.
+   * @throws TransformerException If the isoSchematron stylesheets cannot be read.
+   */
+  private static synchronized byte[] getSkeletonKey() throws TransformerException {
+    if (skeletonKey == null) {
+      try (ByteArrayOutputStream out = new ByteArrayOutputStream()) {
+        for (String file : ISO_SCHEMATRON_FILES) {
+          try (InputStream in = LabelValidator.class.getResourceAsStream(file)) {
+            if (in == null) {
+              throw new TransformerException("Cannot find isoSchematron stylesheet " + file);
+            }
+            IOUtils.copy(in, out);
+          }
+        }
+        String version = ToolInfo.getVersion();
+        out.write((version == null ? "" : version).getBytes(StandardCharsets.UTF_8));
+        skeletonKey = out.toByteArray();
+      } catch (IOException io) {
+        throw new TransformerException("Cannot read isoSchematron stylesheets: " + io.getMessage());
+      }
+    }
+    return skeletonKey;
   }
 
   /**
@@ -77,11 +136,12 @@ public class SchematronTransformer {
    *
    * @param source The schematron source.
    *
-   * @return A transformed schematron.
+   * @return A compiled schematron. It can be shared by several threads, each creating its own
+   *         transformer from it.
    *
    * @throws TransformerException If an error occurred during the transform process.
    */
-  public Transformer transform(Source source) throws TransformerException {
+  public Templates transform(Source source) throws TransformerException {
     return transform(source, null);
   }
 
@@ -91,24 +151,28 @@ public class SchematronTransformer {
    * @param source The schematron source.
    * @param handler Container to hold problems that occurred during the transform process.
    *
-   * @return A transformed schematron.
+   * @return A compiled schematron. It can be shared by several threads, each creating its own
+   *         transformer from it.
    *
    * @throws TransformerException If an error occurred during the transform process.
    */
-  public Transformer transform(Source source, ProblemHandler handler) throws TransformerException {
-    Transformer transformer = null;
-    if (cachedTransformers.containsKey(source.getSystemId())) {
-      transformer = cachedTransformers.get(source.getSystemId());
-    } else {
-      if (handler != null) {
-        isoTransformer.setErrorListener(new TransformerErrorListener(handler));
+  public Templates transform(Source source, ProblemHandler handler) throws TransformerException {
+    // A source given only by its location can be read and hashed like a URL.
+    if (source instanceof StreamSource && ((StreamSource) source).getInputStream() == null
+        && ((StreamSource) source).getReader() == null && source.getSystemId() != null) {
+      try {
+        return transform(new URL(source.getSystemId()), handler);
+      } catch (MalformedURLException e) {
+        // Not a URL. Transform the source without the cache.
       }
-      StringWriter schematronStyleSheet = new StringWriter();
-      isoTransformer.transform(source, new StreamResult(schematronStyleSheet));
-      transformer = transformerFactory
-          .newTransformer(new StreamSource(new StringReader(schematronStyleSheet.toString())));
     }
-    return transformer;
+    if (handler != null) {
+      isoTransformer.setErrorListener(new TransformerErrorListener(handler));
+    }
+    StringWriter schematronStyleSheet = new StringWriter();
+    isoTransformer.transform(source, new StreamResult(schematronStyleSheet));
+    return transformerFactory
+        .newTemplates(new StreamSource(new StringReader(schematronStyleSheet.toString())));
   }
 
   /**
@@ -116,11 +180,12 @@ public class SchematronTransformer {
    *
    * @param schematron The URL to the schematron.
    *
-   * @return A transformed schematron.
+   * @return A compiled schematron. It can be shared by several threads, each creating its own
+   *         transformer from it.
    *
    * @throws TransformerException If an error occurred during the transform process.
    */
-  public Transformer transform(URL schematron) throws TransformerException {
+  public Templates transform(URL schematron) throws TransformerException {
     return transform(schematron, null);
   }
 
@@ -130,59 +195,138 @@ public class SchematronTransformer {
    * @param schematron the URL to the schematron.
    * @param handler an problem handler to capture problems.
    *
-   * @return a transformed schematron.
+   * @return a compiled schematron. It can be shared by several threads, each creating its own
+   *         transformer from it.
    *
    * @throws TransformerException if an error occurred during the transform process.
    */
-  public Transformer transform(URL schematron, ProblemHandler handler) throws TransformerException {
-    Transformer transformer = null;
+  public Templates transform(URL schematron, ProblemHandler handler) throws TransformerException {
+    Templates templates = null;
     LOG.debug("transform:schematron {}", schematron);
 
-    if (cachedTransformers.containsKey(schematron.toString())) {
-      transformer = cachedTransformers.get(schematron.toString());
-    } else {
+    InputStream in = null;
+    URLConnection conn = null;
+    try {
+      conn = schematron.openConnection();
+      in = Utility.openConnection(conn);
+      byte[] content = IOUtils.toByteArray(in);
+      templates = compile(content, schematron.toString(), handler);
+    } catch (TransformerException te) {
+      // Only throw problem if a handler was not set.
+      if (handler == null) {
+        throw te;
+      }
+    } catch (IOException io) {
+      String message = "";
+      if (io instanceof FileNotFoundException) {
+        message = "Cannot read schematron as URL cannot be found: " + io.getMessage();
+      } else {
+        // message = io.getMessage();
+        // Put a more detail message since io.getMessage only return the schematron file
+        // name.
+        message = "Cannot read schematron from URL " + schematron;
+      }
+      LOG.debug("transform:message {}", message);
+      if (handler == null) {
+        throw new TransformerException(message);
+      }
+      handler.addProblem(new ValidationProblem(
+          new ProblemDefinition(ExceptionType.FATAL, ProblemType.SCHEMATRON_ERROR, message),
+          schematron));
+    } finally {
+      IOUtils.closeQuietly(in);
+      IOUtils.close(conn);
+    }
+    return templates;
+  }
+
+  /**
+   * Compiles a schematron. The compiled schematron is taken from the memory cache, or compiled from
+   * the stylesheet in the cache directory if one is set, before running the isoSchematron
+   * stylesheet.
+   *
+   * @param content The content of the schematron.
+   * @param systemId The location of the schematron.
+   * @param handler An problem handler to capture problems, or null to throw them.
+   *
+   * @return The compiled schematron.
+   *
+   * @throws TransformerException If an error occurred during the transform process.
+   */
+  private Templates compile(byte[] content, String systemId, ProblemHandler handler)
+      throws TransformerException {
+    String key =
+        Hashing.sha256().newHasher().putBytes(getSkeletonKey()).putBytes(content).hash().toString();
+    Templates templates = compiledSchematrons.get(key);
+    if (templates != null) {
+      LOG.debug("compile:MEMORY_CACHE_HIT:systemId,key {},{}", systemId, key);
+      return templates;
+    }
+
+    String styleSheet = readCachedStyleSheet(key);
+    boolean cacheable = true;
+    if (styleSheet == null) {
+      TransformerErrorListener listener = null;
       if (handler != null) {
-        isoTransformer.setErrorListener(new TransformerErrorListener(handler));
+        listener = new TransformerErrorListener(handler);
+        isoTransformer.setErrorListener(listener);
       }
+      StreamSource source = new StreamSource(new ByteArrayInputStream(content));
+      source.setSystemId(systemId);
       StringWriter schematronStyleSheet = new StringWriter();
-      InputStream in = null;
-      URLConnection conn = null;
+      isoTransformer.transform(source, new StreamResult(schematronStyleSheet));
+      styleSheet = schematronStyleSheet.toString();
+      // Problems found in the schematron must be reported each time it is used, so the
+      // stylesheet is only cached when there were none.
+      cacheable = (listener == null || listener.getProblemCount() == 0);
+    } else {
+      LOG.debug("compile:DISK_CACHE_HIT:systemId,key {},{}", systemId, key);
+    }
+
+    templates = transformerFactory.newTemplates(new StreamSource(new StringReader(styleSheet)));
+    if (cacheable) {
+      writeCachedStyleSheet(key, styleSheet);
+      compiledSchematrons.putIfAbsent(key, templates);
+    }
+    return templates;
+  }
+
+  private String readCachedStyleSheet(String key) {
+    if (cacheDir == null) {
+      return null;
+    }
+    File file = new File(cacheDir, key + ".xsl");
+    if (!file.isFile()) {
+      return null;
+    }
+    try {
+      return new String(Files.readAllBytes(file.toPath()), StandardCharsets.UTF_8);
+    } catch (IOException io) {
+      LOG.warn("Cannot read cached schematron stylesheet {}: {}", file, io.getMessage());
+      return null;
+    }
+  }
+
+  private void writeCachedStyleSheet(String key, String styleSheet) {
+    if (cacheDir == null) {
+      return;
+    }
+    File file = new File(cacheDir, key + ".xsl");
+    if (file.isFile()) {
+      return;
+    }
+    try {
+      Files.createDirectories(cacheDir.toPath());
+      // Write to a temporary file first so other processes never read a partial stylesheet.
+      Path tmp = Files.createTempFile(cacheDir.toPath(), key, ".tmp");
+      Files.write(tmp, styleSheet.getBytes(StandardCharsets.UTF_8));
       try {
-        conn = schematron.openConnection();
-        in = Utility.openConnection(conn);
-
-        StreamSource source = new StreamSource(in);
-        source.setSystemId(schematron.toString());
-        isoTransformer.transform(source, new StreamResult(schematronStyleSheet));
-        transformer = transformerFactory
-            .newTransformer(new StreamSource(new StringReader(schematronStyleSheet.toString())));
-      } catch (TransformerException te) {
-        // Only throw problem if a handler was not set.
-        if (handler == null) {
-          throw te;
-        }
+        Files.move(tmp, file.toPath(), StandardCopyOption.ATOMIC_MOVE);
       } catch (IOException io) {
-        String message = "";
-        if (io instanceof FileNotFoundException) {
-          message = "Cannot read schematron as URL cannot be found: " + io.getMessage();
-        } else {
-          // message = io.getMessage();
-          // Put a more detail message since io.getMessage only return the schematron file
-          // name.
-          message = "Cannot read schematron from URL " + schematron;
-        }
-        LOG.debug("transform:message {}", message);
-        if (handler == null) {
-          throw new TransformerException(message);
-        }
-        handler.addProblem(new ValidationProblem(
-            new ProblemDefinition(ExceptionType.FATAL, ProblemType.SCHEMATRON_ERROR, message),
-            schematron));
-      } finally {
-        IOUtils.closeQuietly(in);
-        IOUtils.close(conn);
+        Files.move(tmp, file.toPath(), StandardCopyOption.REPLACE_EXISTING);
       }
+    } catch (IOException io) {
+      LOG.warn("Cannot write cached schematron stylesheet {}: {}", file, io.getMessage());
     }
-    return transformer;
   }
 }
@@ -0,0 +1,82 @@
+// Copyright 2009-2018, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology
+// Transfer at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+//
+package gov.nasa.pds.tools.label;
+
+import org.xml.sax.Attributes;
+import org.xml.sax.helpers.DefaultHandler;
+
+/**
+ * SAX handler that reads the svrl:failed-assert elements of a schematron report as it is written by
+ * the transformer, so the report does not have to be built as a DOM first.
+ */
+class SvrlFailedAssertHandler extends DefaultHandler {
+  private static final String SVRL_NAMESPACE = "http://purl.oclc.org/dsdl/svrl";
+  private static final String FAILED_ASSERT = "failed-assert";
+
+  /**
+   * Receives the failed asserts found in a schematron report.
+   */
+  interface Listener {
+    /**
+     * Called for each failed assert in the report.
+     *
+     * @param role The role attribute of the assert, or null if there is none.
+     * @param location The XPath location of the node that failed the assert.
+     * @param test The test that failed.
+     * @param message The text of the failed assert.
+     */
+    void failedAssert(String role, String location, String test, String message);
+  }
+
+  private final Listener listener;
+
+  /** The depth below the current failed assert, or 0 when outside of one. */
+  private int depth = 0;
+  private String role;
+  private String location;
+  private String test;
+  private final StringBuilder message = new StringBuilder();
+
+  SvrlFailedAssertHandler(Listener listener) {
+    this.listener = listener;
+  }
+
+  @Override
+  public void startElement(String uri, String localName, String qName, Attributes attributes) {
+    if (depth > 0) {
+      depth++;
+    } else if (SVRL_NAMESPACE.equals(uri) && FAILED_ASSERT.equals(localName)) {
+      depth = 1;
+      role = attributes.getValue("role");
+      location = attributes.getValue("location");
+      test = attributes.getValue("test");
+      message.setLength(0);
+    }
+  }
+
+  @Override
+  public void characters(char[] ch, int start, int length) {
+    if (depth > 0) {
+      message.append(ch, start, length);
+    }
+  }
+
+  @Override
+  public void endElement(String uri, String localName, String qName) {
+    if (depth > 0 && --depth == 0) {
+      listener.failedAssert(role, location, test, message.toString().trim());
+    }
+  }
+}
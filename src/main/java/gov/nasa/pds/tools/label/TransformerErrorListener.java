@@ -33,6 +33,7 @@ import gov.nasa.pds.tools.validate.ValidationProblem;
  */
 public class TransformerErrorListener implements ErrorListener {
   private ProblemHandler handler;
+  private int problemCount = 0;
 
   /**
    * Constructor.
@@ -64,8 +65,16 @@ public class TransformerErrorListener implements ErrorListener {
         locator.getSystemId(), locator.getLineNumber(), locator.getColumnNumber());
   }
 
+  /**
+   * @return the number of problems reported by this listener.
+   */
+  public int getProblemCount() {
+    return problemCount;
+  }
+
   private void addProblem(ExceptionType severity, ProblemType type, String message, String systemId,
       int lineNumber, int columnNumber) {
+    problemCount++;
     URL url = null;
     try {
       url = new URL(systemId);
@@ -15,4 +15,30 @@ public class ValidationSettings {
   /** Specifies the path to the PDS3 Master Data Dictionary. */
   public static final String PDS3_DICTIONARY_PATH = "pds3.dictionary.path";
 
+  /**
+   * Specifies the directory where the stylesheets generated from schematrons are cached between
+   * runs. The stylesheets are only cached in memory unless it is set, and the directory should be
+   * one that only the user can write to.
+   */
+  public static final String SCHEMATRON_CACHE_DIR = "pds.validate.schematron.cache";
+
+  /**
+   * Specifies the directory where remote schemas are stored once downloaded. A directory populated
+   * beforehand allows validation without network access. The schemas are not stored unless it is
+   * set, and the directory should be one that only the user can write to.
+   */
+  public static final String SCHEMA_STORE_DIR = "pds.validate.schema.store";
+
+  /**
+   * Specifies the number of days after which a stored schema is downloaded again. A negative value
+   * keeps the stored schemas forever, and 0 downloads them each time they are read.
+   */
+  public static final String SCHEMA_STORE_MAX_AGE = "pds.validate.schema.store.maxAge";
+
+  /**
+   * Specifies the maximum number of parsed bundle and collection labels kept in memory for reuse.
+   * The least recently used labels are dropped first, and 0 turns the cache off.
+   */
+  public static final String DOCUMENT_CACHE_SIZE = "pds.validate.document.cache.size";
+
 }
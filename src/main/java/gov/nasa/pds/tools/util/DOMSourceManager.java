@@ -1,23 +1,132 @@
 package gov.nasa.pds.tools.util;
 
-import java.util.HashMap;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerException;
 import javax.xml.transform.dom.DOMSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.w3c.dom.Document;
+import org.xml.sax.SAXException;
+import net.sf.saxon.om.DocumentInfo;
+import gov.nasa.pds.tools.label.ValidationSettings;
 
 /**
- * Class that does management of DOMSource objects for reuse.
+ * Class that does management of parsed documents for reuse. Bundle and collection labels are read
+ * by several rules and utilities, so the parsed documents are kept in a bounded cache where the
+ * least recently used document is evicted first. The cache can be used by several threads.
  *
  */
 public class DOMSourceManager {
   private static final Logger LOG = LoggerFactory.getLogger(DOMSourceManager.class);
   private static final boolean REUSE_SOURCE_FLAG = true; // Flag to allow turning on/off the reuse
                                                          // capability.
-  private static HashMap<String, DOMSource> domMAP = new HashMap<>();
+
+  /** The default maximum number of documents kept in the cache. */
+  public static final int DEFAULT_MAX_ENTRIES = 1000;
+
+  /** The maximum number of documents kept in the cache, read from the settings by clear(). */
+  private static int maxEntries = readMaxEntries();
+
+  /** The cached documents, in least recently used order. */
+  private static LinkedHashMap<String, CachedDocument> domMAP =
+      new LinkedHashMap<String, CachedDocument>(16, 0.75f, true) {
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, CachedDocument> eldest) {
+          return size() > maxEntries;
+        }
+      };
+
+  private static AtomicLong hitCount = new AtomicLong();
+  private static AtomicLong missCount = new AtomicLong();
+
+  /**
+   * The parsed forms of a document. A document may be kept both as a DOM and as a Saxon tree since
+   * the callers use either one.
+   */
+  private static class CachedDocument {
+    private DOMSource dom;
+    private DocumentInfo tree;
+  }
+
+  /**
+   * Reads the maximum number of documents kept in the cache from the
+   * ValidationSettings.DOCUMENT_CACHE_SIZE setting.
+   *
+   * @return the maximum number of documents, or DEFAULT_MAX_ENTRIES if it is not set or invalid.
+   */
+  private static int readMaxEntries() {
+    String value = SettingsManager.INSTANCE.getString(ValidationSettings.DOCUMENT_CACHE_SIZE,
+        String.valueOf(DEFAULT_MAX_ENTRIES));
+    try {
+      return Math.max(0, Integer.parseInt(value.trim()));
+    } catch (NumberFormatException e) {
+      LOG.warn("Invalid size of the document cache '{}', using {} documents", value,
+          DEFAULT_MAX_ENTRIES);
+      return DEFAULT_MAX_ENTRIES;
+    }
+  }
+
+  /**
+   * Removes all documents from the cache and resets the counters. Should be called between runs
+   * since the files may have changed. The size of the cache is read again from the settings for
+   * the next run.
+   */
+  public static synchronized void clear() {
+    LOG.debug("DOMSourceManager:clear:size,hits,misses {},{},{}", domMAP.size(), hitCount.get(),
+        missCount.get());
+    domMAP.clear();
+    hitCount.set(0);
+    missCount.set(0);
+    maxEntries = readMaxEntries();
+  }
+
+  /**
+   * @return the maximum number of documents kept in the cache.
+   */
+  public static synchronized int getMaxEntries() {
+    return maxEntries;
+  }
+
+  /**
+   * @return the number of documents found in the cache since it was last cleared.
+   */
+  public static long getHitCount() {
+    return hitCount.get();
+  }
+
+  /**
+   * @return the number of documents not found in the cache since it was last cleared.
+   */
+  public static long getMissCount() {
+    return missCount.get();
+  }
+
+  private static synchronized CachedDocument getEntry(String location) {
+    return domMAP.get(location);
+  }
+
+  private static synchronized CachedDocument getOrCreateEntry(String location) {
+    CachedDocument entry = domMAP.get(location);
+    if (entry == null) {
+      entry = new CachedDocument();
+      domMAP.put(location, entry);
+    }
+    return entry;
+  }
 
   /**
    * Save a DOMSource to a map.
-   * 
+   *
    * @param location The location where the DOMSource came from.
    * @param source The DOMSource object.
    */
@@ -26,34 +135,34 @@ public class DOMSourceManager {
     // If REUSE_SOURCE_FLAG is set to true, save the DOMSource object to the domMAP.
     if (REUSE_SOURCE_FLAG) {
       // Save the DOMSource from a location for later reuse.
-      domMAP.put(location, source);
+      synchronized (DOMSourceManager.class) {
+        getOrCreateEntry(location).dom = source;
+      }
     }
   }
 
   /**
    * Retrieve a saved DOMSource from a map.
-   * 
+   *
    * @param location The location to retrieve the DOMSource from if available.
    */
   public static DOMSource reuseDOM(String location) {
-    // Reuse the DOMSource from domMAP and clear out the list to keep list from
-    // growing.
     // Can return null if the target has not been parsed before. Client should check
     // for nullness.
     DOMSource source = null;
 
     if (REUSE_SOURCE_FLAG) {
-      if (!domMAP.isEmpty() && domMAP.containsKey(location)) {
-        source = domMAP.get(location);
-        LOG.debug("DOMSourceManager:reuseDOM: REUSE_TRUE {}", location);
-        if (source != null) {
-          LOG.debug("DOMSourceManager:reuseDOM: DOM_MAP_SIZE_PRECLEAR {}", domMAP.size());
-          domMAP.clear(); // Not sure if should delete one or clear out all. Had not observed any
-                          // adverse
-                          // reactions from regression tests.
-          LOG.debug("DOMSourceManager:reuseDOM: DOM_MAP_SIZE_POSTCLEAR {}", domMAP.size());
+      synchronized (DOMSourceManager.class) {
+        CachedDocument entry = getEntry(location);
+        if (entry != null) {
+          source = entry.dom;
         }
+      }
+      if (source != null) {
+        hitCount.incrementAndGet();
+        LOG.debug("DOMSourceManager:reuseDOM: REUSE_TRUE {}", location);
       } else {
+        missCount.incrementAndGet();
         LOG.debug("DOMSourceManager:reuseDOM: REUSE_FALSE {}", location);
       }
     } else {
@@ -61,4 +170,73 @@ public class DOMSourceManager {
     }
     return (source);
   }
+
+  /**
+   * Gets a document as a DOMSource, parsing it only if it is not in the cache.
+   *
+   * @param url The location of the document.
+   * @return The parsed document.
+   *
+   * @throws ParserConfigurationException If the parser cannot be created.
+   * @throws SAXException If the document cannot be parsed.
+   * @throws IOException If the document cannot be read.
+   */
+  public static DOMSource getDOM(URL url)
+      throws ParserConfigurationException, SAXException, IOException {
+    DOMSource source = reuseDOM(url.toString());
+    if (source == null) {
+      DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
+      dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+      try {
+        // A deferred DOM expands its nodes while it is read, so it cannot be shared between
+        // threads.
+        dbf.setFeature("http://apache.org/xml/features/dom/defer-node-expansion", false);
+      } catch (ParserConfigurationException e) {
+        // Not supported by this parser. The DOM is built fully anyway.
+      }
+      Document xml = null;
+      try (InputStream in = url.openStream()) {
+        xml = dbf.newDocumentBuilder().parse(in);
+      }
+      source = new DOMSource(xml);
+      source.setSystemId(url.toString());
+      saveDOM(url.toString(), source);
+    }
+    return source;
+  }
+
+  /**
+   * Gets a document as a Saxon tree, parsing it only if it is not in the cache.
+   *
+   * @param url The location of the document.
+   * @return The parsed document.
+   *
+   * @throws TransformerException If the document cannot be parsed.
+   * @throws IOException If the document cannot be read.
+   */
+  public static DocumentInfo getDocumentInfo(URL url) throws TransformerException, IOException {
+    DocumentInfo tree = null;
+    if (REUSE_SOURCE_FLAG) {
+      synchronized (DOMSourceManager.class) {
+        CachedDocument entry = getEntry(url.toString());
+        if (entry != null) {
+          tree = entry.tree;
+        }
+      }
+    }
+    if (tree != null) {
+      hitCount.incrementAndGet();
+      LOG.debug("DOMSourceManager:getDocumentInfo: REUSE_TRUE {}", url);
+    } else {
+      missCount.incrementAndGet();
+      LOG.debug("DOMSourceManager:getDocumentInfo: REUSE_FALSE {}", url);
+      tree = LabelParser.parse(url);
+      if (REUSE_SOURCE_FLAG) {
+        synchronized (DOMSourceManager.class) {
+          getOrCreateEntry(url.toString()).tree = tree;
+        }
+      }
+    }
+    return tree;
+  }
 }
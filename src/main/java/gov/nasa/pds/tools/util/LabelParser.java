@@ -13,12 +13,15 @@
 // $Id$
 package gov.nasa.pds.tools.util;
 
+import java.io.IOException;
+import java.net.URL;
+import java.util.Map;
 import javax.xml.transform.Source;
 import javax.xml.transform.TransformerException;
+import javax.xml.transform.sax.SAXSource;
 import net.sf.saxon.Configuration;
 import net.sf.saxon.lib.ParseOptions;
 import net.sf.saxon.om.DocumentInfo;
-import net.sf.saxon.xpath.XPathEvaluator;
 
 public class LabelParser {
 
@@ -30,14 +33,46 @@ public class LabelParser {
    * @throws TransformerException
    */
   public static DocumentInfo parse(Source source) throws TransformerException {
-    XPathEvaluator xpath = new XPathEvaluator();
-    Configuration configuration = xpath.getConfiguration();
-    configuration.setLineNumbering(true);
-    configuration.setXIncludeAware(Utility.supportXincludes());
+    // The labels are built with the configuration of the compiled XPaths they are queried with.
+    Configuration configuration = XPathRegistry.getConfiguration();
     ParseOptions options = new ParseOptions();
     options.setErrorListener(new XMLErrorListener());
     options.setLineNumbering(true);
     options.setXIncludeAware(Utility.supportXincludes());
     return configuration.buildDocument(source, options);
   }
+
+  /**
+   * Parses a label.
+   *
+   * @param url the location of the label to parse.
+   * @return a DocumentInfo object.
+   * @throws TransformerException
+   * @throws IOException
+   */
+  public static DocumentInfo parse(URL url) throws TransformerException, IOException {
+    SAXSource source = new SAXSource(Utility.getInputSourceByURL(url));
+    source.setSystemId(url.toString());
+    return parse(source);
+  }
+
+  /**
+   * Gets a label from a map of labels that have already been parsed. The label is parsed and added
+   * to the map if it is not there yet.
+   *
+   * @param url the location of the label.
+   * @param parsedLabels the labels already parsed, keyed by their URL.
+   * @return a DocumentInfo object.
+   * @throws TransformerException
+   * @throws IOException
+   */
+  public static DocumentInfo parse(URL url, Map<String, DocumentInfo> parsedLabels)
+      throws TransformerException, IOException {
+    DocumentInfo label = parsedLabels.get(url.toString());
+    if (label == null) {
+      label = parse(url);
+      parsedLabels.put(url.toString(), label);
+    }
+    return label;
+  }
 }
@@ -21,7 +21,6 @@ import java.util.ArrayList;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Element;
@@ -73,8 +72,6 @@ public class LabelUtil {
 
   private static String location = null;
 
-  private static XPathFactory xPathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
-
   private static ArrayList<String> informationModelVersions = new ArrayList<>();
   private static Report report = null;
   private static boolean bundleLabelSetFlag = false;
@@ -228,7 +225,7 @@ public class LabelUtil {
     String informationModelVersion = null;
     LOG.debug("getIMVersion:MY_SOURCE[{}]", source);
     try {
-      NodeList nodeList = (NodeList) xPathFactory.newXPath().evaluate(IDENTIFICATION_AREA, source,
+      NodeList nodeList = (NodeList) XPathRegistry.compile(IDENTIFICATION_AREA).evaluate(source,
           XPathConstants.NODESET);
       for (int i = 0; i < nodeList.getLength(); ++i) {
         NodeList childList = ((Element) nodeList.item(i)).getChildNodes();
@@ -272,7 +269,7 @@ public class LabelUtil {
 
     try {
       // Get to the node containing the searchPathName
-      NodeList nodeList = (NodeList) xPathFactory.newXPath().evaluate(searchPathName, source,
+      NodeList nodeList = (NodeList) XPathRegistry.compile(searchPathName).evaluate(source,
           XPathConstants.NODESET);
       LOG.debug("getIdentifiersCommon:context,nodeList.getLength() {},{}", context,
           nodeList.getLength());
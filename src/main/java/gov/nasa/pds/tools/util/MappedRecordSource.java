@@ -0,0 +1,180 @@
+// Copyright 2021, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+
+package gov.nasa.pds.tools.util;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Reads the records of a table with fixed-length records from a memory-mapped data file. The
+ * records are slices of the mapping, so they are served by the page cache of the operating system
+ * without being copied through a stream.
+ *
+ * The records of a Table_Character can also be checked byte by byte as they are copied out of the
+ * mapping with readAscii(), so that only the records holding other bytes than ASCII need to be
+ * decoded by the table reader.
+ *
+ * A mapping cannot be larger than 2 GB, so the table is mapped one window of whole records at a
+ * time. A source is not thread safe; each thread opens its own source.
+ */
+public class MappedRecordSource implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(MappedRecordSource.class);
+
+  /** The largest number of bytes mapped at once. */
+  private static final long MAX_WINDOW_SIZE = 1L << 30;
+
+  private final FileChannel channel;
+  private final long offset;
+  private final int recordLength;
+  private final long recordCount;
+
+  /** The number of records in each window. */
+  private final long windowRecords;
+
+  private MappedByteBuffer window = null;
+
+  /** The index of the first record of the current window, starting at 1. */
+  private long windowFirstRecord = -1;
+
+  /** The number of whole records in the current window. */
+  private long windowRecordCount = 0;
+
+  /**
+   * Opens the records of a table.
+   *
+   * @param dataFile The data file.
+   * @param offset The offset of the table in the data file.
+   * @param recordLength The length of a record, in bytes.
+   * @param recordCount The number of records of the table.
+   *
+   * @throws IOException If the data file cannot be opened.
+   */
+  public MappedRecordSource(Path dataFile, long offset, long recordLength, long recordCount)
+      throws IOException {
+    if (recordLength <= 0 || recordLength > MAX_WINDOW_SIZE) {
+      throw new IllegalArgumentException("Cannot map records of " + recordLength + " bytes");
+    }
+    this.channel = FileChannel.open(dataFile, StandardOpenOption.READ);
+    this.offset = offset;
+    this.recordLength = (int) recordLength;
+    this.recordCount = recordCount;
+    this.windowRecords = MAX_WINDOW_SIZE / recordLength;
+  }
+
+  /**
+   * @return the number of records of the table.
+   */
+  public long getRecordCount() {
+    return recordCount;
+  }
+
+  /**
+   * @return the length of a record, in bytes.
+   */
+  public int getRecordLength() {
+    return recordLength;
+  }
+
+  /**
+   * Gets a record of the table. The record is a read-only slice of the mapping, which is only
+   * valid until the next record is read.
+   *
+   * @param index The index of the record, starting at 1.
+   * @return The bytes of the record, or null if the record is not in the table or is cut short
+   *         by the end of the data file.
+   *
+   * @throws IOException If the data file cannot be mapped.
+   */
+  public ByteBuffer getRecord(long index) throws IOException {
+    if (index < 1 || index > recordCount) {
+      return null;
+    }
+    if (window == null || index < windowFirstRecord
+        || index >= windowFirstRecord + windowRecordCount) {
+      map(index);
+    }
+    if (window == null) {
+      return null;
+    }
+    int start = (int) ((index - windowFirstRecord) * recordLength);
+    ByteBuffer record = window.duplicate();
+    record.limit(start + recordLength);
+    record.position(start);
+    return record.slice();
+  }
+
+  /**
+   * Copies a record of the table into a buffer, and checks whether it holds only ASCII bytes. The
+   * characters of such a record are the same in every encoding of a Table_Character.
+   *
+   * @param index The index of the record, starting at 1.
+   * @param buffer The buffer the record is copied to, at least getRecordLength() long.
+   * @return true if the record holds only ASCII bytes.
+   *
+   * @throws BufferUnderflowException If the record is not in the table or is cut short by the end
+   *         of the data file, as when the table reader reads it.
+   * @throws IOException If the data file cannot be mapped.
+   */
+  public boolean readAscii(long index, byte[] buffer) throws IOException {
+    ByteBuffer record = getRecord(index);
+    if (record == null) {
+      throw new BufferUnderflowException();
+    }
+    record.get(buffer, 0, recordLength);
+    // The bytes past 0x7F are negative, and so is their union.
+    int bits = 0;
+    for (int i = 0; i < recordLength; i++) {
+      bits |= buffer[i];
+    }
+    return bits >= 0;
+  }
+
+  /**
+   * Maps the window of records starting at a given record. Nothing is mapped when the data file,
+   * which may be shorter than the table defined in the label, ends before the record does, as a
+   * read-only mapping cannot go past the end of the file.
+   *
+   * @param firstRecord The index of the first record of the window, starting at 1.
+   */
+  private void map(long firstRecord) throws IOException {
+    long start = offset + (firstRecord - 1) * recordLength;
+    long records = Math.min(windowRecords, recordCount - firstRecord + 1);
+    long available = channel.size() - start;
+    window = null;
+    windowFirstRecord = firstRecord;
+    windowRecordCount = 0;
+    if (available < recordLength) {
+      LOG.debug("map:firstRecord,start,available {},{},{}", firstRecord, start, available);
+      return;
+    }
+    long size = Math.min(records * recordLength, available);
+    LOG.debug("map:firstRecord,start,size {},{},{}", firstRecord, start, size);
+    window = channel.map(FileChannel.MapMode.READ_ONLY, start, size);
+    windowRecordCount = size / recordLength;
+  }
+
+  @Override
+  public void close() throws IOException {
+    window = null;
+    channel.close();
+  }
+}
@@ -20,14 +20,10 @@ import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.regex.Matcher;
-import javax.xml.XMLConstants;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
 import javax.xml.transform.dom.DOMSource;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.w3c.dom.Document;
 import gov.nasa.pds.tools.label.ExceptionType;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemListener;
@@ -754,16 +750,6 @@ public class ReferentialIntegrityUtil {
    */
   public static void additionalReferentialIntegrityChecks(URL crawlTarget, URL bundleURL) {
     URL url = null;
-    DocumentBuilderFactory dbf = DocumentBuilderFactory.newInstance();
-    try {
-      dbf.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
-    } catch (javax.xml.parsers.ParserConfigurationException ex) {
-      LOG.error("additionalReferentialIntegrityChecks:Exception found with message {}",
-          ex.getMessage());
-      return;
-    }
-    DocumentBuilder db = null;
-    Document xml = null;
     DOMSource domSource = null;
 
     boolean labelIsCollectionFlag = false;
@@ -791,8 +777,6 @@ public class ReferentialIntegrityUtil {
         ReferentialIntegrityUtil.crawlParentForBundleLabel(crawlTarget);
       }
 
-      db = dbf.newDocumentBuilder();
-
       for (Target child : children) {
         LOG.debug("additionalReferentialIntegrityChecks:FilenameUtils.getName(child.toString()) {}",
             FilenameUtils.getName(child.toString()));
@@ -829,8 +813,9 @@ public class ReferentialIntegrityUtil {
             labelIsCollectionFlag = true;
           }
 
-          xml = db.parse(url.openStream());
-          domSource = new DOMSource(xml);
+          // Bundle and collection labels are read again by other rules, so the parsed
+          // label is kept in the document cache.
+          domSource = DOMSourceManager.getDOM(url);
 
           // Note that the function getLidVidReferences() collects all references in the
           // Reference_List group in Internal_Reference tags.
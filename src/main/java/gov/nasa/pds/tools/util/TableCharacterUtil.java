@@ -1,10 +1,9 @@
 package gov.nasa.pds.tools.util;
 
 import java.net.URL;
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import gov.nasa.pds.tools.label.ExceptionType;
@@ -12,6 +11,7 @@ import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.ProblemType;
 import gov.nasa.pds.tools.validate.ValidationProblem;
+import net.sf.saxon.om.DocumentInfo;
 import net.sf.saxon.tree.tiny.TinyNodeImpl;
 
 /**
@@ -34,37 +34,32 @@ public class TableCharacterUtil {
   private static String FIELD_LOCATION_SIMPLE = "field_location"; // Used to retrieve individual
                                                                   // field from node and
                                                                   // not document.
-  private static String FIELD_FORMAT_SIMPLE = "field_format"; // Used to retrieve individual field
-                                                              // from node and not
-                                                              // document.
   private static String FIELD_LENGTH_SIMPLE = "field_length"; // Used to retrieve individual field
                                                               // from node and not
                                                               // document.
-  private static String DATA_TYPE_SIMPLE = "data_type"; // Used to retrieve individual field from
-                                                        // node and not
-                                                        // document.
 
-  private static List<String> fieldNumberList = new ArrayList<>();
-  private static List<String> fieldLocationList = new ArrayList<>();
-  private static List<String> fieldTypeList = new ArrayList<>();
-  private static List<String> fieldLengthList = new ArrayList<>();
-  private static List<String> fieldFormatList = new ArrayList<>();
+  /** The field numbers from the label, as shown in the messages. */
+  private String[] fieldNumbers = new String[0];
+
+  /**
+   * The gaps between the fields of a record. The gap before field i + 1 (starting at 0) starts at
+   * gapMap[2 * i] and ends at gapMap[2 * i + 1] (exclusive). A gap that starts after it ends means
+   * that the fields overlap.
+   */
+  private int[] gapMap = new int[0];
+
+  /** The number of gaps checked in each record. */
+  private int gapCount = 0;
+
+  /** The location and length of the field the checks stop at, or null if they are all valid. */
+  private String invalidFieldLocation = null;
+  private String invalidFieldLength = null;
 
   private URL target = null;
+  private Map<String, DocumentInfo> parsedLabels = null;
   private ProblemListener listener = null;
   private boolean reportedErrorFlag = false;
 
-  private void resetColumnInfoLists() {
-    // Since this function can be called many times, these static lists need to be
-    // cleared between each call,
-    // otherwise the list will grow each time a Table_Character file is validated.
-    fieldNumberList.clear();
-    fieldLocationList.clear();
-    fieldTypeList.clear();
-    fieldLengthList.clear();
-    fieldFormatList.clear();
-  }
-
   public URL getTarget() {
     return (this.target);
   }
@@ -77,50 +72,88 @@ public class TableCharacterUtil {
    * Creates a new instance.
    */
   public TableCharacterUtil(URL target, ProblemListener listener) {
+    this(target, new HashMap<>(), listener);
+  }
+
+  /**
+   * Creates a new instance that reads the label from the labels already parsed.
+   *
+   * @param target The label of the table.
+   * @param parsedLabels The labels already parsed, keyed by their URL.
+   * @param listener The listener to receive the problems found.
+   */
+  public TableCharacterUtil(URL target, Map<String, DocumentInfo> parsedLabels,
+      ProblemListener listener) {
     this.target = target;
+    this.parsedLabels = parsedLabels;
     this.listener = listener;
   }
 
   /**
-   * Parse the fields info for field_location, field_length and such and store them in lists.
+   * Parse the fields info for field_location and field_length into the map of the gaps between
+   * the fields. The fields of a table are the same for every record, so this is done once per
+   * table.
    *
    * @param None
    * @return None
    */
 
   public void parseFieldsInfo() {
-    // Since this function can be called many times, these static lists need to be
-    // cleared between each call,
-    // otherwise the list will grow each time a Table_Character file is validated.
-
-    this.resetColumnInfoLists();
+    this.fieldNumbers = new String[0];
+    this.gapMap = new int[0];
+    this.gapCount = 0;
+    this.invalidFieldLocation = null;
+    this.invalidFieldLength = null;
 
     try {
-      XMLExtractor extractor = new XMLExtractor(getTarget());
+      XMLExtractor extractor = new XMLExtractor(LabelParser.parse(getTarget(), this.parsedLabels));
 
       List<TinyNodeImpl> FieldCharacterNodeList = extractor.getNodesFromDoc(FIELD_CHARACTER);
-      String fieldValue = "";
+      int fieldCount = FieldCharacterNodeList.size();
+      String[] numbers = new String[fieldCount];
+      int[] gaps = new int[Math.max(0, 2 * (fieldCount - 1))];
+      int checkedGaps = fieldCount > 0 ? fieldCount - 1 : 0;
+      int previousEndIndex = 0;
 
       // Note that the function getValueFromItem() returns an empty string if the
       // field we seek is not present in the node.
-      for (TinyNodeImpl node : FieldCharacterNodeList) {
-        fieldValue = extractor.getValueFromItem(FIELD_NUMBER_SIMPLE, node);
-        fieldNumberList.add(fieldValue);
-        fieldValue = extractor.getValueFromItem(FIELD_LOCATION_SIMPLE, node);
-        fieldLocationList.add(fieldValue);
-        fieldValue = extractor.getValueFromItem(DATA_TYPE_SIMPLE, node);
-        fieldTypeList.add(fieldValue);
-        fieldValue = extractor.getValueFromItem(FIELD_LENGTH_SIMPLE, node);
-        fieldLengthList.add(fieldValue);
-        fieldValue = extractor.getValueFromItem(FIELD_FORMAT_SIMPLE, node);
-        fieldFormatList.add(fieldValue);
+      for (int ii = 0; ii < fieldCount; ii++) {
+        TinyNodeImpl node = FieldCharacterNodeList.get(ii);
+        numbers[ii] = extractor.getValueFromItem(FIELD_NUMBER_SIMPLE, node);
+        String location = extractor.getValueFromItem(FIELD_LOCATION_SIMPLE, node);
+        String length = extractor.getValueFromItem(FIELD_LENGTH_SIMPLE, node);
+        LOG.debug("parseFieldsInfo:ii,number,location,length {},{},{},{}", ii, numbers[ii],
+            location, length);
+        int startIndex = 0;
+        int endIndex = 0;
+        try {
+          startIndex = Integer.parseInt(location) - 1; // The location in the label starts at 1.
+          endIndex = startIndex + Integer.parseInt(length);
+        } catch (NumberFormatException e) {
+          LOG.error("parseFieldsInfo:Cannot parse location '{}' and length '{}' of field {}",
+              location, length, numbers[ii]);
+          endIndex = -1;
+        }
+
+        // A bad location or length stops the checks of a record at this field, as
+        // the fields after it cannot be located.
+        if (startIndex > endIndex) {
+          this.invalidFieldLocation = location;
+          this.invalidFieldLength = length;
+          checkedGaps = Math.max(0, ii - 1);
+          break;
+        }
+        if (ii > 0) {
+          gaps[2 * (ii - 1)] = previousEndIndex;
+          gaps[2 * (ii - 1) + 1] = startIndex;
+        }
+        previousEndIndex = endIndex;
       }
 
-      LOG.debug("parseFieldsInfo:fieldNumberList {}", fieldNumberList);
-      LOG.debug("parseFieldsInfo:fieldLocationList {}", fieldLocationList);
-      LOG.debug("parseFieldsInfo:fieldTypeList {}", fieldTypeList);
-      LOG.debug("parseFieldsInfo:fieldLengthList {}", fieldLengthList);
-      LOG.debug("parseFieldsInfo:fieldFormatList {}", fieldFormatList);
+      this.fieldNumbers = numbers;
+      this.gapMap = gaps;
+      this.gapCount = checkedGaps;
+      LOG.debug("parseFieldsInfo:fieldCount,gapCount {},{}", fieldCount, this.gapCount);
     } catch (Exception e) {
       LOG.error("Cannot extract {} from label {}", RECORD_CHARACTER, getTarget());
       getListener().addProblem(new ValidationProblem(new ProblemDefinition(ExceptionType.ERROR,
@@ -141,98 +174,97 @@ public class TableCharacterUtil {
   public void validateInBetweenFields(String record, long lineNumber) {
     LOG.debug("validateInBetweenFields:recordNumber,record {},[{}]", lineNumber, record);
 
-    int startIndex = 0;
-    int endIndex = 0;
-    int previousEndIndex = 0;
-
-    List<Boolean> columnsWarningFlagList =
-        new ArrayList<>(Arrays.asList(new Boolean[fieldNumberList.size()]));
-    Collections.fill(columnsWarningFlagList, Boolean.FALSE);
-
-    for (int ii = 0; ii < fieldNumberList.size(); ii++) {
-      startIndex = Integer.parseInt(fieldLocationList.get(ii)) - 1; // The location in the label
-                                                                    // starts at 1.
-      endIndex = startIndex + Integer.parseInt(fieldLengthList.get(ii));
-      LOG.debug("validateInBetweenFields:ii,startIndex,endIndex {},{},{}", ii, startIndex,
-          endIndex);
-
-      // Do a sanity check if startIndex is larger than endIndex because the user had
-      // created a bad info for the offsets.
-      if (startIndex > endIndex) {
-        LOG.error(
-            "validateInBetweenFields:In record {}, unexpected starting location {} and length {}",
-            lineNumber, fieldLocationList.get(ii), fieldLengthList.get(ii));
-        return;
-      }
+    // Set if a warning or an error was reported for this record. Each gap is checked once per
+    // record, so a single flag is enough.
+    boolean reportedInRecord = false;
+    boolean stopped = false;
+
+    for (int gap = 0; gap < this.gapCount; gap++) {
+      int previousEndIndex = this.gapMap[2 * gap];
+      int startIndex = this.gapMap[2 * gap + 1];
 
       // Check the gap between where the previous field end and the current field
       // start for non blanks and report it.
-      if (ii > 0) {
-        LOG.debug("validateInBetweenFields:ii,previousEndIndex,startIndex {},{},{}", ii,
-            previousEndIndex, startIndex);
-
-        // Do a sanity check if the user has field_location of the current field before
-        // the end of the previous end index.
-
-        if (previousEndIndex > startIndex) {
-          if ((columnsWarningFlagList.get(ii) == Boolean.FALSE) && !this.reportedErrorFlag) {
-            String errorMessage =
-                "In record " + Long.toString(lineNumber) + ", the ending location "
-                    + Integer.toString(previousEndIndex) + " of field (start with 1) "
-                    + fieldNumberList.get(ii - 1) + " is greater than the starting index "
-                    + Integer.toString(startIndex) + " of field " + fieldNumberList.get(ii);
-            LOG.error(errorMessage);
-            getListener().addProblem(new ValidationProblem(
-                new ProblemDefinition(ExceptionType.ERROR, ProblemType.GENERAL_INFO, errorMessage),
-                getTarget()));
-            columnsWarningFlagList.set(ii, Boolean.TRUE);
-            break; // Get out of the loop since this is a serious error.
-          }
+
+      // Do a sanity check if the user has field_location of the current field before
+      // the end of the previous end index.
+      if (previousEndIndex > startIndex) {
+        if (!this.reportedErrorFlag) {
+          String errorMessage = "In record " + Long.toString(lineNumber) + ", the ending location "
+              + Integer.toString(previousEndIndex) + " of field (start with 1) "
+              + this.fieldNumbers[gap] + " is greater than the starting index "
+              + Integer.toString(startIndex) + " of field " + this.fieldNumbers[gap + 1];
+          LOG.error(errorMessage);
+          getListener().addProblem(new ValidationProblem(
+              new ProblemDefinition(ExceptionType.ERROR, ProblemType.GENERAL_INFO, errorMessage),
+              getTarget()));
+          reportedInRecord = true;
+          stopped = true;
+          break; // Get out of the loop since this is a serious error.
         }
+      }
 
+      // The gap is scanned in place and only extracted when it holds something to report. The
+      // gap of fields that overlap cannot be extracted, so the record cannot be validated.
+      if (previousEndIndex > startIndex || !isBlank(record, previousEndIndex, startIndex)) {
         String gapValue = record.substring(previousEndIndex, startIndex).trim(); // Get the value
                                                                                  // between one
-                                                                                 // field ends and
-                                                                                 // the next
+                                                                                 // field ends
+                                                                                 // and the next
                                                                                  // field start.
-        LOG.debug("validateInBetweenFields:ii,previousEndIndex,startIndex,gapValue {},{},{},[{}]",
-            ii, previousEndIndex, startIndex, gapValue);
-        if (gapValue.length() > 0) {
-          if (gapValue.length() == 1 && gapValue.equals(",")) {
-            LOG.error(
-                "validateInBetweenFields:Values in between gap of field number (starts with 1) {} and {} is a comma:",
-                fieldNumberList.get(ii - 1), fieldNumberList.get(ii));
-          } else {
-            LOG.error(
-                "validateInBetweenFields:Values in between gap of field number (starts with 1) {} and {} is non-blanks:[{}]",
-                fieldNumberList.get(ii - 1), fieldNumberList.get(ii), gapValue);
-          }
-          if ((columnsWarningFlagList.get(ii) == Boolean.FALSE) && !this.reportedErrorFlag) {
-            String errorMessage =
-                "Unexpected alphanumeric characters found between fields in record "
-                    + Long.toString(lineNumber) + ": " + " [" + gapValue + "]"
-                    + " found between fields " + fieldNumberList.get(ii - 1) + " and "
-                    + fieldNumberList.get(ii);
-            LOG.error(errorMessage);
-            getListener()
-                .addProblem(new ValidationProblem(new ProblemDefinition(ExceptionType.WARNING,
-                    ProblemType.CHARS_BETWEEN_FIELDS, errorMessage), getTarget()));
-            columnsWarningFlagList.set(ii, Boolean.TRUE);
-          }
+        if (gapValue.length() == 1 && gapValue.equals(",")) {
+          LOG.error(
+              "validateInBetweenFields:Values in between gap of field number (starts with 1) {} and {} is a comma:",
+              this.fieldNumbers[gap], this.fieldNumbers[gap + 1]);
+        } else {
+          LOG.error(
+              "validateInBetweenFields:Values in between gap of field number (starts with 1) {} and {} is non-blanks:[{}]",
+              this.fieldNumbers[gap], this.fieldNumbers[gap + 1], gapValue);
+        }
+        if (!this.reportedErrorFlag) {
+          String errorMessage = "Unexpected alphanumeric characters found between fields in record "
+              + Long.toString(lineNumber) + ": " + " [" + gapValue + "]"
+              + " found between fields " + this.fieldNumbers[gap] + " and "
+              + this.fieldNumbers[gap + 1];
+          LOG.error(errorMessage);
+          getListener()
+              .addProblem(new ValidationProblem(new ProblemDefinition(ExceptionType.WARNING,
+                  ProblemType.CHARS_BETWEEN_FIELDS, errorMessage), getTarget()));
+          reportedInRecord = true;
         }
       }
+    }
 
-      // Save where the current index ends for the next iteration.
-      previousEndIndex = endIndex;
+    // Do a sanity check if startIndex is larger than endIndex because the user had
+    // created a bad info for the offsets.
+    if (!stopped && this.invalidFieldLocation != null) {
+      LOG.error(
+          "validateInBetweenFields:In record {}, unexpected starting location {} and length {}",
+          lineNumber, this.invalidFieldLocation, this.invalidFieldLength);
     }
 
     // If any of the columns had reported a warning/error, set the reportedErrorFlag
     // to true
     // so as not to overwhelm the error reporting mechanism.
-    for (int ii = 0; ii < fieldNumberList.size(); ii++) {
-      if (columnsWarningFlagList.get(ii) == Boolean.TRUE) {
-        this.reportedErrorFlag = true;
+    if (reportedInRecord) {
+      this.reportedErrorFlag = true;
+    }
+  }
+
+  /**
+   * Checks whether a part of a record is blank, without extracting it from the record.
+   *
+   * @param record The record being validated (as text)
+   * @param start The index where the part starts.
+   * @param end The index where the part ends (exclusive).
+   * @return true if the part only holds white spaces, as removed by String.trim().
+   */
+  private static boolean isBlank(String record, int start, int end) {
+    for (int i = start; i < end; i++) {
+      if (record.charAt(i) > ' ') {
+        return false;
       }
     }
+    return true;
   }
 }
@@ -23,8 +23,9 @@ import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.URLConnection;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import javax.net.ssl.HttpsURLConnection;
 import javax.net.ssl.SSLContext;
 import javax.net.ssl.SSLSocketFactory;
@@ -49,11 +50,9 @@ public class Utility {
   // A static cache of the ValidationTargets.
   // There is no need to re-evaluate and/or create these
   // as validation proceeds, as they are static things like
-  // a file or a URL.
-  public static HashMap<String, ValidationTarget> cachedTargets;
-  static {
-    cachedTargets = new HashMap<>();
-  }
+  // a file or a URL. The label worker threads look up targets at the
+  // same time, so the cache is a concurrent map.
+  public static final Map<String, ValidationTarget> cachedTargets = new ConcurrentHashMap<>();
 
   // Implementation is needed since pds.nasa.gov currently uses SNI
   // which is not supported in Java 6, but is supported in Java 7.
@@ -83,12 +82,7 @@ public class Utility {
       // This seems to be null in the additional context products case.
       return new ValidationTarget(null);
     }
-    ValidationTarget valTarget = cachedTargets.get(target.toString());
-    if (valTarget == null) {
-      valTarget = new ValidationTarget(target);
-      cachedTargets.put(target.toString(), valTarget);
-    }
-    return valTarget;
+    return cachedTargets.computeIfAbsent(target.toString(), key -> new ValidationTarget(target));
   }
 
   /**
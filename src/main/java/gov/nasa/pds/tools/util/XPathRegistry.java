@@ -0,0 +1,103 @@
+// Copyright 2021, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+
+package gov.nasa.pds.tools.util;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import javax.xml.xpath.XPathExpression;
+import javax.xml.xpath.XPathExpressionException;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import net.sf.saxon.Configuration;
+import net.sf.saxon.xpath.XPathEvaluator;
+
+/**
+ * Registry of compiled XPath expressions shared by all the labels and threads. The XPaths used on
+ * every label (e.g. those in CoreXPaths, XPaths and LabelUtil) are then compiled only once.
+ *
+ * The compiled expressions are Saxon expressions, which can be evaluated by several threads at the
+ * same time. They can only be evaluated against documents built with the configuration of this
+ * registry, or against DOM sources.
+ */
+public class XPathRegistry {
+  /** The maximum number of compiled expressions kept in the registry. */
+  public static final int MAX_ENTRIES = 1000;
+
+  private static final Configuration configuration = newConfiguration();
+
+  /** The compiled expressions, keyed by the default element namespace and the expression. */
+  private static Cache<String, XPathExpression> expressions =
+      CacheBuilder.newBuilder().maximumSize(MAX_ENTRIES).build();
+
+  /** The evaluators compiling the expressions, by default element namespace. */
+  private static Map<String, XPathEvaluator> evaluators = new ConcurrentHashMap<>();
+
+  private XPathRegistry() {
+    // never called
+  }
+
+  /**
+   * @return the Saxon configuration to build the documents evaluated with the compiled expressions.
+   */
+  public static Configuration getConfiguration() {
+    return configuration;
+  }
+
+  private static Configuration newConfiguration() {
+    Configuration config = new Configuration();
+    config.setLineNumbering(true);
+    config.setXIncludeAware(Utility.supportXincludes());
+    return config;
+  }
+
+  /**
+   * Gets a compiled XPath expression with no default element namespace.
+   *
+   * @param expression The XPath expression.
+   * @return The compiled expression.
+   *
+   * @throws XPathExpressionException If the expression is malformed.
+   */
+  public static XPathExpression compile(String expression) throws XPathExpressionException {
+    return compile("", expression);
+  }
+
+  /**
+   * Gets a compiled XPath expression.
+   *
+   * @param defaultNamespace The namespace of the element names without a prefix.
+   * @param expression The XPath expression.
+   * @return The compiled expression.
+   *
+   * @throws XPathExpressionException If the expression is malformed.
+   */
+  public static XPathExpression compile(String defaultNamespace, String expression)
+      throws XPathExpressionException {
+    String key = defaultNamespace + " " + expression;
+    XPathExpression compiled = expressions.getIfPresent(key);
+    if (compiled == null) {
+      XPathEvaluator evaluator = evaluators.computeIfAbsent(defaultNamespace, ns -> {
+        XPathEvaluator xpath = new XPathEvaluator(configuration);
+        xpath.getStaticContext().setDefaultElementNamespace(ns);
+        return xpath;
+      });
+      // The evaluator is not thread safe while compiling.
+      synchronized (evaluator) {
+        compiled = evaluator.compile(expression);
+      }
+      expressions.put(key, compiled);
+    }
+    return compiled;
+  }
+}
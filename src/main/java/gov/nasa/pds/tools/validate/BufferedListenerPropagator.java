@@ -0,0 +1,197 @@
+// Copyright 2006-2018, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate;
+
+import java.util.ArrayList;
+import java.util.List;
+import gov.nasa.pds.tools.label.ExceptionType;
+
+/**
+ * Listener that keeps what is reported while validating a single target, so that the targets
+ * validated on several threads are reported in the order they were found.
+ *
+ * The problems, locations and records are kept in the order they were reported, and passed on to
+ * another listener by replay(). The updates of the state shared by the whole run, such as the
+ * identifiers registered so far, are kept the same way with runInOrder(), so that they are made in
+ * the order of the targets whatever the number of threads.
+ */
+public class BufferedListenerPropagator extends ListenerExceptionPropagator {
+
+  private enum EventType {
+    PROBLEM, LOCATION, RECORD, HEADER, ACTION
+  }
+
+  private static class Event {
+    private final EventType type;
+    private final ValidationProblem problem;
+    private final String value;
+    private final Runnable action;
+
+    private Event(EventType type, ValidationProblem problem, String value) {
+      this(type, problem, value, null);
+    }
+
+    private Event(EventType type, ValidationProblem problem, String value, Runnable action) {
+      this.type = type;
+      this.problem = problem;
+      this.value = value;
+      this.action = action;
+    }
+  }
+
+  /** The listener of the target validated on the current thread, if it is buffered. */
+  private static final ThreadLocal<BufferedListenerPropagator> CURRENT = new ThreadLocal<>();
+
+  private final ProblemListener listener;
+  private final List<Event> events = new ArrayList<>();
+
+  /** Whether the events are being replayed, in which case new events are passed on at once. */
+  private boolean replaying = false;
+
+  /**
+   * Constructor.
+   *
+   * @param listener The listener the events are replayed to.
+   */
+  public BufferedListenerPropagator(ProblemListener listener) {
+    super(null);
+    this.listener = listener;
+  }
+
+  @Override
+  public synchronized void addProblem(ValidationProblem problem) {
+    switch (problem.getProblem().getSeverity()) {
+      case FATAL:
+      case ERROR:
+        ++errorCount;
+        break;
+      case WARNING:
+        ++warningCount;
+        break;
+      default:
+        ++infoCount;
+        break;
+    }
+    add(new Event(EventType.PROBLEM, problem, null));
+  }
+
+  @Override
+  public synchronized void addLocation(String location) {
+    add(new Event(EventType.LOCATION, null, location));
+  }
+
+  @Override
+  public synchronized void record(String location) {
+    add(new Event(EventType.RECORD, null, location));
+  }
+
+  @Override
+  public synchronized void printHeader(String title) {
+    add(new Event(EventType.HEADER, null, title));
+  }
+
+  @Override
+  public ExceptionType getSeverityThreshold() {
+    return listener.getSeverityThreshold();
+  }
+
+  /**
+   * Validates a target on the current thread, keeping the actions passed to runInOrder() until
+   * the events of the target are replayed.
+   *
+   * @param validation The validation of the target.
+   */
+  public void run(Runnable validation) {
+    CURRENT.set(this);
+    try {
+      validation.run();
+    } finally {
+      CURRENT.remove();
+    }
+  }
+
+  /**
+   * Runs an update of the state shared by the targets of the run. When the target is validated by
+   * run(), the update is kept with its events and made when they are replayed, in the order of the
+   * targets. Otherwise it is made at once.
+   *
+   * The action runs on another thread than the validation and after it, so it must only use the
+   * values it captured rather than the fields of the rule that validated the target.
+   *
+   * @param action The update.
+   */
+  public static void runInOrder(Runnable action) {
+    BufferedListenerPropagator buffer = CURRENT.get();
+    if (buffer == null) {
+      action.run();
+    } else {
+      buffer.addAction(action);
+    }
+  }
+
+  private synchronized void addAction(Runnable action) {
+    add(new Event(EventType.ACTION, null, null, action));
+  }
+
+  private void add(Event event) {
+    if (replaying) {
+      // Reported by an action being replayed.
+      pass(event);
+    } else {
+      events.add(event);
+    }
+  }
+
+  /**
+   * Passes the events kept so far on to the listener, in the order they were reported.
+   */
+  public synchronized void replay() {
+    replaying = true;
+    try {
+      for (Event event : events) {
+        pass(event);
+      }
+    } finally {
+      replaying = false;
+    }
+    events.clear();
+  }
+
+  private void pass(Event event) {
+    ListenerExceptionPropagator propagator = listener instanceof ListenerExceptionPropagator
+        ? (ListenerExceptionPropagator) listener
+        : null;
+    switch (event.type) {
+      case PROBLEM:
+        listener.addProblem(event.problem);
+        break;
+      case LOCATION:
+        listener.addLocation(event.value);
+        break;
+      case RECORD:
+        if (propagator != null) {
+          propagator.record(event.value);
+        }
+        break;
+      case ACTION:
+        event.action.run();
+        break;
+      default:
+        if (propagator != null) {
+          propagator.printHeader(event.value);
+        }
+        break;
+    }
+  }
+}
@@ -34,7 +34,7 @@ public class ListenerExceptionPropagator implements ProblemListener {
   }
 
   @Override
-  public void addProblem(ValidationProblem problem) {
+  public synchronized void addProblem(ValidationProblem problem) {
     switch (problem.getProblem().getSeverity()) {
       case FATAL:
         ++errorCount;
@@ -53,17 +53,17 @@ public class ListenerExceptionPropagator implements ProblemListener {
   }
 
   @Override
-  public int getErrorCount() {
+  public synchronized int getErrorCount() {
     return errorCount;
   }
 
   @Override
-  public int getWarningCount() {
+  public synchronized int getWarningCount() {
     return warningCount;
   }
 
   @Override
-  public int getInfoCount() {
+  public synchronized int getInfoCount() {
     return infoCount;
   }
 
@@ -88,6 +88,11 @@ public class ListenerExceptionPropagator implements ProblemListener {
     handler.addLocation(location);
   }
 
+  @Override
+  public ExceptionType getSeverityThreshold() {
+    return handler.getSeverityThreshold();
+  }
+
   public void record(String location) {
     handler.record(location);
   }
@@ -167,4 +167,10 @@ public class ProblemContainer implements ProblemListener {
 
     return severity;
   }
+
+  @Override
+  public ExceptionType getSeverityThreshold() {
+    // All the problems are kept.
+    return ExceptionType.DEBUG;
+  }
 }
@@ -75,4 +75,23 @@ public interface ProblemListener extends ProblemHandler {
    */
   Collection<ValidationProblem> getProblemsForLocation(String location, boolean includeChildren);
 
+  /**
+   * Gets the least severe level of the problems kept by the listener. Less severe problems are
+   * dropped, so the validators may skip building them.
+   *
+   * @return the severity threshold
+   */
+  ExceptionType getSeverityThreshold();
+
+  /**
+   * Checks whether the listener keeps the problems of a given severity, so that the problems found
+   * for single records, fields or elements are only built if they are kept.
+   *
+   * @param type the severity
+   * @return true, if the problems of this severity are kept
+   */
+  default boolean isReported(ExceptionType type) {
+    return type.getValue() <= getSeverityThreshold().getValue();
+  }
+
 }
@@ -118,6 +118,8 @@ public enum ProblemType {
 
   ARRAY_VALUE_OUT_OF_SCALED_MIN_MAX_RANGE("error.array.value_out_of_scaled_min_max_range"),
 
+  ARRAY_STATISTICS_MISMATCH("error.array.statistics_mismatch"),
+
   // Table Content messages
 
   TABLE_INTERNAL_ERROR("error.table.internal_error"),
@@ -178,6 +180,8 @@ public enum ProblemType {
 
   ARRAY_INTERNAL_WARNING("warning.array.internal_warning"),
 
+  ARRAY_STATISTICS_APPROXIMATE_MISMATCH("warning.array.statistics_approximate_mismatch"),
+
   REFERENCE_NOT_FOUND("warning.integrity.reference_not_found"),
 
   MEMBER_NOT_FOUND("warning.integrity.member_not_found"),
@@ -260,6 +264,10 @@ public enum ProblemType {
 
   FIELD_VALUE_IS_SPECIAL_CONSTANT("info.table.field_value_is_special_constant"),
 
+  TABLE_SAMPLED("info.table.sampled"),
+
+  ARRAY_SAMPLED("info.array.sampled"),
+
   // Debug messages (Should only be used for debugging purposes)
   CRLF_DETECTED("debug.table.record_has_CRLF"),
 
@@ -17,12 +17,9 @@ import java.io.File;
 import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
-import javax.xml.transform.sax.SAXSource;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.xml.sax.InputSource;
-import gov.nasa.pds.tools.util.LabelParser;
-import gov.nasa.pds.tools.util.Utility;
+import gov.nasa.pds.tools.util.DOMSourceManager;
 import gov.nasa.pds.tools.util.XMLExtractor;
 import net.sf.saxon.om.DocumentInfo;
 import net.sf.saxon.tree.tiny.TinyNodeImpl;
@@ -122,10 +119,7 @@ public class TargetExaminer extends Target {
     boolean tagMatchedFlag = false;
 
     try {
-      InputSource source = Utility.getInputSourceByURL(url);
-      SAXSource saxSource = new SAXSource(source);
-      saxSource.setSystemId(url.toString());
-      DocumentInfo docInfo = LabelParser.parse(saxSource); // Parses a label.
+      DocumentInfo docInfo = DOMSourceManager.getDocumentInfo(url); // Parses a label.
       LOG.debug("tagMatches:docInfo {},{}", docInfo, docInfo.getClass());
       List<TinyNodeImpl> xmlModels = new ArrayList<>();
       try {
@@ -172,10 +166,7 @@ public class TargetExaminer extends Target {
     ArrayList<String> fieldContent = new ArrayList<>();
 
     try {
-      InputSource source = Utility.getInputSourceByURL(url);
-      SAXSource saxSource = new SAXSource(source);
-      saxSource.setSystemId(url.toString());
-      DocumentInfo docInfo = LabelParser.parse(saxSource); // Parses a label.
+      DocumentInfo docInfo = DOMSourceManager.getDocumentInfo(url); // Parses a label.
       LOG.debug("getTargetContent:docInfo {},{}", docInfo, docInfo.getClass());
       List<TinyNodeImpl> xmlModels = new ArrayList<>();
       try {
@@ -13,6 +13,8 @@
 // $Id$
 package gov.nasa.pds.tools.validate;
 
+import gov.nasa.pds.tools.label.ExceptionType;
+
 /**
  * Defines an interface for handling exceptions during label validation.
  */
@@ -37,4 +39,11 @@ public interface ValidateProblemHandler extends ProblemHandler {
    * @param location The target file.
    */
   void record(String location);
+
+  /**
+   * Gets the least severe level of the problems kept by the handler.
+   *
+   * @return the severity threshold
+   */
+  ExceptionType getSeverityThreshold();
 }
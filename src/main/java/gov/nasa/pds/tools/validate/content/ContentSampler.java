@@ -0,0 +1,113 @@
+// Copyright 2006-2019, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content;
+
+import java.util.Random;
+
+/**
+ * Picks the records of a table, or the elements of an array, validated when the content is
+ * sampled, and works out how confident the validation of the sample is.
+ *
+ * The content is split into as many strata of equal size as there are records to sample, and one
+ * record is picked at random in each stratum. The whole content is then covered, from the first
+ * records to the last.
+ */
+public class ContentSampler {
+
+  /** The z-score of the 95% confidence intervals. */
+  private static final double Z_95 = 1.959964;
+
+  private ContentSampler() {
+    // never called
+  }
+
+  /**
+   * Picks a stratified random sample.
+   *
+   * @param population The number of records.
+   * @param sampleSize The number of records to pick.
+   * @param seed The seed of the random picks, so that a validation can be repeated.
+   * @return The indices of the records picked, starting at 0, in increasing order. All the
+   *         records are picked if there are no more of them than the sample size.
+   */
+  public static long[] sample(long population, int sampleSize, long seed) {
+    if (population <= 0 || sampleSize <= 0) {
+      return new long[0];
+    }
+    if (population <= sampleSize) {
+      long[] all = new long[(int) population];
+      for (int i = 0; i < all.length; i++) {
+        all[i] = i;
+      }
+      return all;
+    }
+    Random random = new Random(seed);
+    long[] indices = new long[sampleSize];
+    for (int i = 0; i < sampleSize; i++) {
+      long start = stratumStart(population, sampleSize, i);
+      long size = stratumStart(population, sampleSize, i + 1) - start;
+      indices[i] = start + (long) (random.nextDouble() * size);
+    }
+    return indices;
+  }
+
+  /**
+   * @return the index of the first record of a stratum, as stratum * population / count rounded
+   *         down.
+   */
+  private static long stratumStart(long population, int count, int stratum) {
+    return (long) Math.floor((double) population * stratum / count);
+  }
+
+  /**
+   * Describes the confidence of the validation of a sample, as the 95% confidence interval of the
+   * share of invalid records in the whole content.
+   *
+   * @param population The number of records.
+   * @param sampled The number of records validated.
+   * @param invalid The number of records validated with errors.
+   * @param unit The name of a record (e.g. "record" or "element").
+   * @return The description.
+   */
+  public static String describe(long population, int sampled, int invalid, String unit) {
+    String description = "Validated a stratified random sample of " + sampled + " of "
+        + population + " " + unit + "s, " + invalid + " of which had errors. ";
+    if (sampled == 0) {
+      return description + "No confidence can be given for an empty sample.";
+    }
+    if (sampled >= population) {
+      return description + "The sample holds every " + unit + ".";
+    }
+    if (invalid == 0) {
+      // The exact binomial bound: a share p of invalid records is missed by every pick with a
+      // probability of (1 - p)^n, which is 5% at this bound.
+      double upper = 1.0 - Math.pow(0.05, 1.0 / sampled);
+      return description + "With 95% confidence, fewer than " + percent(upper) + " of the "
+          + unit + "s have errors.";
+    }
+    // The Wilson score interval.
+    double n = sampled;
+    double p = invalid / n;
+    double z2 = Z_95 * Z_95;
+    double center = (p + z2 / (2 * n)) / (1 + z2 / n);
+    double margin = Z_95 * Math.sqrt(p * (1 - p) / n + z2 / (4 * n * n)) / (1 + z2 / n);
+    return description + "With 95% confidence, between " + percent(Math.max(0, center - margin))
+        + " and " + percent(Math.min(1, center + margin)) + " of the " + unit
+        + "s have errors.";
+  }
+
+  private static String percent(double share) {
+    return String.format("%.2f%%", share * 100);
+  }
+}
@@ -16,23 +16,33 @@ package gov.nasa.pds.tools.validate.content.array;
 import java.io.IOException;
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.net.URISyntaxException;
 import java.net.URL;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
 import java.util.Arrays;
-import org.apache.commons.lang3.Range;
+import java.util.Deque;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.google.common.primitives.UnsignedInteger;
-import com.google.common.primitives.UnsignedLong;
 import gov.nasa.arc.pds.xml.generated.Array;
 import gov.nasa.arc.pds.xml.generated.ElementArray;
 import gov.nasa.arc.pds.xml.generated.ObjectStatistics;
 import gov.nasa.arc.pds.xml.generated.SpecialConstants;
 import gov.nasa.pds.label.object.ArrayObject;
-import gov.nasa.pds.objectAccess.DataType.NumericDataType;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.validate.ProblemContainer;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.ProblemType;
+import gov.nasa.pds.tools.validate.ValidationProblem;
+import gov.nasa.pds.tools.validate.content.ContentSampler;
 import gov.nasa.pds.validate.constants.Constants;
 
 /**
@@ -58,35 +68,66 @@ public class ArrayContentValidator {
 
   private int spotCheckData;
 
-  private static final Range SignedByte_RANGE = Range.between(Byte.MIN_VALUE, Byte.MAX_VALUE);
-  private static final Range UnsignedByte_RANGE = Range.between(0, 255);
-  private static final Range UnsignedLSB2_RANGE = Range.between(0, 65535);
-  private static final Range SignedLSB2_RANGE = Range.between(Short.MIN_VALUE, Short.MAX_VALUE);
-  private static final Range UnsignedMSB2_RANGE = Range.between(0, 65535);
-  private static final Range SignedMSB2_RANGE = Range.between(Short.MIN_VALUE, Short.MAX_VALUE);
-  private static final Range UnsignedLSB4_RANGE =
-      Range.between(UnsignedInteger.ZERO, UnsignedInteger.MAX_VALUE);
-  private static final Range SignedLSB4_RANGE = Range.between(Integer.MIN_VALUE, Integer.MAX_VALUE);
-  private static final Range UnsignedMSB4_RANGE =
-      Range.between(UnsignedInteger.ZERO, UnsignedInteger.MAX_VALUE);
-  private static final Range SignedMSB4_RANGE = Range.between(Integer.MIN_VALUE, Integer.MAX_VALUE);
-  private static final Range UnsignedLSB8_RANGE =
-      Range.between(UnsignedLong.ZERO, UnsignedLong.MAX_VALUE);
-  private static final Range SignedLSB8_RANGE = Range.between(Long.MIN_VALUE, Long.MAX_VALUE);
-  private static final Range UnsignedMSB8_RANGE =
-      Range.between(UnsignedLong.ZERO, UnsignedLong.MAX_VALUE);
-  private static final Range SignedMSB8_RANGE = Range.between(Long.MIN_VALUE, Long.MAX_VALUE);
-  private static final Range IEEE754LSBSingle_RANGE =
-      Range.between(-Float.MAX_VALUE, Float.MAX_VALUE);
-  private static final Range IEEE754MSBSingle_RANGE =
-      Range.between(-Float.MAX_VALUE, Float.MAX_VALUE);
-  private static final Range IEEE754LSBDouble_RANGE =
-      Range.between(-Double.MAX_VALUE, Double.MAX_VALUE);
-  private static final Range IEEE754MSBDouble_RANGE =
-      Range.between(-Double.MAX_VALUE, Double.MAX_VALUE);
-
-  private static int PROGRESS_COUNTER = 0;
-  private static String tableNameReportStr = "";
+  /** The number of elements sampled, or -1 to validate every element. */
+  private int sampleData = -1;
+
+  /** The number of errors reported for the elements so far. */
+  private long errorCount = 0;
+
+  /** The number of bytes of elements read at once when the whole array is streamed. */
+  private static final int BLOCK_SIZE = 1 << 20;
+
+  /** The smallest number of elements in a tile validated on its own thread. */
+  private static final long MIN_TILE_ELEMENTS = 1L << 22;
+
+  /** The number of tiles made for each thread, so that the threads stay busy. */
+  private static final int TILES_PER_THREAD = 4;
+
+  /** The number of tiles per thread validated or waiting to be reported at any time. */
+  private static final int TILES_IN_FLIGHT_PER_THREAD = 2;
+
+  /**
+   * The difference allowed between the mean or the standard deviation of the values and the value
+   * in the label, relative to the value in the label.
+   */
+  private static final double STATISTICS_RELATIVE_TOLERANCE = 1e-6;
+
+  /**
+   * The largest change made to a value by the rounding done by compare(). The operand of higher
+   * precision is rounded to a scale equal to the precision of the other operand, which is at least
+   * 1, so it moves by at most 0.5 * 10^-1.
+   */
+  private static final double COMPARE_ROUNDING = 0.5e-1;
+
+  /**
+   * The number of problems kept for a tile before it stops. The rest of its elements are validated
+   * when its problems are reported, so that an array full of errors is not kept in memory.
+   */
+  private static final int MAX_TILE_PROBLEMS = 10000;
+
+  /** The number of threads used to validate the tiles of the array. */
+  private int arrayThreads = 1;
+
+  /** Whether this validator prints the progress, which a validator of a single tile does not. */
+  private boolean showProgress = true;
+
+  /** The problems kept by the validator of a tile, or null if they are reported as found. */
+  private ProblemContainer heldProblems = null;
+
+  /** The first element left to validate once the held problems are reported, or -1 if none. */
+  private long nextElement = -1;
+
+  /** The first element whose value is not yet added to the statistics. */
+  private long statisticsStart = 0;
+
+  /**
+   * The statistics of the values, worked out when every element is validated and the label has
+   * Object_Statistics, or null.
+   */
+  private ArrayStatistics statistics = null;
+
+  private int progressCounter = 0;
+  private String tableNameReportStr = "";
 
   /**
    * Constructor.
@@ -118,9 +159,33 @@ public class ArrayContentValidator {
 
     LOG.debug("validate:tableNameReportStr {}", tableNameReportStr);
 
+    FileChannel channel = null;
     try {
       arrayObject.open();
-      process(array, arrayObject, dimensions, new int[dimensions.length], 0, dimensions.length - 1);
+      ArrayElementType type = new ArrayElementType(array.getElementArray().getDataType(),
+          array.getSpecialConstants());
+      if (sampleData == -1 && spotCheckData == -1 && array.getObjectStatistics() != null) {
+        statistics = new ArrayStatistics();
+      }
+      if (sampleData != -1) {
+        processSample(array, arrayObject, type, dimensions);
+      } else if (spotCheckData == -1 && (channel = openDataFile()) != null) {
+        long elementCount = 1;
+        for (int dimension : dimensions) {
+          elementCount *= dimension;
+        }
+        if (arrayThreads > 1 && elementCount >= 2 * MIN_TILE_ELEMENTS && dimensions[0] > 1) {
+          processTiles(array, type, dimensions, channel, elementCount);
+        } else {
+          processBlocks(array, type, dimensions, channel, 0, elementCount);
+        }
+      } else {
+        process(array, arrayObject, type, dimensions, new int[dimensions.length], 0,
+            dimensions.length - 1);
+      }
+      if (statistics != null) {
+        checkStatistics(array.getObjectStatistics());
+      }
 
     } catch (Exception e) {
       listener.addProblem(new ArrayContentProblem(
@@ -129,32 +194,61 @@ public class ArrayContentValidator {
           dataFile, label, arrayIndex, null));
     } finally {
       arrayObject.closeChannel();
+      if (channel != null) {
+        try {
+          channel.close();
+        } catch (IOException e) {
+          LOG.debug("validate:cannot close {}: {}", dataFile, e.getMessage());
+        }
+      }
+    }
+  }
+
+  /**
+   * Opens the data file to stream the elements of the array.
+   *
+   * @return The channel of the data file, or null if it is not a local file. The elements are then
+   *         read through the ArrayObject.
+   */
+  private FileChannel openDataFile() {
+    if (dataFile == null || !"file".equalsIgnoreCase(dataFile.getProtocol())) {
+      return null;
+    }
+    try {
+      return FileChannel.open(Paths.get(dataFile.toURI()), StandardOpenOption.READ);
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      LOG.debug("openDataFile:cannot open {}: {}", dataFile, e.getMessage());
+      return null;
     }
   }
 
-  private void process(Array array, ArrayObject arrayObject, int[] dimensions, int[] position,
-      int depth, int maxDepth) throws IOException {
-    // Print something to indicate the program is still executing since content
-    // validation can take some time
-    if (PROGRESS_COUNTER++ == Integer.MAX_VALUE) {
-      PROGRESS_COUNTER = 0;
-    } else if (PROGRESS_COUNTER % Constants.CONTENT_VAL_PROGRESS_COUNTER == 0) {
+  /**
+   * Prints something to indicate the program is still executing since content validation can take
+   * some time.
+   */
+  private void progressCounter() {
+    if (!showProgress) {
+      return;
+    }
+    if (progressCounter++ == Integer.MAX_VALUE) {
+      progressCounter = 0;
+    } else if (progressCounter % Constants.CONTENT_VAL_PROGRESS_COUNTER == 0) {
       System.out.print(".");
     }
+  }
+
+  private void process(Array array, ArrayObject arrayObject, ArrayElementType type,
+      int[] dimensions, int[] position, int depth, int maxDepth) throws IOException {
+    progressCounter();
 
     for (int i = 0; i < dimensions[depth];) {
       if (depth < maxDepth) { // max depth not reached, do another recursion
         position[depth] = i;
-        process(array, arrayObject, dimensions, position, depth + 1, maxDepth);
+        process(array, arrayObject, type, dimensions, position, depth + 1, maxDepth);
         i++;
       } else {
         position[depth] = i;
-        int[] position_1based = new int[position.length];
-        for (int j = 0; j < position.length; j++) {
-          position_1based[j] = position[j] + 1;
-        }
-        ArrayLocation location = new ArrayLocation(label, dataFile, arrayIndex, position_1based);
-        validatePosition(array, arrayObject, location, position);
+        validatePosition(array, arrayObject, type, position);
         if (spotCheckData != -1) {
           i = i + spotCheckData;
         } else {
@@ -164,140 +258,611 @@ public class ArrayContentValidator {
     }
   }
 
-  private void validatePosition(Array array, ArrayObject arrayObject, ArrayLocation location,
+  /**
+   * Validates every element of an array by streaming the data file in blocks. The elements are
+   * stored with the last index varying the fastest, so they are decoded in the order of the blocks
+   * rather than each read at its position.
+   *
+   * Each block is first reduced to its lowest and highest values. A block whose values are all
+   * within the range of the data type and the Object_Statistics, and which cannot hold a special
+   * constant, has no problem to report, so only the other blocks are validated element by element.
+   * The reductions are plain loops over primitive arrays, which the JIT can vectorize. The
+   * jdk.incubator.vector API is not used: it is an incubator module, which would have to be
+   * enabled with --add-modules in the build and in the launch scripts.
+   *
+   * The validator of a tile stops once it holds MAX_TILE_PROBLEMS problems, and sets the element
+   * to resume from.
+   *
+   * @param array Object representation of the array as described in the label.
+   * @param type The type of the elements.
+   * @param dimensions The number of elements on each axis.
+   * @param channel The channel of the data file.
+   * @param firstElement The index of the first element validated, starting at 0.
+   * @param elementCount The number of elements validated.
+   */
+  private void processBlocks(Array array, ArrayElementType type, int[] dimensions,
+      FileChannel channel, long firstElement, long elementCount) throws IOException {
+    int size = type.getSize();
+    long filePosition = array.getOffset().getValue().longValueExact() + firstElement * size;
+    ByteBuffer buffer = ByteBuffer.allocateDirect(BLOCK_SIZE - BLOCK_SIZE % size);
+    buffer.order(type.getByteOrder());
+    int[] position = new int[dimensions.length];
+    advance(position, dimensions, firstElement);
+    int last = dimensions.length - 1;
+    boolean isReal = type.isReal();
+    long[] integerValues = isReal ? null : new long[buffer.capacity() / size];
+    double[] realValues = isReal ? new double[buffer.capacity() / size] : null;
+    long endElement = firstElement + elementCount;
+    for (long n = firstElement; n < endElement;) {
+      buffer.clear();
+      // Only the bytes of the array are read.
+      long left = (endElement - n) * size;
+      if (left < buffer.capacity()) {
+        buffer.limit((int) left);
+      }
+      int read = 0;
+      while (buffer.hasRemaining() && (read = channel.read(buffer, filePosition)) > 0) {
+        filePosition += read;
+      }
+      buffer.flip();
+      int count = buffer.remaining() / size;
+      if (count == 0) {
+        throw readError(position, "the end of the data file was reached");
+      }
+      boolean clean;
+      if (isReal) {
+        for (int i = 0; i < count; i++) {
+          realValues[i] = type.getReal(buffer);
+        }
+        clean = isCleanBlock(array, type, realValues, count);
+        if (statistics != null) {
+          for (int i = firstUncounted(n, count); i < count; i++) {
+            addToStatistics(type, 0, realValues[i]);
+          }
+        }
+      } else {
+        for (int i = 0; i < count; i++) {
+          integerValues[i] = type.getInteger(buffer);
+        }
+        clean = isCleanBlock(array, type, integerValues, count);
+        if (statistics != null) {
+          for (int i = firstUncounted(n, count); i < count; i++) {
+            addToStatistics(type, integerValues[i], 0);
+          }
+        }
+      }
+      // Once for each line of the last axis that starts in the block.
+      long lineLength = dimensions[last];
+      for (long line = (n + lineLength - 1) / lineLength; line * lineLength < n + count; line++) {
+        progressCounter();
+      }
+      if (clean) {
+        advance(position, dimensions, count);
+      } else {
+        for (int i = 0; i < count; i++) {
+          if (isReal) {
+            validateValue(array, type, 0, realValues[i], position);
+          } else {
+            validateValue(array, type, integerValues[i], 0, position);
+          }
+          advance(position, dimensions, 1);
+          if (heldProblems != null && heldProblems.getProblemCount() >= MAX_TILE_PROBLEMS
+              && n + i + 1 < endElement) {
+            nextElement = n + i + 1;
+            return;
+          }
+        }
+      }
+      n += count;
+    }
+  }
+
+  /**
+   * Gets the index in a block of the first value not yet added to the statistics, as a tile
+   * resumed from the middle of a block has added the values of the whole block.
+   *
+   * @param n The index of the first element of the block.
+   * @param count The number of elements of the block.
+   * @return The index in the block, between 0 and count.
+   */
+  private int firstUncounted(long n, int count) {
+    int first = (int) Math.max(0, Math.min(count, statisticsStart - n));
+    statisticsStart = Math.max(statisticsStart, n + count);
+    return first;
+  }
+
+  /**
+   * Validates every element of an array in parallel. The array is split along its first axis, which
+   * varies the slowest, into tiles of whole planes that are each streamed on their own thread. The
+   * tiles follow each other in the order of the elements, so the problems found in each tile are
+   * reported in the order of their ArrayLocation once the tiles before it are done. Only a few
+   * tiles per thread are submitted ahead of the tile being reported, and none after an error.
+   *
+   * @param array Object representation of the array as described in the label.
+   * @param type The type of the elements.
+   * @param dimensions The number of elements on each axis.
+   * @param channel The channel of the data file. Its reads at a given position can be shared by
+   *        the threads.
+   * @param elementCount The number of elements of the array.
+   */
+  private void processTiles(Array array, ArrayElementType type, int[] dimensions,
+      FileChannel channel, long elementCount) throws Exception {
+    long planeElements = elementCount / dimensions[0];
+    long tiles = (long) arrayThreads * TILES_PER_THREAD;
+    long tilePlanes = Math.max((dimensions[0] + tiles - 1) / tiles,
+        (MIN_TILE_ELEMENTS + planeElements - 1) / planeElements);
+    LOG.debug("processTiles:elementCount,arrayThreads,tilePlanes {},{},{}", elementCount,
+        arrayThreads, tilePlanes);
+
+    ForkJoinPool pool = new ForkJoinPool(arrayThreads);
+    try {
+      Deque<Future<ArrayTile>> futures = new ArrayDeque<>();
+      long plane = 0;
+      while (plane < dimensions[0] || !futures.isEmpty()) {
+        while (plane < dimensions[0]
+            && futures.size() < arrayThreads * TILES_IN_FLIGHT_PER_THREAD) {
+          long planes = Math.min(tilePlanes, dimensions[0] - plane);
+          futures.addLast(pool.submit(new ArrayTile(array, type, dimensions, channel,
+              plane * planeElements, planes * planeElements)));
+          plane += planes;
+        }
+        ArrayTile tile = null;
+        try {
+          tile = futures.removeFirst().get();
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof Exception) {
+            throw (Exception) e.getCause();
+          }
+          throw e;
+        }
+        for (ValidationProblem problem : tile.problems.getProblems()) {
+          this.listener.addProblem(problem);
+        }
+        tile.problems.clear();
+        this.errorCount += tile.validator.errorCount;
+        if (statistics != null) {
+          statistics.merge(tile.validator.statistics);
+        }
+        long endElement = tile.firstElement + tile.elementCount;
+        long validated = tile.validator.nextElement < 0 ? tile.elementCount
+            : tile.validator.nextElement - tile.firstElement;
+        for (long line = 0; line < validated / dimensions[dimensions.length - 1]; line++) {
+          progressCounter();
+        }
+        if (tile.error == null && tile.validator.nextElement >= 0) {
+          // The problems of the rest of the tile are reported as they are found.
+          this.statisticsStart = tile.validator.statisticsStart;
+          processBlocks(array, type, dimensions, channel, tile.validator.nextElement,
+              endElement - tile.validator.nextElement);
+        }
+        if (tile.error != null) {
+          // As when the elements are read one after the other, an element that cannot be read
+          // stops the validation of the rest of the array.
+          throw tile.error;
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  /**
+   * A range of elements of an array validated on its own thread, by its own validator. The problems
+   * are kept until they can be reported in the order of the elements, up to MAX_TILE_PROBLEMS of
+   * them.
+   */
+  private class ArrayTile implements Callable<ArrayTile> {
+    private final Array array;
+    private final ArrayElementType type;
+    private final int[] dimensions;
+    private final FileChannel channel;
+    private final long firstElement;
+    private final long elementCount;
+    private final ProblemContainer problems = new ProblemContainer() {
+      @Override
+      public ExceptionType getSeverityThreshold() {
+        return listener.getSeverityThreshold();
+      }
+    };
+    private final ArrayContentValidator validator;
+    private IOException error = null;
+
+    ArrayTile(Array array, ArrayElementType type, int[] dimensions, FileChannel channel,
+        long firstElement, long elementCount) {
+      this.array = array;
+      this.type = type;
+      this.dimensions = dimensions;
+      this.channel = channel;
+      this.firstElement = firstElement;
+      this.elementCount = elementCount;
+      this.validator = new ArrayContentValidator(problems, label, dataFile, arrayIndex);
+      this.validator.tableNameReportStr = tableNameReportStr;
+      this.validator.showProgress = false;
+      this.validator.heldProblems = problems;
+      if (statistics != null) {
+        this.validator.statistics = new ArrayStatistics();
+      }
+    }
+
+    @Override
+    public ArrayTile call() {
+      try {
+        this.validator.processBlocks(array, type, dimensions, channel, firstElement,
+            elementCount);
+      } catch (IOException e) {
+        this.error = e;
+      }
+      return this;
+    }
+  }
+
+  /**
+   * Moves a position forward, with the last index varying the fastest.
+   *
+   * @param position The position, starting at 0 on each axis.
+   * @param dimensions The number of elements on each axis.
+   * @param count The number of elements to move by.
+   */
+  private static void advance(int[] position, int[] dimensions, long count) {
+    long carry = count;
+    for (int j = position.length - 1; j >= 0 && carry > 0; j--) {
+      long index = position[j] + carry;
+      position[j] = (int) (index % dimensions[j]);
+      carry = index / dimensions[j];
+    }
+  }
+
+  /**
+   * Checks whether a block of integer values has no problem to report, from its lowest and highest
+   * values.
+   */
+  private boolean isCleanBlock(Array array, ArrayElementType type, long[] values, int count) {
+    // The values of an unsigned long are ordered with their sign bit flipped.
+    long flip = type.getKind() == ArrayElementType.Kind.UNSIGNED_LONG ? Long.MIN_VALUE : 0;
+    long low = Long.MAX_VALUE;
+    long high = Long.MIN_VALUE;
+    for (int i = 0; i < count; i++) {
+      long key = values[i] ^ flip;
+      low = Math.min(low, key);
+      high = Math.max(high, key);
+    }
+    low ^= flip;
+    high ^= flip;
+    return type.isInRange(low) && type.isInRange(high)
+        && !type.mayHoldSpecialConstant(low, high)
+        && isWithinObjectStats(array, type.toDouble(low), type.toDouble(high));
+  }
+
+  /**
+   * Checks whether a block of real values has no problem to report, from its lowest and highest
+   * values.
+   */
+  private boolean isCleanBlock(Array array, ArrayElementType type, double[] values, int count) {
+    double low = Double.POSITIVE_INFINITY;
+    double high = Double.NEGATIVE_INFINITY;
+    boolean nan = false;
+    for (int i = 0; i < count; i++) {
+      double value = values[i];
+      nan |= value != value;
+      low = value < low ? value : low;
+      high = value > high ? value : high;
+    }
+    return !nan && type.isInRange(low) && type.isInRange(high)
+        && !type.mayHoldSpecialConstant(low, high) && isWithinObjectStats(array, low, high);
+  }
+
+  /**
+   * Checks whether all the values between a low and a high value are within the Object_Statistics
+   * of an array. The scaled values are monotonic in the values, so only the bounds are scaled. The
+   * values must be more than roundingMargin() away from the statistics, where the rounding done by
+   * compare() cannot change the outcome.
+   *
+   * @return true if no value between the bounds is reported by checkObjectStats().
+   */
+  private boolean isWithinObjectStats(Array array, double low, double high) {
+    ObjectStatistics objectStats = array.getObjectStatistics();
+    if (objectStats == null) {
+      return true;
+    }
+    if ((objectStats.getMinimum() != null
+        && !(low - objectStats.getMinimum() > roundingMargin(objectStats.getMinimum())))
+        || (objectStats.getMaximum() != null
+            && !(objectStats.getMaximum() - high > roundingMargin(objectStats.getMaximum())))) {
+      return false;
+    }
+    ElementArray elementArray = array.getElementArray();
+    if (elementArray.getScalingFactor() == null && elementArray.getValueOffset() == null) {
+      return true;
+    }
+    double scalingFactor =
+        elementArray.getScalingFactor() != null ? elementArray.getScalingFactor() : 1.0;
+    double valueOffset =
+        elementArray.getValueOffset() != null ? elementArray.getValueOffset() : 0.0;
+    double scaledLow = (low * scalingFactor) + valueOffset;
+    double scaledHigh = (high * scalingFactor) + valueOffset;
+    if (scaledLow > scaledHigh) {
+      double swap = scaledLow;
+      scaledLow = scaledHigh;
+      scaledHigh = swap;
+    }
+    Double minimum = objectStats.getMinimumScaledValue();
+    Double maximum = objectStats.getMaximumScaledValue();
+    return (minimum == null || scaledLow - minimum > roundingMargin(minimum))
+        && (maximum == null || maximum - scaledHigh > roundingMargin(maximum));
+  }
+
+  /**
+   * Validates a stratified random sample of the elements of an array, and reports the confidence
+   * of the sample.
+   */
+  private void processSample(Array array, ArrayObject arrayObject, ArrayElementType type,
+      int[] dimensions) throws IOException {
+    long elementCount = 1;
+    for (int dimension : dimensions) {
+      elementCount *= dimension;
+    }
+    // The same elements are sampled each time the array is validated.
+    long[] sample = ContentSampler.sample(elementCount, sampleData,
+        dataFile.toString().hashCode() * 31L + arrayIndex);
+    int[] position = new int[dimensions.length];
+    int invalid = 0;
+    for (long index : sample) {
+      // The last axis varies the fastest, as when every element is validated.
+      long rest = index;
+      for (int j = dimensions.length - 1; j >= 0; j--) {
+        position[j] = (int) (rest % dimensions[j]);
+        rest /= dimensions[j];
+      }
+      long errorsBefore = errorCount;
+      validatePosition(array, arrayObject, type, position);
+      if (errorCount > errorsBefore) {
+        invalid++;
+      }
+    }
+    listener.addProblem(new ArrayContentProblem(
+        new ProblemDefinition(ExceptionType.INFO, ProblemType.ARRAY_SAMPLED,
+            ContentSampler.describe(elementCount, sample.length, invalid, "element")),
+        dataFile, label, arrayIndex, null));
+  }
+
+  /**
+   * Validates the element at a position. The element is read as a primitive value, and the
+   * location of the element is only made when a problem is reported.
+   *
+   * @param array Object representation of the array as described in the label.
+   * @param arrayObject Object representation of the array.
+   * @param type The type of the elements.
+   * @param position The position of the element, starting at 0 on each axis. It is reused for the
+   *        next elements.
+   */
+  private void validatePosition(Array array, ArrayObject arrayObject, ArrayElementType type,
       int[] position) throws IOException {
-    NumericDataType dataType =
-        Enum.valueOf(NumericDataType.class, array.getElementArray().getDataType());
-    Number value = null;
-    Range rangeChecker = null;
+    long integerValue = 0;
+    double realValue = 0;
 
     try {
-      switch (dataType) {
-        case SignedByte:
-          value = (byte) arrayObject.getInt(position);
-          rangeChecker = SignedByte_RANGE;
-          break;
-        case UnsignedByte:
-          value = arrayObject.getInt(position);
-          rangeChecker = UnsignedByte_RANGE;
-          break;
-        case UnsignedLSB2:
-          value = arrayObject.getInt(position);
-          rangeChecker = UnsignedLSB2_RANGE;
-          break;
-        case SignedLSB2:
-          value = (short) arrayObject.getInt(position);
-          rangeChecker = SignedLSB2_RANGE;
-          break;
-        case UnsignedMSB2:
-          value = arrayObject.getInt(position);
-          rangeChecker = UnsignedMSB2_RANGE;
-          break;
-        case SignedMSB2:
-          value = (short) arrayObject.getInt(position);
-          rangeChecker = SignedMSB2_RANGE;
-          break;
-        case UnsignedLSB4:
-          value = UnsignedInteger.valueOf(arrayObject.getLong(position));
-          rangeChecker = UnsignedLSB4_RANGE;
-          break;
-        case SignedLSB4:
-          value = arrayObject.getInt(position);
-          rangeChecker = SignedLSB4_RANGE;
-          break;
-        case UnsignedMSB4:
-          value = UnsignedInteger.valueOf(arrayObject.getLong(position));
-          rangeChecker = UnsignedMSB4_RANGE;
-          break;
-        case SignedMSB4:
-          value = arrayObject.getInt(position);
-          rangeChecker = SignedMSB4_RANGE;
+      switch (type.getKind()) {
+        case BYTE:
+          integerValue = (byte) arrayObject.getInt(position);
           break;
-        case UnsignedLSB8:
-          value = UnsignedLong.valueOf(Long.toUnsignedString(arrayObject.getLong(position)));
-          rangeChecker = UnsignedLSB8_RANGE;
+        case SHORT:
+          integerValue = (short) arrayObject.getInt(position);
           break;
-        case SignedLSB8:
-          value = arrayObject.getLong(position);
-          rangeChecker = SignedLSB8_RANGE;
+        case INT:
+          integerValue = arrayObject.getInt(position);
           break;
-        case UnsignedMSB8:
-          value = UnsignedLong.valueOf(Long.toUnsignedString(arrayObject.getLong(position)));
-          rangeChecker = UnsignedMSB8_RANGE;
+        case UNSIGNED_INT:
+          integerValue = arrayObject.getLong(position);
+          type.checkUnsignedInt(integerValue);
           break;
-        case SignedMSB8:
-          value = arrayObject.getLong(position);
-          rangeChecker = SignedMSB8_RANGE;
+        case LONG:
+        case UNSIGNED_LONG:
+          integerValue = arrayObject.getLong(position);
           break;
-        case IEEE754LSBSingle:
-          value = (float) arrayObject.getDouble(position);
-          rangeChecker = IEEE754LSBSingle_RANGE;
+        case FLOAT:
+          realValue = (float) arrayObject.getDouble(position);
           break;
-        case IEEE754MSBSingle:
-          value = (float) arrayObject.getDouble(position);
-          rangeChecker = IEEE754MSBSingle_RANGE;
-          break;
-        case IEEE754LSBDouble:
-          value = arrayObject.getDouble(position);
-          rangeChecker = IEEE754LSBDouble_RANGE;
-          break;
-        case IEEE754MSBDouble:
-          value = arrayObject.getDouble(position);
-          rangeChecker = IEEE754MSBDouble_RANGE;
+        case DOUBLE:
+          realValue = arrayObject.getDouble(position);
           break;
         default:
-          LOG.warn("validatePosition:Unhandled dataType {}", dataType);
+          LOG.warn("validatePosition:Unhandled kind {}", type.getKind());
           break;
       }
     } catch (Exception ee) {
-      String loc = Arrays.toString(location.getLocation());
-      if (location.getLocation().length > 1) {
-        loc = loc.replaceAll("\\[", "\\(");
-        loc = loc.replaceAll("\\]", "\\)");
-      } else {
-        loc = loc.replaceAll("\\[", "");
-        loc = loc.replaceAll("\\]", "");
+      throw readError(position, ee.getMessage());
+    }
+    if (statistics != null) {
+      addToStatistics(type, integerValue, realValue);
+    }
+    validateValue(array, type, integerValue, realValue, position);
+  }
+
+  /**
+   * Adds the value of an element to the statistics. The special constants, and the values out of
+   * the range of the data type such as NaN, are not part of the statistics.
+   */
+  private void addToStatistics(ArrayElementType type, long integerValue, double realValue) {
+    if (type.isReal()) {
+      if (type.isInRange(realValue) && !type.isSpecialConstant(realValue)) {
+        statistics.add(realValue);
       }
+    } else if (type.isInRange(integerValue) && !type.isSpecialConstant(integerValue)) {
+      statistics.add(type.toDouble(integerValue));
+    }
+  }
 
-      // #544: @jpl-jengelke reports that validate used to produce a detailed error message but now
-      // just says `null`. @jordanpadams says the calculation is no longer completed by the software
-      // and didn't make sense, but that said, `null` is not intuitive.
-      String message = "Error occurred while trying to " + "read data at location " + loc
-          + ". Verify possible mismatch in data type and/or file size versus array size.";
-      if (ee.getMessage() != null)
-        message += ": " + ee.getMessage();
-      throw new IOException(message);
+  /**
+   * Checks the statistics of the values against the Object_Statistics of the label.
+   *
+   * The minimum and maximum are exact, so an error is reported when the value in the label is not
+   * reached by any value. A value beyond it was already reported as out of the min/max range, so
+   * it is not reported again.
+   *
+   * The mean and the standard deviation depend on how they were summed, and the standard deviation
+   * may be the one of the values as a population or as a sample, so they match when they are within
+   * half a unit of the last digit of the value in the label or a relative difference of
+   * STATISTICS_RELATIVE_TOLERANCE, and a mismatch is only a warning. The median of a large array is
+   * an estimate, allowed 1% of the standard deviation, and it is not checked when the array was
+   * validated in tiles, whose estimates cannot be combined.
+   *
+   * @param objectStats The Object Statistics.
+   */
+  private void checkStatistics(ObjectStatistics objectStats) {
+    if (statistics.getCount() == 0) {
+      return;
+    }
+    LOG.debug("checkStatistics:count,minimum,maximum,mean,median {},{},{},{},{}",
+        statistics.getCount(), statistics.getMinimum(), statistics.getMaximum(),
+        statistics.getMean(), statistics.getMedian());
+    if (objectStats.getMinimum() != null && statistics.getMinimum() > objectStats.getMinimum()
+        && !matches(statistics.getMinimum(), objectStats.getMinimum(), 0.0, 0.0)) {
+      addStatisticsProblem(ExceptionType.ERROR, "minimum", statistics.getMinimum(),
+          objectStats.getMinimum());
+    }
+    if (objectStats.getMaximum() != null && statistics.getMaximum() < objectStats.getMaximum()
+        && !matches(statistics.getMaximum(), objectStats.getMaximum(), 0.0, 0.0)) {
+      addStatisticsProblem(ExceptionType.ERROR, "maximum", statistics.getMaximum(),
+          objectStats.getMaximum());
+    }
+    if (objectStats.getMean() != null && !matches(statistics.getMean(), objectStats.getMean(),
+        0.0, STATISTICS_RELATIVE_TOLERANCE)) {
+      addStatisticsProblem(ExceptionType.WARNING, "mean", statistics.getMean(),
+          objectStats.getMean());
+    }
+    if (objectStats.getStandardDeviation() != null
+        && !matches(statistics.getPopulationStandardDeviation(),
+            objectStats.getStandardDeviation(), 0.0, STATISTICS_RELATIVE_TOLERANCE)
+        && !matches(statistics.getSampleStandardDeviation(), objectStats.getStandardDeviation(),
+            0.0, STATISTICS_RELATIVE_TOLERANCE)) {
+      addStatisticsProblem(ExceptionType.WARNING, "standard deviation",
+          statistics.getPopulationStandardDeviation(), objectStats.getStandardDeviation());
+    }
+    double median = statistics.getMedian();
+    if (objectStats.getMedian() != null && !Double.isNaN(median) && !matches(median,
+        objectStats.getMedian(), 0.01 * statistics.getPopulationStandardDeviation(), 0.0)) {
+      addStatisticsProblem(ExceptionType.WARNING, "median", median, objectStats.getMedian());
     }
+  }
+
+  /**
+   * Checks whether a statistic matches the value in the label.
+   *
+   * @param actual The statistic of the values.
+   * @param declared The value in the label.
+   * @param tolerance A difference allowed on top of the rounding of the value in the label.
+   * @param relativeTolerance A difference allowed relative to the value in the label.
+   * @return true if the statistic is within half a unit of the last digit of the value in the
+   *         label, or within one of the tolerances.
+   */
+  private static boolean matches(double actual, double declared, double tolerance,
+      double relativeTolerance) {
+    double rounding = new BigDecimal(Double.toString(declared)).ulp().doubleValue() / 2;
+    double allowed =
+        Math.max(Math.max(rounding, tolerance), Math.abs(declared) * relativeTolerance);
+    return Math.abs(actual - declared) <= allowed;
+  }
 
-    boolean isSpecialConstant = false;
-    if (array.getSpecialConstants() != null) {
-      isSpecialConstant = isSpecialConstant(value.toString(), array.getSpecialConstants());
+  private void addStatisticsProblem(ExceptionType exceptionType, String statistic, double actual,
+      Double declared) {
+    ProblemType problemType = exceptionType == ExceptionType.WARNING
+        ? ProblemType.ARRAY_STATISTICS_APPROXIMATE_MISMATCH
+        : ProblemType.ARRAY_STATISTICS_MISMATCH;
+    if (exceptionType.getValue() <= ExceptionType.ERROR.getValue()) {
+      errorCount++;
     }
+    listener.addProblem(new ArrayContentProblem(
+        new ProblemDefinition(exceptionType, problemType,
+            tableNameReportStr + "The " + statistic + " of the values does not match the "
+                + statistic + " in the label (" + statistic + "=" + declared.toString()
+                + ", got=" + actual + ")."),
+        dataFile, label, arrayIndex, null));
+  }
 
-    // LOG.debug("validatePosition:dataType,isSpecialConstant,array.getSpecialConstants()
-    // {},{},{}",dataType,isSpecialConstant,array.getSpecialConstants());
-    // LOG.debug("validatePosition:dataType,value,rangeChecker.contains(value)
-    // {},{},{}",dataType,value,rangeChecker.contains(value));
+  /**
+   * Makes the error of an element that cannot be read.
+   *
+   * @param position The position of the element, starting at 0 on each axis.
+   * @param cause The reason why the element cannot be read, or null.
+   * @return The error.
+   */
+  private IOException readError(int[] position, String cause) {
+    String loc = Arrays.toString(toLocation(position).getLocation());
+    if (position.length > 1) {
+      loc = loc.replaceAll("\\[", "\\(");
+      loc = loc.replaceAll("\\]", "\\)");
+    } else {
+      loc = loc.replaceAll("\\[", "");
+      loc = loc.replaceAll("\\]", "");
+    }
+
+    // #544: @jpl-jengelke reports that validate used to produce a detailed error message but now
+    // just says `null`. @jordanpadams says the calculation is no longer completed by the software
+    // and didn't make sense, but that said, `null` is not intuitive.
+    String message = "Error occurred while trying to " + "read data at location " + loc
+        + ". Verify possible mismatch in data type and/or file size versus array size.";
+    if (cause != null)
+      message += ": " + cause;
+    return new IOException(message);
+  }
+
+  /**
+   * Validates the value of an element.
+   *
+   * @param array Object representation of the array as described in the label.
+   * @param type The type of the elements.
+   * @param integerValue The value, if the type is an integer type.
+   * @param realValue The value, if the type is a real type.
+   * @param position The position of the element, starting at 0 on each axis.
+   */
+  private void validateValue(Array array, ArrayElementType type, long integerValue,
+      double realValue, int[] position) {
+    boolean isReal = type.isReal();
+    boolean isSpecialConstant =
+        isReal ? type.isSpecialConstant(realValue) : type.isSpecialConstant(integerValue);
 
     if (!isSpecialConstant) {
-      if (!rangeChecker.contains(value)) {
+      boolean inRange = isReal ? type.isInRange(realValue) : type.isInRange(integerValue);
+      if (!inRange) {
         addArrayProblem(ExceptionType.ERROR, ProblemType.ARRAY_VALUE_OUT_OF_DATA_TYPE_RANGE,
-            ArrayContentValidator.tableNameReportStr
-                + "Value is not within the valid range of the data type '" + dataType.name() + "': "
-                + value.toString(),
-            location);
+            tableNameReportStr
+                + "Value is not within the valid range of the data type '"
+                + type.getDataType().name() + "': " + format(type, integerValue, realValue),
+            toLocation(position));
       }
       if (array.getObjectStatistics() != null) {
         // At this point, it seems like it only makes sense
         // to check that the values are within the min/max values
-        checkObjectStats(value, array.getElementArray(), array.getObjectStatistics(), location);
+        checkObjectStats(isReal ? realValue : type.toDouble(integerValue), type, integerValue,
+            realValue, array.getElementArray(), array.getObjectStatistics(), position);
       }
-    } else {
+    } else if (listener.isReported(ExceptionType.INFO)) {
       addArrayProblem(ExceptionType.INFO, ProblemType.ARRAY_VALUE_IS_SPECIAL_CONSTANT,
           tableNameReportStr + "Value is a special constant defined in the label: "
-              + value.toString(),
-          location);
+              + format(type, integerValue, realValue),
+          toLocation(position));
+    }
+  }
+
+  /**
+   * @return the value of an element as it is shown in the messages.
+   */
+  private static String format(ArrayElementType type, long integerValue, double realValue) {
+    return type.isReal() ? type.format(realValue) : type.format(integerValue);
+  }
+
+  /**
+   * Makes the location of an element to report a problem.
+   *
+   * @param position The position of the element, starting at 0 on each axis.
+   * @return The location, starting at 1 on each axis.
+   */
+  private ArrayLocation toLocation(int[] position) {
+    int[] position_1based = new int[position.length];
+    for (int j = 0; j < position.length; j++) {
+      position_1based[j] = position[j] + 1;
     }
+    return new ArrayLocation(label, dataFile, arrayIndex, position_1based);
   }
 
   /**
@@ -377,35 +942,40 @@ public class ArrayContentValidator {
    * label.
    * 
    * @param value The element value.
+   * @param type The type of the elements.
+   * @param integerValue The element value, if the type is an integer type.
+   * @param realValue The element value, if the type is a real type.
    * @param elementArray The Element Array.
    * @param objectStats The Object Statistics.
-   * @param location The location of the given element value.
+   * @param position The position of the given element value, starting at 0 on each axis.
    */
-  private void checkObjectStats(Number value, ElementArray elementArray,
-      ObjectStatistics objectStats, ArrayLocation location) {
+  private void checkObjectStats(double value, ArrayElementType type, long integerValue,
+      double realValue, ElementArray elementArray, ObjectStatistics objectStats, int[] position) {
     if (objectStats.getMinimum() != null) {
       // Use the compare function in this class to compare between two floats.
-      if (compare(value.doubleValue(), objectStats.getMinimum()) == -1) {
+      if (isBelow(value, objectStats.getMinimum())) {
         String errorMessage =
             tableNameReportStr + " Value is less than the minimum value in the label (min="
                 + objectStats.getMinimum().toString();
-        LOG.debug("checkObjectStats:value.doubleValue() {}", value.doubleValue());
+        LOG.debug("checkObjectStats:value {}", value);
         LOG.debug("checkObjectStats:objectStats.getMinimum(),type(objectStats.getMinimum()) {},{}",
             objectStats.getMinimum(), objectStats.getMinimum().getClass().getSimpleName());
         LOG.error(errorMessage);
         addArrayProblem(ExceptionType.ERROR, ProblemType.ARRAY_VALUE_OUT_OF_MIN_MAX_RANGE,
             tableNameReportStr + " Value is less than the minimum value in the label (min="
-                + objectStats.getMinimum().toString() + ", got=" + value.toString() + ").",
-            location);
+                + objectStats.getMinimum().toString() + ", got="
+                + format(type, integerValue, realValue) + ").",
+            toLocation(position));
       }
     }
     if (objectStats.getMaximum() != null) {
       // Use the compare function in this class to compare between two floats.
-      if (compare(value.doubleValue(), objectStats.getMaximum()) == 1) {
+      if (isAbove(value, objectStats.getMaximum())) {
         addArrayProblem(ExceptionType.ERROR, ProblemType.ARRAY_VALUE_OUT_OF_MIN_MAX_RANGE,
             tableNameReportStr + "Value is greater than the maximum value in the label (max="
-                + objectStats.getMaximum().toString() + ", got=" + value.toString() + ").",
-            location);
+                + objectStats.getMaximum().toString() + ", got="
+                + format(type, integerValue, realValue) + ").",
+            toLocation(position));
       }
     }
     double scalingFactor = 1.0;
@@ -420,28 +990,57 @@ public class ArrayContentValidator {
       checkScaledValue = true;
     }
     if (checkScaledValue) {
-      double scaledValue = (value.doubleValue() * scalingFactor) + valueOffset;
+      double scaledValue = (value * scalingFactor) + valueOffset;
       if (objectStats.getMinimumScaledValue() != null) {
-        if (compare(scaledValue, objectStats.getMinimumScaledValue()) == -1) {
+        if (isBelow(scaledValue, objectStats.getMinimumScaledValue())) {
           addArrayProblem(ExceptionType.ERROR, ProblemType.ARRAY_VALUE_OUT_OF_SCALED_MIN_MAX_RANGE,
               tableNameReportStr + "Scaled value is less than the scaled minimum value in the "
                   + "label (min=" + objectStats.getMinimumScaledValue().toString() + ", got="
-                  + value.toString() + ").",
-              location);
+                  + format(type, integerValue, realValue) + ").",
+              toLocation(position));
         }
       }
       if (objectStats.getMaximumScaledValue() != null) {
-        if (compare(scaledValue, objectStats.getMaximumScaledValue()) == 1) {
+        if (isAbove(scaledValue, objectStats.getMaximumScaledValue())) {
           addArrayProblem(ExceptionType.ERROR, ProblemType.ARRAY_VALUE_OUT_OF_SCALED_MIN_MAX_RANGE,
               "Scaled value is greater than the scaled maximum value in the " + "label (max="
-                  + objectStats.getMaximumScaledValue().toString() + ", got=" + value.toString()
-                  + ").",
-              location);
+                  + objectStats.getMaximumScaledValue().toString() + ", got="
+                  + format(type, integerValue, realValue) + ").",
+              toLocation(position));
         }
       }
     }
   }
 
+  /**
+   * Checks whether a value is less than a minimum, as compared by compare(). The rounding done by
+   * compare() can only change the outcome for values within roundingMargin() of the minimum.
+   */
+  private boolean isBelow(double value, double minimum) {
+    return !(value - minimum > roundingMargin(minimum)) && compare(value, minimum) == -1;
+  }
+
+  /**
+   * Checks whether a value is greater than a maximum, as compared by compare(). The rounding done
+   * by compare() can only change the outcome for values within roundingMargin() of the maximum.
+   */
+  private boolean isAbove(double value, double maximum) {
+    return !(maximum - value > roundingMargin(maximum)) && compare(value, maximum) == 1;
+  }
+
+  /**
+   * Gets the difference from a min or max value beyond which compare() gives the same outcome as
+   * comparing the doubles: COMPARE_ROUNDING, and a few ulps of the min or max value for the error
+   * of the decimal forms of the doubles and of their difference. A value much larger than the min
+   * or max value is far beyond the margin, whatever its own ulp.
+   *
+   * @param minMax The min or max value.
+   * @return The margin.
+   */
+  private static double roundingMargin(double minMax) {
+    return COMPARE_ROUNDING + 4 * Math.ulp(minMax);
+  }
+
   /**
    * Compares 2 double values. If the values have different precisions, this method will set the
    * precisions to the same scale before doing a comparison.
@@ -452,9 +1051,9 @@ public class ArrayContentValidator {
    * @return -1 if value is less than minMax, 0 if they are equal and 1 if value is greater than
    *         minMax.
    */
-  private int compare(Double value, Double minMax) {
-    BigDecimal bdValue = new BigDecimal(value.toString());
-    BigDecimal bdMinMax = new BigDecimal(minMax.toString());
+  private int compare(double value, double minMax) {
+    BigDecimal bdValue = new BigDecimal(Double.toString(value));
+    BigDecimal bdMinMax = new BigDecimal(Double.toString(minMax));
     if (bdValue.precision() == bdMinMax.precision()) {
       return bdValue.compareTo(bdMinMax);
     }
@@ -476,6 +1075,9 @@ public class ArrayContentValidator {
   private void addArrayProblem(ExceptionType exceptionType, ProblemType problemType, String message,
       ArrayLocation location) {
     // LOG.debug("addArrayProblem: message [{}]",message);
+    if (exceptionType.getValue() <= ExceptionType.ERROR.getValue()) {
+      errorCount++;
+    }
     listener.addProblem(new ArrayContentProblem(exceptionType, problemType, message,
         location.getDataFile(), location.getLabel(), location.getArray(), location.getLocation()));
   }
@@ -483,4 +1085,12 @@ public class ArrayContentValidator {
   public void setSpotCheckData(int value) {
     this.spotCheckData = value;
   }
+
+  public void setSampleData(int value) {
+    this.sampleData = value;
+  }
+
+  public void setArrayThreads(int value) {
+    this.arrayThreads = value;
+  }
 }
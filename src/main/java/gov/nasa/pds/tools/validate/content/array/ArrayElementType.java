@@ -0,0 +1,369 @@
+// Copyright 2006-2018, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content.array;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.Arrays;
+import gov.nasa.arc.pds.xml.generated.SpecialConstants;
+import gov.nasa.pds.objectAccess.DataType.NumericDataType;
+
+/**
+ * The data type of the elements of an array, with the range of the type and the special constants
+ * of the array worked out once, so that the elements are checked as primitive values.
+ *
+ * The integer values are held in a long and the real values in a double. A value matches a special
+ * constant when its string form equals the constant, as ArrayContentValidator.isSpecialConstant()
+ * checks it, but the constants are parsed once rather than each value formatted.
+ */
+final class ArrayElementType {
+
+  /**
+   * How the values of the elements are read.
+   */
+  enum Kind {
+    /** Read as an int and narrowed to a byte. */
+    BYTE,
+    /** Read as an int and narrowed to a short. */
+    SHORT,
+    /** Read as an int. */
+    INT,
+    /** Read as a long that must fit in 32 unsigned bits. */
+    UNSIGNED_INT,
+    /** Read as a long. */
+    LONG,
+    /** Read as a long whose bits are an unsigned value. */
+    UNSIGNED_LONG,
+    /** Read as a double and narrowed to a float. */
+    FLOAT,
+    /** Read as a double. */
+    DOUBLE
+  }
+
+  private static final long UNSIGNED_INT_MAX = 0xFFFFFFFFL;
+
+  private final NumericDataType dataType;
+  private final Kind kind;
+
+  /** The range of the integer values. */
+  private final long minimum;
+  private final long maximum;
+
+  /**
+   * The special constants that a value can match: the values of the integer types, or the bits of
+   * the values of the real types.
+   */
+  private final long[] constants;
+
+  /**
+   * Works out the type of the elements of an array.
+   *
+   * @param dataType The data type, as named in the label.
+   * @param specialConstants The special constants of the array, or null if there are none.
+   * @throws IllegalArgumentException If the data type is not a numeric data type.
+   */
+  ArrayElementType(String dataType, SpecialConstants specialConstants) {
+    this.dataType = Enum.valueOf(NumericDataType.class, dataType);
+    long min = Long.MIN_VALUE;
+    long max = Long.MAX_VALUE;
+    switch (this.dataType) {
+      case SignedByte:
+        this.kind = Kind.BYTE;
+        break;
+      case UnsignedByte:
+        this.kind = Kind.INT;
+        min = 0;
+        max = 255;
+        break;
+      case UnsignedLSB2:
+      case UnsignedMSB2:
+        this.kind = Kind.INT;
+        min = 0;
+        max = 65535;
+        break;
+      case SignedLSB2:
+      case SignedMSB2:
+        this.kind = Kind.SHORT;
+        break;
+      case UnsignedLSB4:
+      case UnsignedMSB4:
+        this.kind = Kind.UNSIGNED_INT;
+        min = 0;
+        max = UNSIGNED_INT_MAX;
+        break;
+      case SignedLSB4:
+      case SignedMSB4:
+        this.kind = Kind.INT;
+        break;
+      case UnsignedLSB8:
+      case UnsignedMSB8:
+        this.kind = Kind.UNSIGNED_LONG;
+        break;
+      case SignedLSB8:
+      case SignedMSB8:
+        this.kind = Kind.LONG;
+        break;
+      case IEEE754LSBSingle:
+      case IEEE754MSBSingle:
+        this.kind = Kind.FLOAT;
+        break;
+      case IEEE754LSBDouble:
+      case IEEE754MSBDouble:
+        this.kind = Kind.DOUBLE;
+        break;
+      default:
+        throw new IllegalArgumentException("Unhandled data type " + dataType);
+    }
+    this.minimum = min;
+    this.maximum = max;
+    this.constants = parseConstants(specialConstants);
+  }
+
+  NumericDataType getDataType() {
+    return dataType;
+  }
+
+  Kind getKind() {
+    return kind;
+  }
+
+  /**
+   * @return the size of an element, in bytes.
+   */
+  int getSize() {
+    return dataType.getBits() / 8;
+  }
+
+  /**
+   * @return the byte order of the elements: little endian for the LSB types, big endian for the
+   *         others.
+   */
+  ByteOrder getByteOrder() {
+    return dataType.name().contains("LSB") ? ByteOrder.LITTLE_ENDIAN : ByteOrder.BIG_ENDIAN;
+  }
+
+  /**
+   * Decodes the next integer value of a buffer, as ArrayObject.getInt() or getLong() reads it.
+   *
+   * @param buffer The buffer, in the byte order of the type.
+   * @return The value.
+   */
+  long getInteger(ByteBuffer buffer) {
+    switch (kind) {
+      case BYTE:
+        return buffer.get();
+      case SHORT:
+        return buffer.getShort();
+      case INT:
+        // The unsigned types narrower than an int, and the signed 4 byte types.
+        switch (getSize()) {
+          case 1:
+            return buffer.get() & 0xFF;
+          case 2:
+            return buffer.getShort() & 0xFFFF;
+          default:
+            return buffer.getInt();
+        }
+      case UNSIGNED_INT:
+        return buffer.getInt() & UNSIGNED_INT_MAX;
+      default:
+        return buffer.getLong();
+    }
+  }
+
+  /**
+   * Decodes the next real value of a buffer.
+   *
+   * @param buffer The buffer, in the byte order of the type.
+   * @return The value.
+   */
+  double getReal(ByteBuffer buffer) {
+    return kind == Kind.FLOAT ? buffer.getFloat() : buffer.getDouble();
+  }
+
+  /**
+   * @return true if the values are held in a double rather than a long.
+   */
+  boolean isReal() {
+    return kind == Kind.FLOAT || kind == Kind.DOUBLE;
+  }
+
+  /**
+   * Checks that a value read as a long fits the type, as UnsignedInteger.valueOf() does.
+   *
+   * @param value The value.
+   * @throws IllegalArgumentException If the value does not fit in 32 unsigned bits.
+   */
+  void checkUnsignedInt(long value) {
+    if (kind == Kind.UNSIGNED_INT && (value & UNSIGNED_INT_MAX) != value) {
+      throw new IllegalArgumentException(
+          "value (" + value + ") is outside the range for an unsigned integer value");
+    }
+  }
+
+  /**
+   * @param value An integer value.
+   * @return true if the value is within the range of the data type.
+   */
+  boolean isInRange(long value) {
+    return value >= minimum && value <= maximum;
+  }
+
+  /**
+   * @param value A real value.
+   * @return true if the value is within the range of the data type. NaN and the infinities are
+   *         not.
+   */
+  boolean isInRange(double value) {
+    if (kind == Kind.FLOAT) {
+      return value >= -Float.MAX_VALUE && value <= Float.MAX_VALUE;
+    }
+    return value >= -Double.MAX_VALUE && value <= Double.MAX_VALUE;
+  }
+
+  /**
+   * @param value An integer value.
+   * @return true if the value is a special constant of the array.
+   */
+  boolean isSpecialConstant(long value) {
+    for (long constant : constants) {
+      if (constant == value) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param value A real value.
+   * @return true if the value is a special constant of the array.
+   */
+  boolean isSpecialConstant(double value) {
+    return constants.length > 0 && isSpecialConstant(toBits(value));
+  }
+
+  /**
+   * Checks whether a block of integer values may hold a special constant.
+   *
+   * @param low The lowest value of the block.
+   * @param high The highest value of the block.
+   * @return true if a special constant is between the lowest and the highest values.
+   */
+  boolean mayHoldSpecialConstant(long low, long high) {
+    for (long constant : constants) {
+      boolean between = kind == Kind.UNSIGNED_LONG
+          ? Long.compareUnsigned(constant, low) >= 0 && Long.compareUnsigned(constant, high) <= 0
+          : constant >= low && constant <= high;
+      if (between) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Checks whether a block of real values, with no NaN, may hold a special constant.
+   *
+   * @param low The lowest value of the block.
+   * @param high The highest value of the block.
+   * @return true if a special constant is between the lowest and the highest values, or is NaN.
+   */
+  boolean mayHoldSpecialConstant(double low, double high) {
+    for (long bits : constants) {
+      double constant =
+          kind == Kind.FLOAT ? Float.intBitsToFloat((int) bits) : Double.longBitsToDouble(bits);
+      // A NaN constant is always kept, as a NaN value is not in any range.
+      if (!(constant < low || constant > high)) {
+        return true;
+      }
+    }
+    return false;
+  }
+
+  /**
+   * @param value An integer value.
+   * @return the value as a double, reading the bits of an unsigned long as unsigned.
+   */
+  double toDouble(long value) {
+    if (kind != Kind.UNSIGNED_LONG || value >= 0) {
+      return value;
+    }
+    // Halved so that it fits in a signed long, keeping the lowest bit for the rounding.
+    return ((value >>> 1) | (value & 1)) * 2.0;
+  }
+
+  /**
+   * @param value An integer value.
+   * @return the value as it is shown in the messages.
+   */
+  String format(long value) {
+    return kind == Kind.UNSIGNED_LONG ? Long.toUnsignedString(value) : Long.toString(value);
+  }
+
+  /**
+   * @param value A real value.
+   * @return the value as it is shown in the messages.
+   */
+  String format(double value) {
+    return kind == Kind.FLOAT ? Float.toString((float) value) : Double.toString(value);
+  }
+
+  private long toBits(double value) {
+    return kind == Kind.FLOAT ? Float.floatToIntBits((float) value)
+        : Double.doubleToLongBits(value);
+  }
+
+  /**
+   * Parses the special constants that a value of the type can match. A constant is kept only if it
+   * is the string form of the value it is parsed into, as the values are compared by their string
+   * form.
+   */
+  private long[] parseConstants(SpecialConstants specialConstants) {
+    if (specialConstants == null) {
+      return new long[0];
+    }
+    String[] values = {specialConstants.getErrorConstant(), specialConstants.getInvalidConstant(),
+        specialConstants.getMissingConstant(), specialConstants.getHighInstrumentSaturation(),
+        specialConstants.getHighRepresentationSaturation(),
+        specialConstants.getLowInstrumentSaturation(),
+        specialConstants.getLowRepresentationSaturation(),
+        specialConstants.getNotApplicableConstant(), specialConstants.getSaturatedConstant(),
+        specialConstants.getUnknownConstant(), specialConstants.getValidMaximum(),
+        specialConstants.getValidMinimum()};
+    long[] parsed = new long[values.length];
+    int count = 0;
+    for (String value : values) {
+      if (value == null) {
+        continue;
+      }
+      try {
+        if (isReal()) {
+          double constant = kind == Kind.FLOAT ? Float.parseFloat(value) : Double.parseDouble(value);
+          if (format(constant).equals(value)) {
+            parsed[count++] = toBits(constant);
+          }
+        } else {
+          long constant =
+              kind == Kind.UNSIGNED_LONG ? Long.parseUnsignedLong(value) : Long.parseLong(value);
+          if (format(constant).equals(value)) {
+            parsed[count++] = constant;
+          }
+        }
+      } catch (NumberFormatException e) {
+        // A constant that is not a number never matches a value.
+      }
+    }
+    return Arrays.copyOf(parsed, count);
+  }
+}
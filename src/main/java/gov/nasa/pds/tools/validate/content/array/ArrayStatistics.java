@@ -0,0 +1,263 @@
+// Copyright 2006-2018, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content.array;
+
+import java.util.Arrays;
+
+/**
+ * The statistics of the values of an array, worked out in the same pass as the validation of the
+ * elements so that they can be compared with the Object_Statistics of the label.
+ *
+ * The minimum and maximum are exact. The mean and the variance are updated with Welford's method,
+ * which stays accurate over billions of values. The median is exact for up to EXACT_VALUES values,
+ * which are kept. Beyond that it is estimated with the P-square algorithm of Jain and Chlamtac,
+ * which keeps five markers rather than the values. The markers of two accumulators cannot be
+ * combined, so the median is no longer known once statistics with too many values to keep are
+ * merged.
+ */
+final class ArrayStatistics {
+  /** The number of markers of the P-square algorithm. */
+  private static final int MARKERS = 5;
+
+  /** The increments of the desired marker positions for the median. */
+  private static final double[] INCREMENTS = {0.0, 0.25, 0.5, 0.75, 1.0};
+
+  /** The largest number of values kept to work out the exact median. */
+  private static final int EXACT_VALUES = 1 << 16;
+
+  private long count = 0;
+  private double mean = 0.0;
+
+  /** The sum of the squared differences from the mean. */
+  private double m2 = 0.0;
+
+  private double minimum = Double.POSITIVE_INFINITY;
+  private double maximum = Double.NEGATIVE_INFINITY;
+
+  /** The heights of the markers: the values at the marker positions. */
+  private final double[] heights = new double[MARKERS];
+
+  /** The positions of the markers, starting at 1. */
+  private final long[] positions = new long[MARKERS];
+
+  /** The desired positions of the markers. */
+  private final double[] desired = new double[MARKERS];
+
+  /** The number of values given to the markers of this accumulator. */
+  private long medianCount = 0;
+
+  /** Whether the values of other accumulators were merged, so that the markers are not used. */
+  private boolean merged = false;
+
+  /** The values, as long as there are no more than EXACT_VALUES of them, or null. */
+  private double[] values = new double[16];
+
+  /**
+   * Adds a value.
+   *
+   * @param value The value, which must be finite.
+   */
+  void add(double value) {
+    count++;
+    double delta = value - mean;
+    mean += delta / count;
+    m2 += delta * (value - mean);
+    if (value < minimum) {
+      minimum = value;
+    }
+    if (value > maximum) {
+      maximum = value;
+    }
+    keep(value);
+    addToMarkers(value);
+  }
+
+  private void keep(double value) {
+    if (values == null) {
+      return;
+    }
+    if (count > EXACT_VALUES) {
+      values = null;
+      return;
+    }
+    if (count > values.length) {
+      values = Arrays.copyOf(values, Math.min(values.length * 2, EXACT_VALUES));
+    }
+    values[(int) count - 1] = value;
+  }
+
+  /**
+   * Merges the statistics of values that follow the values of this accumulator. The mean and the
+   * variance are combined exactly. The median stays exact while all the values can be kept, but it
+   * is no longer known otherwise, unless this accumulator had no values.
+   *
+   * @param other The statistics of the other values.
+   */
+  void merge(ArrayStatistics other) {
+    if (other.count == 0) {
+      return;
+    }
+    if (count == 0) {
+      copy(other);
+      return;
+    }
+    long total = count + other.count;
+    if (values != null && other.values != null && total <= EXACT_VALUES) {
+      values = Arrays.copyOf(values, Math.max(values.length, (int) total));
+      System.arraycopy(other.values, 0, values, (int) count, (int) other.count);
+    } else {
+      values = null;
+    }
+    double delta = other.mean - mean;
+    mean += delta * other.count / total;
+    m2 += other.m2 + delta * delta * ((double) count * other.count / total);
+    count = total;
+    minimum = Math.min(minimum, other.minimum);
+    maximum = Math.max(maximum, other.maximum);
+    merged = true;
+  }
+
+  private void copy(ArrayStatistics other) {
+    count = other.count;
+    mean = other.mean;
+    m2 = other.m2;
+    minimum = other.minimum;
+    maximum = other.maximum;
+    System.arraycopy(other.heights, 0, heights, 0, MARKERS);
+    System.arraycopy(other.positions, 0, positions, 0, MARKERS);
+    System.arraycopy(other.desired, 0, desired, 0, MARKERS);
+    medianCount = other.medianCount;
+    merged = other.merged;
+    values = other.values == null ? null : other.values.clone();
+  }
+
+  long getCount() {
+    return count;
+  }
+
+  double getMinimum() {
+    return minimum;
+  }
+
+  double getMaximum() {
+    return maximum;
+  }
+
+  double getMean() {
+    return mean;
+  }
+
+  /**
+   * @return the standard deviation of the values as a whole population.
+   */
+  double getPopulationStandardDeviation() {
+    return count > 0 ? Math.sqrt(m2 / count) : Double.NaN;
+  }
+
+  /**
+   * @return the standard deviation of the values as a sample of a larger population.
+   */
+  double getSampleStandardDeviation() {
+    return count > 1 ? Math.sqrt(m2 / (count - 1)) : Double.NaN;
+  }
+
+  /**
+   * @return the median, exact if the values were kept and estimated otherwise, or NaN if there are
+   *         no values or the values of several accumulators were merged and not kept.
+   */
+  double getMedian() {
+    if (values != null && count > 0) {
+      int n = (int) count;
+      double[] sorted = Arrays.copyOf(values, n);
+      Arrays.sort(sorted);
+      return n % 2 == 1 ? sorted[n / 2] : (sorted[n / 2 - 1] + sorted[n / 2]) / 2;
+    }
+    if (merged || medianCount == 0) {
+      return Double.NaN;
+    }
+    if (medianCount < MARKERS) {
+      // The exact median of the first values.
+      int n = (int) medianCount;
+      double[] values = Arrays.copyOf(heights, n);
+      Arrays.sort(values);
+      return n % 2 == 1 ? values[n / 2] : (values[n / 2 - 1] + values[n / 2]) / 2;
+    }
+    return heights[2];
+  }
+
+  private void addToMarkers(double value) {
+    if (medianCount < MARKERS) {
+      heights[(int) medianCount++] = value;
+      if (medianCount == MARKERS) {
+        Arrays.sort(heights);
+        for (int i = 0; i < MARKERS; i++) {
+          positions[i] = i + 1;
+          desired[i] = 1 + 4 * INCREMENTS[i];
+        }
+      }
+      return;
+    }
+    medianCount++;
+
+    // The cell of the value, whose upper markers move up one position.
+    int cell;
+    if (value < heights[0]) {
+      heights[0] = value;
+      cell = 0;
+    } else if (value >= heights[MARKERS - 1]) {
+      heights[MARKERS - 1] = value;
+      cell = MARKERS - 2;
+    } else {
+      cell = 0;
+      while (value >= heights[cell + 1]) {
+        cell++;
+      }
+    }
+    for (int i = cell + 1; i < MARKERS; i++) {
+      positions[i]++;
+    }
+    for (int i = 0; i < MARKERS; i++) {
+      desired[i] += INCREMENTS[i];
+    }
+
+    // The middle markers are moved one position toward their desired position.
+    for (int i = 1; i < MARKERS - 1; i++) {
+      double offset = desired[i] - positions[i];
+      if ((offset >= 1 && positions[i + 1] - positions[i] > 1)
+          || (offset <= -1 && positions[i - 1] - positions[i] < -1)) {
+        int step = offset > 0 ? 1 : -1;
+        double height = parabolic(i, step);
+        if (heights[i - 1] < height && height < heights[i + 1]) {
+          heights[i] = height;
+        } else {
+          heights[i] = heights[i] + step * (heights[i + step] - heights[i])
+              / (positions[i + step] - positions[i]);
+        }
+        positions[i] += step;
+      }
+    }
+  }
+
+  /**
+   * @return the height of a marker moved by one position, predicted by a parabola through the
+   *         marker and its neighbours.
+   */
+  private double parabolic(int i, int step) {
+    double below = positions[i] - positions[i - 1];
+    double above = positions[i + 1] - positions[i];
+    return heights[i] + step / (double) (positions[i + 1] - positions[i - 1])
+        * ((below + step) * (heights[i + 1] - heights[i]) / above
+            + (above - step) * (heights[i] - heights[i - 1]) / below);
+  }
+}
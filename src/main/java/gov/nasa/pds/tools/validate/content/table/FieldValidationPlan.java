@@ -0,0 +1,242 @@
+// Copyright 2006-2019, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content.table;
+
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import gov.nasa.arc.pds.xml.generated.SpecialConstants;
+import gov.nasa.pds.label.object.FieldDescription;
+import gov.nasa.pds.label.object.FieldType;
+
+/**
+ * The checks of the fields of a table that do not depend on the field values. They are worked out
+ * once for the fields of a table, so that the FieldValueValidator only runs the checks of the
+ * values for each record. A plan is never changed once made, so it can be shared between threads.
+ *
+ */
+class FieldValidationPlan {
+  private static final Pattern formatPattern =
+      Pattern.compile("%([\\+,-])?([0-9]+)(\\.([0-9]+))?([doxfeEs])");
+
+  /**
+   * The field types with a check in FieldValueValidator, in the order they were matched by the
+   * name of their type.
+   */
+  private static final FieldType[] CHECKED_TYPES = {FieldType.ASCII_INTEGER,
+      FieldType.ASCII_NONNEGATIVE_INTEGER, FieldType.ASCII_REAL, FieldType.ASCII_NUMERIC_BASE2,
+      FieldType.ASCII_NUMERIC_BASE8, FieldType.ASCII_NUMERIC_BASE16, FieldType.ASCII_MD5_CHECKSUM,
+      FieldType.ASCII_ANYURI, FieldType.ASCII_DOI, FieldType.ASCII_LID, FieldType.ASCII_LIDVID,
+      FieldType.ASCII_LIDVID_LID, FieldType.ASCII_VID, FieldType.ASCII_STRING,
+      FieldType.UTF8_STRING, FieldType.ASCII_DATE_DOY, FieldType.ASCII_DATE_TIME_DOY,
+      FieldType.ASCII_DATE_TIME_DOY_UTC, FieldType.ASCII_DATE_TIME_YMD,
+      FieldType.ASCII_DATE_TIME_YMD_UTC, FieldType.ASCII_DATE_YMD, FieldType.ASCII_TIME,
+      FieldType.ASCII_DIRECTORY_PATH_NAME, FieldType.ASCII_FILE_NAME,
+      FieldType.ASCII_FILE_SPECIFICATION_NAME, FieldType.ASCII_BIBCODE};
+
+  /**
+   * A field format (e.g. %-10.3f) parsed into its parts.
+   */
+  static class FieldFormat {
+    /** The format as defined in the label. */
+    final String format;
+
+    /** The '+' or '-' justification flag, or 0 if there is none. */
+    final char justified;
+
+    final int width;
+
+    /** The precision, or -1 if there is none. */
+    final int precision;
+
+    final String specifier;
+
+    private FieldFormat(Matcher matcher) {
+      this.format = matcher.group(0);
+      this.justified = matcher.group(1) == null ? 0 : matcher.group(1).charAt(0);
+      this.width = Integer.parseInt(matcher.group(2));
+      this.precision = matcher.group(4) == null ? -1 : Integer.parseInt(matcher.group(4));
+      this.specifier = matcher.group(5);
+    }
+
+    /**
+     * @return true if the specifier is one of the floating point specifiers (f, e or E).
+     */
+    boolean isFloatingPoint() {
+      return "f".equals(specifier) || "e".equals(specifier) || "E".equals(specifier);
+    }
+  }
+
+  /**
+   * The plan of a single field.
+   */
+  static class Field {
+    /** The type of the field. */
+    final FieldType type;
+
+    /** The type whose check applies to the values, or null if the type has no check. */
+    final FieldType checkedType;
+
+    final int maxLength;
+
+    /** The overlap with the next field checked only with the field formats, or null. */
+    final String formatOverlapMessage;
+
+    /** The overlap with the next field, or null. This error stops the table validation. */
+    final String overlapMessage;
+
+    /** Whether the overlap is between two bit fields. */
+    final boolean bitFieldOverlap;
+
+    /** The field number reported for an overlap of bit fields. */
+    final int overlapFieldNumber;
+
+    /** The parsed validation_format, or null if there is none. */
+    final FieldFormat validationFormat;
+
+    /** The parsed field_format, or null if there is none. */
+    final FieldFormat fieldFormat;
+
+    final Double minimum;
+    final Double maximum;
+    final SpecialConstants specialConstants;
+
+    private Field(FieldDescription[] fields, int i, int actualFieldNumber) {
+      FieldDescription field = fields[i];
+      this.type = field.getType();
+      this.checkedType = getCheckedType(this.type);
+      this.maxLength = field.getMaxLength();
+      this.validationFormat = parseFormat(field.getValidationFormat());
+      this.fieldFormat = parseFormat(field.getFieldFormat());
+      this.minimum = field.getMinimum();
+      this.maximum = field.getMaximum();
+      this.specialConstants = field.getSpecialConstants();
+      this.overlapFieldNumber = actualFieldNumber;
+
+      // Flag to store whether field is a UNSIGNEDBITSTRING or not. Because bit fields
+      // cannot be used to check for offset as normally as other kinds of fields.
+      // The reason is the bit field can have the same offset as the next field
+      // because the fields are in bits.
+      boolean fieldIsBitString =
+          this.type == FieldType.SIGNEDBITSTRING || this.type == FieldType.UNSIGNEDBITSTRING;
+      String formatOverlap = null;
+      String overlap = null;
+      boolean bitOverlap = false;
+      if ((i + 1) < fields.length) {
+        FieldDescription next = fields[i + 1];
+        int currentFieldEndsAt = field.getOffset() + field.getLength();
+        int nextOffsetShouldBe = field.getOffset() + field.getLength() + 1;
+
+        // issue_56: Validate that Table_Character fields do not overlap based upon
+        // field length definitions
+        if (currentFieldEndsAt > next.getOffset()) {
+          formatOverlap = "This field overlaps the next field. Current field ends at "
+              + currentFieldEndsAt + ". Next field starts at " + next.getOffset()
+              + " but should be at least at " + nextOffsetShouldBe;
+        }
+
+        // issue_56: Validate that fields do not overlap based upon field length
+        // definitions
+        // If stopBit is set and we aren't at the end of the field,
+        // we should check for overlapping bit fields
+        if (field.getStopBit() > 0 && field.getStopBit() != field.getLength() * 8) {
+          // only check overlap is next start bit
+          if (next.getStartBit() > 1 && field.getStopBit() >= next.getStartBit()) {
+            overlap = "The bit field overlaps the next field. " + "Current stop_bit_location: "
+                + (field.getStopBit() + 1) + ". Next start_bit_location: "
+                + (next.getStartBit() + 1);
+            bitOverlap = true;
+          }
+          // Otherwise, we are just reading a normal Field_Character or Field_Binary
+        } else if ((field.getOffset() > next.getOffset())
+            || (!fieldIsBitString && currentFieldEndsAt > next.getOffset())) {
+          overlap = "This field overlaps the next field. Current field ends at "
+              + currentFieldEndsAt + ". Next field starts at " + (next.getOffset() + 1)
+              + " but should be at least at " + nextOffsetShouldBe;
+        }
+      }
+      this.formatOverlapMessage = formatOverlap;
+      this.overlapMessage = overlap;
+      this.bitFieldOverlap = bitOverlap;
+    }
+  }
+
+  /** The fields the plan was made for. */
+  private final FieldDescription[] fields;
+
+  private final Field[] plan;
+
+  /**
+   * Makes the plan of the fields of a table.
+   *
+   * @param fields An array of the field descriptions.
+   */
+  FieldValidationPlan(FieldDescription[] fields) {
+    this.fields = fields;
+    this.plan = new Field[fields.length];
+    int actualFieldNumber = 1;
+    for (int i = 0; i < fields.length; i++) {
+      // issue_209: fix for incorrect field number
+      if (i < (fields.length - 1) && fields[i + 1].getOffset() != fields[i].getOffset()) {
+        actualFieldNumber++;
+      }
+      this.plan[i] = new Field(fields, i, actualFieldNumber);
+    }
+  }
+
+  /**
+   * @param fields An array of the field descriptions.
+   * @return true if the plan was made for these fields.
+   */
+  boolean isFor(FieldDescription[] fields) {
+    return this.fields == fields;
+  }
+
+  /**
+   * @param i The index of the field, starting at 0.
+   * @return the plan of the field.
+   */
+  Field getField(int i) {
+    return plan[i];
+  }
+
+  /**
+   * Parses a field format.
+   *
+   * @param format The format as defined in the label.
+   * @return The parsed format, or null if the format is not defined or not supported.
+   */
+  private static FieldFormat parseFormat(String format) {
+    if (format == null || format.isEmpty()) {
+      return null;
+    }
+    Matcher matcher = formatPattern.matcher(format);
+    return matcher.matches() ? new FieldFormat(matcher) : null;
+  }
+
+  /**
+   * Gets the type whose check applies to the values of a field type. The types are matched by
+   * name, as types may share the same name.
+   *
+   * @param type The type of the field.
+   * @return The type with a check, or null if there is none.
+   */
+  private static FieldType getCheckedType(FieldType type) {
+    for (FieldType checkedType : CHECKED_TYPES) {
+      if (checkedType.getXMLType().equals(type.getXMLType())) {
+        return checkedType;
+      }
+    }
+    return null;
+  }
+}
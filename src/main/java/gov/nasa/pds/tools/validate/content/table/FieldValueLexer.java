@@ -0,0 +1,383 @@
+// Copyright 2006-2019, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content.table;
+
+/**
+ * Lexers for the values of the PDS4 field types. Each value is checked in a single scan that does
+ * not allocate, and the outcome is returned rather than thrown, as whole columns of a table may be
+ * invalid.
+ *
+ * Each lexer accepts exactly the values matched by the pattern given in its comment, which is the
+ * pattern shown in the messages.
+ */
+final class FieldValueLexer {
+
+  /**
+   * The outcome of a lexer that checks both the syntax and the range of a value.
+   */
+  enum Result {
+    VALID, BAD_SYNTAX, OUT_OF_RANGE
+  }
+
+  /** Long.MAX_VALUE * 2 + 1, the largest unsigned long, divided by 10. */
+  private static final long UNSIGNED_LONG_MAX_DIV_10 = 1844674407370955161L;
+
+  /** The last digit of the largest unsigned long. */
+  private static final int UNSIGNED_LONG_MAX_LAST_DIGIT = 5;
+
+  private FieldValueLexer() {
+    // never called
+  }
+
+  /**
+   * Checks an ASCII_Integer: [+-]?\d+ within the range of a long.
+   *
+   * @param value The value.
+   * @return The outcome.
+   */
+  static Result lexInteger(String value) {
+    int length = value.length();
+    int i = 0;
+    boolean negative = false;
+    if (length > 0 && (value.charAt(0) == '+' || value.charAt(0) == '-')) {
+      negative = value.charAt(0) == '-';
+      i++;
+    }
+    if (i == length) {
+      return Result.BAD_SYNTAX;
+    }
+    // Accumulated as a negative number, as Long.parseLong does, so that Long.MIN_VALUE fits.
+    long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+    long multiplyMin = limit / 10;
+    long result = 0;
+    boolean overflow = false;
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return Result.BAD_SYNTAX;
+      }
+      int digit = c - '0';
+      if (result < multiplyMin || result * 10 < limit + digit) {
+        overflow = true;
+      } else {
+        result = result * 10 - digit;
+      }
+    }
+    return overflow ? Result.OUT_OF_RANGE : Result.VALID;
+  }
+
+  /**
+   * Checks an ASCII_NonNegative_Integer: [+]?\d+ within the range of an unsigned long. A leading
+   * '+' matches the pattern but, as for UnsignedLong.valueOf(), it cannot be converted.
+   *
+   * @param value The value.
+   * @return The outcome.
+   */
+  static Result lexUnsignedInteger(String value) {
+    int length = value.length();
+    int i = 0;
+    boolean plus = length > 0 && value.charAt(0) == '+';
+    if (plus) {
+      i++;
+    }
+    if (i == length) {
+      return Result.BAD_SYNTAX;
+    }
+    long result = 0;
+    boolean overflow = plus;
+    for (; i < length; i++) {
+      char c = value.charAt(i);
+      if (c < '0' || c > '9') {
+        return Result.BAD_SYNTAX;
+      }
+      int digit = c - '0';
+      if (overflow) {
+        continue;
+      }
+      int compare = Long.compareUnsigned(result, UNSIGNED_LONG_MAX_DIV_10);
+      if (compare > 0 || (compare == 0 && digit > UNSIGNED_LONG_MAX_LAST_DIGIT)) {
+        overflow = true;
+      } else {
+        result = result * 10 + digit;
+      }
+    }
+    return overflow ? Result.OUT_OF_RANGE : Result.VALID;
+  }
+
+  /**
+   * Checks an ASCII_Real: (\+|-)?([0-9]+(\.[0-9]*)?|\.[0-9]+)([Ee](\+|-)?[0-9]+)?
+   *
+   * Such a value can always be converted by Double.parseDouble().
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isReal(String value) {
+    return isReal(value, true, false);
+  }
+
+  /**
+   * Checks a real number, with or without an exponent.
+   *
+   * @param value The value.
+   * @param allowExponent Whether the value may have an exponent.
+   * @param requireExponent Whether the value must have an exponent.
+   * @return true if the value is valid.
+   */
+  static boolean isReal(String value, boolean allowExponent, boolean requireExponent) {
+    int length = value.length();
+    int i = 0;
+    if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+      i++;
+    }
+    int start = i;
+    i = skipDigits(value, i, length);
+    int integerDigits = i - start;
+    int fractionDigits = 0;
+    if (i < length && value.charAt(i) == '.') {
+      start = ++i;
+      i = skipDigits(value, i, length);
+      fractionDigits = i - start;
+    }
+    if (integerDigits == 0 && fractionDigits == 0) {
+      return false;
+    }
+    if (i < length && allowExponent && (value.charAt(i) == 'e' || value.charAt(i) == 'E')) {
+      i++;
+      if (i < length && (value.charAt(i) == '+' || value.charAt(i) == '-')) {
+        i++;
+      }
+      start = i;
+      i = skipDigits(value, i, length);
+      if (i == start) {
+        return false;
+      }
+    } else if (requireExponent) {
+      return false;
+    }
+    return i == length;
+  }
+
+  /**
+   * Checks a number in a given radix, such as an ASCII_Numeric_Base16: [0-9a-fA-F]{1,255}
+   *
+   * Such a value can always be converted by new BigInteger(value, radix).
+   *
+   * @param value The value.
+   * @param radix The radix, 2, 8 or 16.
+   * @param minLength The minimum number of digits.
+   * @param maxLength The maximum number of digits.
+   * @return true if the value is valid.
+   */
+  static boolean isDigits(String value, int radix, int minLength, int maxLength) {
+    int length = value.length();
+    if (length < minLength || length > maxLength) {
+      return false;
+    }
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      int digit;
+      if (c >= '0' && c <= '9') {
+        digit = c - '0';
+      } else if (c >= 'a' && c <= 'f') {
+        digit = c - 'a' + 10;
+      } else if (c >= 'A' && c <= 'F') {
+        digit = c - 'A' + 10;
+      } else {
+        return false;
+      }
+      if (digit >= radix) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks an ASCII_LID: urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isLid(String value) {
+    return isLid(value, value.length());
+  }
+
+  /**
+   * Checks an ASCII_LIDVID: urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+::[1-9][0-9]*\.[0-9]+
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isLidVid(String value) {
+    // The version holds no colon, so it follows the last double colon.
+    int separator = value.lastIndexOf("::");
+    return separator != -1 && isLid(value, separator)
+        && isVersion(value, separator + 2, value.length(), 1);
+  }
+
+  /**
+   * Checks an ASCII_VID: [1-9][0-9]*\.[0-9]+(\.[0-9]+)?(\.[0-9]+)?
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isVid(String value) {
+    return isVersion(value, 0, value.length(), 3);
+  }
+
+  /**
+   * Checks an ASCII_DOI: 10\.\S+/\S+
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isDoi(String value) {
+    int length = value.length();
+    if (!value.startsWith("10.")) {
+      return false;
+    }
+    boolean slash = false;
+    for (int i = 3; i < length; i++) {
+      char c = value.charAt(i);
+      if (isWhitespace(c)) {
+        return false;
+      }
+      // The slash needs a character on each side.
+      if (c == '/' && i > 3 && i < length - 1) {
+        slash = true;
+      }
+    }
+    return slash;
+  }
+
+  /**
+   * Checks an ASCII_BibCode: \d{4}[A-Za-z\d\.\&]{5}[A-Za-z\d\.]{9}[A-Z]
+   *
+   * @param value The value.
+   * @return true if the value is valid.
+   */
+  static boolean isBibCode(String value) {
+    if (value.length() != 19) {
+      return false;
+    }
+    for (int i = 0; i < 19; i++) {
+      char c = value.charAt(i);
+      boolean valid;
+      if (i < 4) {
+        valid = isDigit(c);
+      } else if (i < 9) {
+        valid = isLetterOrDigit(c) || c == '.' || c == '&';
+      } else if (i < 18) {
+        valid = isLetterOrDigit(c) || c == '.';
+      } else {
+        valid = c >= 'A' && c <= 'Z';
+      }
+      if (!valid) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks the LID part of a value: urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+
+   *
+   * @param value The value.
+   * @param end Where the LID ends in the value.
+   * @return true if the LID is valid.
+   */
+  private static boolean isLid(String value, int end) {
+    if (end < 4 || !value.startsWith("urn:")) {
+      return false;
+    }
+    int i = 4;
+    for (int part = 0; part < 2; part++) {
+      int start = i;
+      while (i < end && value.charAt(i) >= 'a' && value.charAt(i) <= 'z') {
+        i++;
+      }
+      if (i == start || i == end || value.charAt(i) != ':') {
+        return false;
+      }
+      i++;
+    }
+    if (i == end) {
+      return false;
+    }
+    // A colon may only follow one of the other characters.
+    boolean colonAllowed = false;
+    for (; i < end; i++) {
+      char c = value.charAt(i);
+      if ((c >= 'a' && c <= 'z') || isDigit(c) || c == '-' || c == '.' || c == '_') {
+        colonAllowed = true;
+      } else if (c == ':' && colonAllowed) {
+        colonAllowed = false;
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Checks a version: [1-9][0-9]* followed by 1 to maxParts of \.[0-9]+
+   *
+   * @param value The value.
+   * @param start Where the version starts in the value.
+   * @param end Where the version ends in the value.
+   * @param maxParts The maximum number of parts after the major version.
+   * @return true if the version is valid.
+   */
+  private static boolean isVersion(String value, int start, int end, int maxParts) {
+    if (start >= end || value.charAt(start) < '1' || value.charAt(start) > '9') {
+      return false;
+    }
+    int i = skipDigits(value, start + 1, end);
+    int parts = 0;
+    while (i < end) {
+      if (value.charAt(i) != '.' || ++parts > maxParts) {
+        return false;
+      }
+      int partStart = ++i;
+      i = skipDigits(value, i, end);
+      if (i == partStart) {
+        return false;
+      }
+    }
+    return parts > 0;
+  }
+
+  private static int skipDigits(String value, int i, int end) {
+    while (i < end && isDigit(value.charAt(i))) {
+      i++;
+    }
+    return i;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+
+  private static boolean isLetterOrDigit(char c) {
+    return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || isDigit(c);
+  }
+
+  /**
+   * @return true for the white spaces of the regular expressions: [ \t\n\x0B\f\r]
+   */
+  private static boolean isWhitespace(char c) {
+    return c == ' ' || c == '\t' || c == '\n' || c == '\u000B' || c == '\f' || c == '\r';
+  }
+}
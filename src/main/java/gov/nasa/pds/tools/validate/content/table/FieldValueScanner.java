@@ -0,0 +1,108 @@
+// Copyright 2006-2019, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.content.table;
+
+/**
+ * Scans a field value once to find what the FieldValueValidator checks before the type of the
+ * value: the line breaks, the enclosing double quotes, the double quotes inside them and the
+ * bounds of the value without its quotes and surrounding white space.
+ *
+ * A scanner is reused for every field of every record, so it is not thread safe.
+ */
+final class FieldValueScanner {
+  private String value;
+  private boolean lineBreak;
+  private boolean enclosedByQuotes;
+  private boolean innerQuote;
+  private int start;
+  private int end;
+  private int trimmedStart;
+  private int trimmedEnd;
+
+  /**
+   * Scans a field value.
+   *
+   * @param value The field value as read from the record.
+   */
+  void scan(String value) {
+    int length = value.length();
+    this.value = value;
+    this.lineBreak = false;
+    this.innerQuote = false;
+    this.enclosedByQuotes =
+        length >= 2 && value.charAt(0) == '"' && value.charAt(length - 1) == '"';
+    this.start = enclosedByQuotes ? 1 : 0;
+    this.end = enclosedByQuotes ? length - 1 : length;
+    int firstNonBlank = -1;
+    int lastNonBlank = -1;
+    for (int i = 0; i < length; i++) {
+      char c = value.charAt(i);
+      if (c == '\r' || c == '\n') {
+        lineBreak = true;
+      }
+      if (i < start || i >= end) {
+        continue;
+      }
+      if (c == '"') {
+        innerQuote = true;
+      }
+      // The same white space as String.trim().
+      if (c > ' ') {
+        if (firstNonBlank == -1) {
+          firstNonBlank = i;
+        }
+        lastNonBlank = i;
+      }
+    }
+    this.trimmedStart = firstNonBlank == -1 ? start : firstNonBlank;
+    this.trimmedEnd = firstNonBlank == -1 ? start : lastNonBlank + 1;
+  }
+
+  /**
+   * @return true if the value holds a carriage return or a line feed.
+   */
+  boolean hasLineBreak() {
+    return lineBreak;
+  }
+
+  /**
+   * @return true if the value starts and ends with a double quote.
+   */
+  boolean isEnclosedByQuotes() {
+    return enclosedByQuotes;
+  }
+
+  /**
+   * @return true if the value holds a double quote between its enclosing double quotes, or
+   *         anywhere if it is not enclosed by them.
+   */
+  boolean hasInnerQuote() {
+    return innerQuote;
+  }
+
+  /**
+   * @return the value without its enclosing double quotes.
+   */
+  String getValue() {
+    return start == 0 && end == value.length() ? value : value.substring(start, end);
+  }
+
+  /**
+   * @return the value without its enclosing double quotes and surrounding white space.
+   */
+  String getTrimmedValue() {
+    return trimmedStart == 0 && trimmedEnd == value.length() ? value
+        : value.substring(trimmedStart, trimmedEnd);
+  }
+}
@@ -21,13 +21,11 @@ import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
-import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import org.apache.commons.io.FilenameUtils;
 import org.apache.commons.lang3.math.NumberUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.google.common.primitives.UnsignedLong;
 import gov.nasa.arc.pds.xml.generated.SpecialConstants;
 import gov.nasa.pds.label.object.FieldDescription;
 import gov.nasa.pds.label.object.FieldType;
@@ -35,7 +33,6 @@ import gov.nasa.pds.label.object.RecordLocation;
 import gov.nasa.pds.label.object.TableRecord;
 import gov.nasa.pds.objectAccess.DelimitedTableRecord;
 import gov.nasa.pds.objectAccess.FixedTableRecord;
-import gov.nasa.pds.objectAccess.InvalidTableException;
 import gov.nasa.pds.tools.label.ExceptionType;
 import gov.nasa.pds.tools.util.FileService;
 import gov.nasa.pds.tools.validate.ProblemListener;
@@ -78,29 +75,25 @@ public class FieldValueValidator {
 
   private RuleContext ruleContext;
 
-  private static final Pattern formatPattern =
-      Pattern.compile("%([\\+,-])?([0-9]+)(\\.([0-9]+))?([doxfeEs])");
   private static final Pattern leadingWhiteSpacePattern = Pattern.compile("\\s+.*");
   private static final Pattern trailingWhiteSpacePattern = Pattern.compile(".*\\s+");
-  private static final Pattern asciiBibCodePattern =
-      Pattern.compile("\\d{4}[A-Za-z\\d\\.\\&]{5}[A-Za-z\\d\\.]{9}[A-Z]");
-  private static final Pattern asciiIntegerPattern = Pattern.compile("[+-]?\\d+");
-  private static final Pattern asciiNonNegativeIntPattern = Pattern.compile("[+]?\\d+");
-  private static final Pattern asciiReal =
-      Pattern.compile("(\\+|-)?([0-9]+(\\.[0-9]*)?|\\.[0-9]+)([Ee](\\+|-)?[0-9]+)?");
-  private static final Pattern asciiNumericBase2Pattern = Pattern.compile("[0-1]{1,255}");
-  private static final Pattern asciiNumericBase8Pattern = Pattern.compile("[0-7]{1,255}");
-  private static final Pattern asciiNumericBase16Pattern = Pattern.compile("[0-9a-fA-F]{1,255}");
-  private static final Pattern asciiMd5ChecksumPattern = Pattern.compile("[0-9a-fA-F]{32}");
-  private static final Pattern asciiDoiPattern = Pattern.compile("10\\.\\S+/\\S+");
-  private static final Pattern asciiLidPattern =
-      Pattern.compile("urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+");
-  private static final Pattern asciiLidVidPattern =
-      Pattern.compile("urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+::[1-9][0-9]*\\.[0-9]+");
-  private static final Pattern asciiLidVidLidPattern =
-      Pattern.compile("urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+::[1-9][0-9]*\\.[0-9]+");
-  private static final Pattern asciiVidPattern =
-      Pattern.compile("[1-9][0-9]*\\.[0-9]+(\\.[0-9]+)?(\\.[0-9]+)?");
+  // The patterns of the types checked by FieldValueLexer, as shown in the messages.
+  private static final String asciiBibCodePattern =
+      "\\d{4}[A-Za-z\\d\\.\\&]{5}[A-Za-z\\d\\.]{9}[A-Z]";
+  private static final String asciiIntegerPattern = "[+-]?\\d+";
+  private static final String asciiNonNegativeIntPattern = "[+]?\\d+";
+  private static final String asciiReal =
+      "(\\+|-)?([0-9]+(\\.[0-9]*)?|\\.[0-9]+)([Ee](\\+|-)?[0-9]+)?";
+  private static final String asciiNumericBase2Pattern = "[0-1]{1,255}";
+  private static final String asciiNumericBase8Pattern = "[0-7]{1,255}";
+  private static final String asciiNumericBase16Pattern = "[0-9a-fA-F]{1,255}";
+  private static final String asciiMd5ChecksumPattern = "[0-9a-fA-F]{32}";
+  private static final String asciiDoiPattern = "10\\.\\S+/\\S+";
+  private static final String asciiLidPattern = "urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+";
+  private static final String asciiLidVidPattern =
+      "urn:[a-z]+:[a-z]+:([0-9a-z-._]:?)+::[1-9][0-9]*\\.[0-9]+";
+  private static final String asciiVidPattern = "[1-9][0-9]*\\.[0-9]+(\\.[0-9]+)?(\\.[0-9]+)?";
+
   private static final Pattern asciiDirPathNamePattern =
       Pattern.compile("[A-Za-z0-9][A-Za-z0-9_-]*[A-Za-z0-9]");
 
@@ -115,6 +108,12 @@ public class FieldValueValidator {
 
   private int dataObjectIndex = -1;
 
+  /** Scans the field values before their types are checked. */
+  private final FieldValueScanner scanner = new FieldValueScanner();
+
+  /** The checks of the fields of the table that do not depend on the values. */
+  private FieldValidationPlan plan = null;
+
   /**
    * Constructor.
    * 
@@ -152,37 +151,31 @@ public class FieldValueValidator {
 
     LOG.debug("validate:fields.length {}", fields.length);
 
-    // Flag to store whether field is a UNSIGNEDBITSTRING or not. Because bit fields
-    // cannot be used to check for offset as normally as other kinds of fields, we
-    // must first know
-    // if fieldIsBitStringFlag is false before checking for offset.
-    // The reason is the bit field can have the same offset as the next field
-    // because the fields are in bits.
+    // The checks that do not depend on the values are worked out once per table.
+    if (plan == null || !plan.isFor(fields)) {
+      plan = new FieldValidationPlan(fields);
+    }
 
-    int actualFieldNumber = 1;
     for (int i = 0; i < fields.length; i++) {
-      boolean fieldIsBitStringFlag = false; // Flag to store whether field is a UNSIGNEDBITSTRING or
-                                            // SIGNEDBITSTRING
+      FieldValidationPlan.Field field = plan.getField(i);
       String value = "dummy_value"; // Set to a dummy value to allow inspection when the value
                                     // changed to a
                                     // legitimate value.
 
       try {
-        // Use the enum types defined in FieldType class.
-        if (fields[i].getType() == FieldType.SIGNEDBITSTRING
-            || fields[i].getType() == FieldType.UNSIGNEDBITSTRING) {
-          fieldIsBitStringFlag = true;
-        }
         value = record.getString(i + 1);
         LOG.debug("validate: field #{}, value [{}]", i, value);
 
+        // The line breaks, quotes and white space of the value are found in a single scan.
+        scanner.scan(value);
+
         // https://github.com/NASA-PDS/validate/issues/357 Validate allows CRLF within a
         // Table_Delimited field
         // For DelimitedTableRecord, we make an additional check to make sure it does
         // not contain a carriage return or linefeed.
         if (record instanceof DelimitedTableRecord) {
           // Check if value contains a carriage return or line feed.
-          if (value.contains("\r") || value.contains("\n")) {
+          if (scanner.hasLineBreak()) {
             LOG.error(
                 "validate:Field value cannot contain a carriage return or linefeed for Table_Delimited: field {}, value [{}]",
                 i + 1, value);
@@ -198,112 +191,53 @@ public class FieldValueValidator {
         // New logic to check if the field starts with a double quote and then also
         // contain a double quote inside.
 
-        boolean fieldIsEnclosedByQuotes = false;
         // Remove the leading and trailing quotes from value if the field is enclosed by
         // it.
+        boolean fieldIsEnclosedByQuotes = scanner.isEnclosedByQuotes();
+        LOG.debug("Value paren check. enclosed: {}", fieldIsEnclosedByQuotes);
+        // Set the value as if it never had starting and ending quotes for this point on.
+        value = scanner.getValue();
 
-        LOG.debug("Value paren check. startswith: {}, endswith: {} ", value.startsWith("\""),
-            value.endsWith("\""));
-        if (value.startsWith("\"") && value.endsWith("\"")) {
-          fieldIsEnclosedByQuotes = true;
-          String preSanitizedValue = value;
-          value = value.substring(1, value.length() - 1); // Set the value as if it never had
-                                                          // starting and
-                                                          // ending quotes for this point on.
-          LOG.debug("validate:VALUE_SET_TO_SANITIZED:preSanitizedValue,value [{}],[{}]",
-              preSanitizedValue, value);
-        }
+        // The value is trimmed once here, from the bounds found by the scan.
+        String trimmedValue = scanner.getTrimmedValue();
 
-        if (fieldIsEnclosedByQuotes && value.contains("\"")) {
-          String message = "The field value '" + value.trim()
+        if (fieldIsEnclosedByQuotes && scanner.hasInnerQuote()) {
+          String message = "The field value '" + trimmedValue
               + "' that starts with double quote should not contain double quote(s)";
           addTableProblem(ExceptionType.ERROR, ProblemType.INVALID_FIELD_VALUE, message,
               record.getLocation(), (i + 1));
         }
 
-        // issue_209: fix for incorrect field number
-        if (i < (fields.length - 1)) {
-          if (fields[i + 1].getOffset() != fields[i].getOffset()) {
-            actualFieldNumber++;
-          }
-        }
-        // Adding debug could be time consuming for large files. Uncommenting should be
-        // done by developer only for debugging.
-
         // Check that the length of the field value does not exceed the
         // maximum field length, if specified
-        if (fields[i].getMaxLength() != -1) {
-          if (value.trim().length() > fields[i].getMaxLength()) {
-            String message = "The length of the value '" + value.trim()
-                + "' exceeds the defined max field length (expected max " + fields[i].getMaxLength()
-                + ", got " + value.trim().length() + ")";
+        if (field.maxLength != -1) {
+          if (trimmedValue.length() > field.maxLength) {
+            String message = "The length of the value '" + trimmedValue
+                + "' exceeds the defined max field length (expected max " + field.maxLength
+                + ", got " + trimmedValue.length() + ")";
             addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_TOO_LONG, message,
                 record.getLocation(), (i + 1));
           }
         }
 
+        // issue_56: Validate that fields do not overlap based upon field length
+        // definitions. The overlaps were found when the plan was made.
         // issue_209: when checkFieldFormat=false, it's Table_Binary
-        if (checkFieldFormat) {
-          // issue_56: Validate that Table_Character fields do not overlap based upon
-          // field length definitions
-          // Better line
-          // if (((i+1)<fields.length) && (fields[i].getOffset()+fields[i].getLength() >
-          // fields[i+1].getOffset()))
-          // The next line is hard to read. Perhaps the parenthesis should surround the
-          // 2nd > comparison.
-          if (((i + 1) < fields.length)
-              && (fields[i].getOffset() + fields[i].getLength()) > fields[i + 1].getOffset()) {
-            int currentFieldEndsAt = fields[i].getOffset() + fields[i].getLength();
-            int nextOffsetShouldBe = fields[i].getOffset() + fields[i].getLength() + 1;
-            String message = "This field overlaps the next field. Current field ends at "
-                + currentFieldEndsAt + ". Next field starts at " + fields[i + 1].getOffset()
-                + " but should be at least at " + nextOffsetShouldBe;
-            LOG.error("{}", "MESSAGE_1:" + message);
-            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP, message,
-                record.getLocation(), (i + 1));
-          }
+        if (checkFieldFormat && field.formatOverlapMessage != null) {
+          LOG.error("{}", "MESSAGE_1:" + field.formatOverlapMessage);
+          addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP,
+              field.formatOverlapMessage, record.getLocation(), (i + 1));
         }
-
-        // issue_56: Validate that fields do not overlap based upon field length
-        // definitions
-        if ((i + 1) < fields.length) {
-          // If stopBit is set and we aren't at the end of the field,
-          // we should check for overlapping bit fields
-          if (fields[i].getStopBit() > 0 && fields[i].getStopBit() != fields[i].getLength() * 8) {
-
-            // first check if the stop bit is longer than the field length
-            if (fields[i + 1].getStartBit() > 1) { // only check overlap is next start bit
-              // Next, if next startBit > -1 we know we have another bit field to check
-              // Let's check the bit fields aren't overlapping
-              if (fields[i].getStopBit() >= fields[i + 1].getStartBit()) {
-                String message = "The bit field overlaps the next field. "
-                    + "Current stop_bit_location: " + (fields[i].getStopBit() + 1)
-                    + ". Next start_bit_location: " + (fields[i + 1].getStartBit() + 1);
-                addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP, message,
-                    record.getLocation(), actualFieldNumber);
-                // (i+1));
-                fatalError = true;
-              }
-            }
-            // Otherwise, we are just reading a normal Field_Character or Field_Binary
-          } else if ((fields[i].getOffset() > fields[i + 1].getOffset()) || (!fieldIsBitStringFlag
-              && ((fields[i].getOffset() + fields[i].getLength()) > fields[i + 1].getOffset()))) {
-            int currentFieldEndsAt = fields[i].getOffset() + fields[i].getLength();
-            int nextOffsetShouldBe = fields[i].getOffset() + fields[i].getLength() + 1;
-            String message = "This field overlaps the next field. Current field ends at "
-                // + (fields[i].getOffset()+fields[i].getLength()+1)
-                + currentFieldEndsAt + ". Next field starts at " + (fields[i + 1].getOffset() + 1)
-                + " but should be at least at " + nextOffsetShouldBe;
-            LOG.error("{}", "MESSAGE_2:" + message);
-            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP, message,
-                record.getLocation(), (i + 1));
-            fatalError = true;
+        if (field.overlapMessage != null) {
+          if (field.bitFieldOverlap) {
+            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP,
+                field.overlapMessage, record.getLocation(), field.overlapFieldNumber);
+          } else {
+            LOG.error("{}", "MESSAGE_2:" + field.overlapMessage);
+            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OVERLAP,
+                field.overlapMessage, record.getLocation(), (i + 1));
           }
-          // Adding debug could be time consuming for large files. Uncommenting should be
-          // done by developer only for debugging.
-          // else {
-          // LOG.debug("validate:column valid i {}",i);
-          // }
+          fatalError = true;
         }
 
         // Per the DSV standard in section 4C.1 of the Standards Reference,
@@ -316,22 +250,26 @@ public class FieldValueValidator {
         // Because DSV can have quotes around the value, the value should have been
         // stripped of any double quotes above.
 
-        if (value.isEmpty() || (value.trim().isEmpty() && record instanceof FixedTableRecord)) {
+        if (value.isEmpty() || (trimmedValue.isEmpty() && record instanceof FixedTableRecord)) {
           LOG.debug("VALUE_IS_EMPTY_OR_VALUE_TRIM_IS_EMPTY_AND_FIXED_TABLE_RECORD_IS_OK [{}][{}]",
               value, record.getClass().getName());
-          addTableProblem(ExceptionType.DEBUG, ProblemType.BLANK_FIELD_VALUE, "Field is blank.",
-              record.getLocation(), (i + 1));
-        } else if (!value.trim().isEmpty()) { // Check that the value of the field matches the
-                                              // defined data type
-          try {
-            checkType(value.trim(), fields[i].getType());
-            addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_DATA_TYPE_MATCH,
-                "Value '" + value.trim() + "' matches its data type '"
-                    + fields[i].getType().getXMLType() + "'.",
+          if (listener.isReported(ExceptionType.DEBUG)) {
+            addTableProblem(ExceptionType.DEBUG, ProblemType.BLANK_FIELD_VALUE, "Field is blank.",
                 record.getLocation(), (i + 1));
-          } catch (InvalidTableException e) {
-            String message = "Value does not match its data type '"
-                + fields[i].getType().getXMLType() + "': " + e.getMessage();
+          }
+        } else if (!trimmedValue.isEmpty()) { // Check that the value of the field matches the
+                                              // defined data type
+          String typeError = checkType(trimmedValue, field);
+          if (typeError == null) {
+            if (listener.isReported(ExceptionType.DEBUG)) {
+              addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_DATA_TYPE_MATCH,
+                  "Value '" + trimmedValue + "' matches its data type '"
+                      + field.type.getXMLType() + "'.",
+                  record.getLocation(), (i + 1));
+            }
+          } else {
+            String message = "Value does not match its data type '" + field.type.getXMLType()
+                + "': " + typeError;
             LOG.debug("recordLocation.getLabel: " + record.getLocation().getLabel());
             addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_DATA_TYPE_MISMATCH,
                 message, record.getLocation(), (i + 1));
@@ -341,28 +279,28 @@ public class FieldValueValidator {
           if (checkFieldFormat) {
             // Due to CCB-214, the tool should validate against the
             // validation_format field for Character Tables.
-            if (record instanceof FixedTableRecord && !fields[i].getValidationFormat().isEmpty()) {
-              checkFormat(value, fields[i].getValidationFormat(), i + 1, record.getLocation());
+            if (record instanceof FixedTableRecord && field.validationFormat != null) {
+              checkFormat(value, field.validationFormat, i + 1, record.getLocation());
             }
-            if (record instanceof DelimitedTableRecord && !fields[i].getFieldFormat().isEmpty()) {
-              checkFormat(value, fields[i].getFieldFormat(), i + 1, record.getLocation());
+            if (record instanceof DelimitedTableRecord && field.fieldFormat != null) {
+              checkFormat(value, field.fieldFormat, i + 1, record.getLocation());
             }
           }
           // Check that the field value is within the defined min/max values
-          if (fields[i].getMinimum() != null || fields[i].getMaximum() != null) {
-            checkSpecialMinMax(value.trim(), fields[i].getSpecialConstants(),
-                fields[i].getMinimum(), fields[i].getMaximum(), i + 1, record.getLocation(),
-                fields[i].getType());
+          if (field.minimum != null || field.maximum != null) {
+            checkSpecialMinMax(trimmedValue, field.specialConstants, field.minimum, field.maximum,
+                i + 1, record.getLocation(), field.type);
           }
         } else {
-          try {
-
-            checkType(value, fields[i].getType());
-            addTableProblem(ExceptionType.DEBUG, ProblemType.BLANK_FIELD_VALUE, "Field is blank.",
-                record.getLocation(), (i + 1));
-          } catch (Exception e) {
-            String message = "Value does not match its data type '"
-                + fields[i].getType().getXMLType() + "': " + e.getMessage();
+          String typeError = checkType(value, field);
+          if (typeError == null) {
+            if (listener.isReported(ExceptionType.DEBUG)) {
+              addTableProblem(ExceptionType.DEBUG, ProblemType.BLANK_FIELD_VALUE,
+                  "Field is blank.", record.getLocation(), (i + 1));
+            }
+          } else {
+            String message = "Value does not match its data type '" + field.type.getXMLType()
+                + "': " + typeError;
             addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_DATA_TYPE_MISMATCH,
                 message, record.getLocation(), (i + 1));
           }
@@ -480,7 +418,7 @@ public class FieldValueValidator {
                 + "' that is less than the defined minimum value '" + minimum.toString() + "'. ";
             addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OUT_OF_MIN_MAX_RANGE,
                 message, recordLocation, fieldIndex);
-          } else {
+          } else if (listener.isReported(ExceptionType.DEBUG)) {
             String message = "Field has a value '" + value
                 + "' that is greater than the defined minimum value '" + minimum.toString() + "'. ";
             addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_IN_MIN_MAX_RANGE, message,
@@ -493,14 +431,14 @@ public class FieldValueValidator {
                 + "' that is greater than the defined maximum value '" + maximum.toString() + "'. ";
             addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_OUT_OF_MIN_MAX_RANGE,
                 message, recordLocation, fieldIndex);
-          } else {
+          } else if (listener.isReported(ExceptionType.DEBUG)) {
             String message = "Field has a value '" + value
                 + "' that is less than the defined maximum value '" + maximum.toString() + "'. ";
             addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_IN_MIN_MAX_RANGE, message,
                 recordLocation, fieldIndex);
           }
         }
-      } else {
+      } else if (listener.isReported(ExceptionType.INFO)) {
         addTableProblem(ExceptionType.INFO, ProblemType.FIELD_VALUE_IS_SPECIAL_CONSTANT,
             "Value is a special constant defined in the label: " + value.toString(), recordLocation,
             fieldIndex);
@@ -516,19 +454,21 @@ public class FieldValueValidator {
   }
 
   /**
-   * Checks that the given value matches its defined field type.
+   * Checks that the given value matches its defined field type. The reason a value is invalid is
+   * returned rather than thrown, as whole columns of a table may be invalid.
    * 
    * @param value The field value to validate.
-   * @param type The field type to check against.
-   * 
-   * @throws Exception If the value was found to be invalid.
+   * @param field The plan of the field to check against.
+   * @return The reason the value is invalid, or null if it is valid.
    */
-  private void checkType(String value, FieldType type) throws InvalidTableException {
+  private String checkType(String value, FieldValidationPlan.Field field) {
+    FieldType type = field.type;
+    // The type whose check applies was found when the plan was made, so the types are compared
+    // by reference rather than by name.
+    FieldType checkedType = field.checkedType;
     // File and directory naming rules are checked in the
     // FileAndDirectoryNamingRule class
 
-    LOG.debug("checkType:value,type:afor [{}],[{}]", value, type);
-
     // https://github.com/NASA-PDS/validate/issues/345 validate incorrectly flags
     // integers bounded by "" in a .csv
     // Remove leading or trailing quotes if there are any.
@@ -539,299 +479,257 @@ public class FieldValueValidator {
     // What is in value should have been removed of any leading or trailing quotes
     // already no need to do it again.
 
-    LOG.debug("checkType:value,type:after [{}],[{}]", value, type);
+    LOG.debug("checkType:value,type [{}],[{}]", value, type);
 
     if (INF_NAN_VALUES.contains(value)) {
-      throw new InvalidTableException(value + " is not allowed");
+      return value + " is not allowed";
     }
-    if (FieldType.ASCII_INTEGER.getXMLType().equals(type.getXMLType())) {
-      if (!asciiIntegerPattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiIntegerPattern.toString() + "'");
-      }
-      try {
-        Long.parseLong(value);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to long: " + value);
-      }
-    } else if (FieldType.ASCII_NONNEGATIVE_INTEGER.getXMLType().equals(type.getXMLType())) {
-      if (!asciiNonNegativeIntPattern.matcher(value).matches()) {
-        throw new InvalidTableException("'" + value + "' does not match the pattern '"
-            + asciiNonNegativeIntPattern.toString() + "'");
-      }
-      try {
-        UnsignedLong.valueOf(value);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to an unsigned long: " + value);
-      }
-    } else if (FieldType.ASCII_REAL.getXMLType().equals(type.getXMLType())) {
-      if (!asciiReal.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiReal.toString() + "'");
-      }
-      try {
-        Double.parseDouble(value);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to a double: " + value);
-      }
-    } else if (FieldType.ASCII_NUMERIC_BASE2.getXMLType().equals(type.getXMLType())) {
-      if (!asciiNumericBase2Pattern.matcher(value).matches()) {
-        throw new InvalidTableException("'" + value + "' does not match the pattern '"
-            + asciiNumericBase2Pattern.toString() + "'");
-      }
-      try {
-        new BigInteger(value, 2);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to a base-2 integer: " + value);
-      }
-    } else if (FieldType.ASCII_NUMERIC_BASE8.getXMLType().equals(type.getXMLType())) {
-      if (!asciiNumericBase8Pattern.matcher(value).matches()) {
-        throw new InvalidTableException("'" + value + "' does not match the pattern '"
-            + asciiNumericBase8Pattern.toString() + "'");
-      }
-      try {
-        new BigInteger(value, 8);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to a base-8 integer: " + value);
-      }
-    } else if (FieldType.ASCII_NUMERIC_BASE16.getXMLType().equals(type.getXMLType())) {
-      if (!asciiNumericBase16Pattern.matcher(value).matches()) {
-        throw new InvalidTableException("'" + value + "' does not match the pattern '"
-            + asciiNumericBase16Pattern.toString() + "'");
-      }
-      try {
-        new BigInteger(value, 16);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to a base-16 integer: " + value);
-      }
-    } else if (FieldType.ASCII_MD5_CHECKSUM.getXMLType().equals(type.getXMLType())) {
-
-      if (!asciiMd5ChecksumPattern.matcher(value).matches()) {
-        throw new InvalidTableException("'" + value + "' does not match the pattern '"
-            + asciiMd5ChecksumPattern.toString() + "'");
-      }
-      try {
-        new BigInteger(value, 16);
-      } catch (NumberFormatException e) {
-        throw new InvalidTableException("Could not convert to a base-16 integer: " + value);
-      }
-    } else if (FieldType.ASCII_ANYURI.getXMLType().equals(type.getXMLType())) {
-      try {
-        URI uri = new URI(value);
-      } catch (URISyntaxException e) {
-        throw new InvalidTableException(e.getMessage());
-      }
-    } else if (FieldType.ASCII_DOI.getXMLType().equals(type.getXMLType())) {
-      if (!asciiDoiPattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiDoiPattern.toString() + "'");
-      }
-    } else if (FieldType.ASCII_LID.getXMLType().equals(type.getXMLType())) {
-      if (!asciiLidPattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiLidPattern.toString() + "'");
-      }
-    } else if (FieldType.ASCII_LIDVID.getXMLType().equals(type.getXMLType())) {
-      if (!asciiLidVidPattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiLidVidPattern.toString() + "'");
-      }
-    } else if (FieldType.ASCII_LIDVID_LID.getXMLType().equals(type.getXMLType())) {
-      // Can accept a LID or LIDVID?
-      if (!asciiLidVidLidPattern.matcher(value).matches()) {
-        if (!asciiLidPattern.matcher(value).matches()) {
-          throw new InvalidTableException("'" + value + "' does not match the patterns '"
-              + asciiLidVidPattern.toString() + "' or '" + asciiLidPattern.toString() + "'");
+    if (checkedType == null) {
+      return null;
+    }
+    // The numeric and identifier types are checked by single pass lexers, which check both the
+    // syntax and the range of a value.
+    switch (checkedType) {
+      case ASCII_INTEGER:
+        switch (FieldValueLexer.lexInteger(value)) {
+          case BAD_SYNTAX:
+            return notMatching(value, asciiIntegerPattern);
+          case OUT_OF_RANGE:
+            return "Could not convert to long: " + value;
+          default:
+            return null;
         }
-      }
-    } else if (FieldType.ASCII_VID.getXMLType().equals(type.getXMLType())) {
-      if (!asciiVidPattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiVidPattern.toString() + "'");
-      }
-    } else if (FieldType.ASCII_STRING.getXMLType().equals(type.getXMLType())) {
-      StringBuffer buffer = new StringBuffer(value);
-      for (int i = 0; i < buffer.length(); i++) {
-        if (buffer.charAt(i) > 127) {
-          if (value.length() > 100) {
-            value = value.substring(0, 100) + "...";
+      case ASCII_NONNEGATIVE_INTEGER:
+        switch (FieldValueLexer.lexUnsignedInteger(value)) {
+          case BAD_SYNTAX:
+            return notMatching(value, asciiNonNegativeIntPattern);
+          case OUT_OF_RANGE:
+            return "Could not convert to an unsigned long: " + value;
+          default:
+            return null;
+        }
+      case ASCII_REAL:
+        return FieldValueLexer.isReal(value) ? null : notMatching(value, asciiReal);
+      case ASCII_NUMERIC_BASE2:
+        return FieldValueLexer.isDigits(value, 2, 1, 255) ? null
+            : notMatching(value, asciiNumericBase2Pattern);
+      case ASCII_NUMERIC_BASE8:
+        return FieldValueLexer.isDigits(value, 8, 1, 255) ? null
+            : notMatching(value, asciiNumericBase8Pattern);
+      case ASCII_NUMERIC_BASE16:
+        return FieldValueLexer.isDigits(value, 16, 1, 255) ? null
+            : notMatching(value, asciiNumericBase16Pattern);
+      case ASCII_MD5_CHECKSUM:
+        return FieldValueLexer.isDigits(value, 16, 32, 32) ? null
+            : notMatching(value, asciiMd5ChecksumPattern);
+      case ASCII_ANYURI:
+        try {
+          URI uri = new URI(value);
+        } catch (URISyntaxException e) {
+          return e.getMessage();
+        }
+        return null;
+      case ASCII_DOI:
+        return FieldValueLexer.isDoi(value) ? null : notMatching(value, asciiDoiPattern);
+      case ASCII_LID:
+        return FieldValueLexer.isLid(value) ? null : notMatching(value, asciiLidPattern);
+      case ASCII_LIDVID:
+        return FieldValueLexer.isLidVid(value) ? null : notMatching(value, asciiLidVidPattern);
+      case ASCII_LIDVID_LID:
+        // Can accept a LID or LIDVID?
+        if (!FieldValueLexer.isLidVid(value) && !FieldValueLexer.isLid(value)) {
+          return "'" + value + "' does not match the patterns '" + asciiLidVidPattern + "' or '"
+              + asciiLidPattern + "'";
+        }
+        return null;
+      case ASCII_VID:
+        return FieldValueLexer.isVid(value) ? null : notMatching(value, asciiVidPattern);
+      case ASCII_STRING:
+        for (int i = 0; i < value.length(); i++) {
+          char c = value.charAt(i);
+          if (c > 127) {
+            return "'" + abbreviate(value) + "' contains non-ASCII character: " + c;
           }
-          throw new InvalidTableException(
-              "'" + value + "' contains non-ASCII character: " + buffer.charAt(i));
         }
-      }
-    } else if (FieldType.UTF8_STRING.getXMLType().equals(type.getXMLType())) {
-      if (value.contains("\\s")) {
-        if (value.length() > 100) {
-          value = value.substring(0, 100) + "...";
+        return null;
+      case UTF8_STRING:
+        if (value.contains("\\s")) {
+          return "'" + abbreviate(value) + "' contains whitespace character(s)";
         }
-        throw new InvalidTableException("'" + value + "' contains whitespace character(s)");
-      }
-    } else if (FieldType.ASCII_DATE_DOY.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_DATE_TIME_DOY.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_DATE_TIME_DOY_UTC.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_DATE_TIME_YMD.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_DATE_TIME_YMD_UTC.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_DATE_YMD.getXMLType().equals(type.getXMLType())
-        || FieldType.ASCII_TIME.getXMLType().equals(type.getXMLType())) {
-      try {
-        if (!DateTimeValidator.isValid(type, value)) {
-          throw new Exception();
+        return null;
+      case ASCII_DATE_DOY:
+      case ASCII_DATE_TIME_DOY:
+      case ASCII_DATE_TIME_DOY_UTC:
+      case ASCII_DATE_TIME_YMD:
+      case ASCII_DATE_TIME_YMD_UTC:
+      case ASCII_DATE_YMD:
+      case ASCII_TIME:
+        boolean validDateTime = false;
+        try {
+          validDateTime = DateTimeValidator.isValid(type, value);
+        } catch (Exception e) {
+          // Reported below.
         }
-      } catch (Exception e) {
-        throw new InvalidTableException("Could not parse " + value + " using these patterns '"
-            + DATE_TIME_VALID_FORMATS.get(type.getXMLType()) + "'");
-      }
-    } else if (FieldType.ASCII_DIRECTORY_PATH_NAME.getXMLType().equals(type.getXMLType())) {
-      String[] dirs = value.split("/");
-      for (String dir : dirs) {
-        if (!asciiDirPathNamePattern.matcher(dir).matches()) {
-          throw new InvalidTableException(
-              dir + " does not match the pattern '" + asciiDirPathNamePattern.toString() + "'");
+        if (!validDateTime) {
+          return "Could not parse " + value + " using these patterns '"
+              + DATE_TIME_VALID_FORMATS.get(type.getXMLType()) + "'";
         }
-        if (dir.length() > 255) {
-          throw new InvalidTableException(dir + " is longer than 255 characters");
+        return null;
+      case ASCII_DIRECTORY_PATH_NAME:
+        for (String dir : value.split("/")) {
+          if (!asciiDirPathNamePattern.matcher(dir).matches()) {
+            return dir + " does not match the pattern '" + asciiDirPathNamePattern + "'";
+          }
+          if (dir.length() > 255) {
+            return dir + " is longer than 255 characters";
+          }
         }
-      }
-    } else if (FieldType.ASCII_FILE_NAME.getXMLType().equals(type.getXMLType())) {
-      if (!asciiFileNamePattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            value + " does not match the pattern '" + asciiFileNamePattern.toString() + "'");
-      }
-      if (value.length() > 255) {
-        throw new InvalidTableException(value + " is longer than 255 characters");
-      }
-    } else if (FieldType.ASCII_FILE_SPECIFICATION_NAME.getXMLType().equals(type.getXMLType())) {
-      String dir = FilenameUtils.getFullPath(value);
-      if (!dir.isEmpty()) {
-        if (dir.length() > 255) {
-          throw new InvalidTableException(
-              "The directory spec '" + dir + "' is longer than 255 characters");
+        return null;
+      case ASCII_FILE_NAME:
+        if (!asciiFileNamePattern.matcher(value).matches()) {
+          return value + " does not match the pattern '" + asciiFileNamePattern + "'";
         }
-        if (!dirPattern.matcher(dir).matches()) {
-          throw new InvalidTableException(
-              "The directory spec '" + dir + "' does not match the pattern '" + dirPattern + "'");
+        if (value.length() > 255) {
+          return value + " is longer than 255 characters";
         }
-      }
-      String name = FilenameUtils.getName(value);
-      if (name.isEmpty()) {
-        throw new InvalidTableException("No filename spec found in '" + value + "'.");
-      }
-      if (!asciiFileNamePattern.matcher(name).matches()) {
-        throw new InvalidTableException("The filename spec '" + name
-            + "' does not match the pattern '" + asciiFileNamePattern.toString() + "'");
-      }
-      if (name.length() > 255) {
-        throw new InvalidTableException(
-            "The filename spec '" + name + "' is longer than 255 characters");
-      }
-    } else if (FieldType.ASCII_BIBCODE.getXMLType().equals(type.getXMLType())) {
-      if (!asciiBibCodePattern.matcher(value).matches()) {
-        throw new InvalidTableException(
-            "'" + value + "' does not match the pattern '" + asciiBibCodePattern.toString() + "'");
-      }
+        return null;
+      case ASCII_FILE_SPECIFICATION_NAME:
+        String dir = FilenameUtils.getFullPath(value);
+        if (!dir.isEmpty()) {
+          if (dir.length() > 255) {
+            return "The directory spec '" + dir + "' is longer than 255 characters";
+          }
+          if (!dirPattern.matcher(dir).matches()) {
+            return "The directory spec '" + dir + "' does not match the pattern '" + dirPattern
+                + "'";
+          }
+        }
+        String name = FilenameUtils.getName(value);
+        if (name.isEmpty()) {
+          return "No filename spec found in '" + value + "'.";
+        }
+        if (!asciiFileNamePattern.matcher(name).matches()) {
+          return "The filename spec '" + name + "' does not match the pattern '"
+              + asciiFileNamePattern + "'";
+        }
+        if (name.length() > 255) {
+          return "The filename spec '" + name + "' is longer than 255 characters";
+        }
+        return null;
+      case ASCII_BIBCODE:
+        return FieldValueLexer.isBibCode(value) ? null : notMatching(value, asciiBibCodePattern);
+      default:
+        return null;
     }
   }
 
+  private static String notMatching(String value, String pattern) {
+    return "'" + value + "' does not match the pattern '" + pattern + "'";
+  }
+
+  /**
+   * @return the value cut to its first 100 characters, as shown in the messages.
+   */
+  private static String abbreviate(String value) {
+    return value.length() > 100 ? value.substring(0, 100) + "..." : value;
+  }
+
   /**
    * Check that the given value matches the defined field format.
    * 
    * @param value The value to check.
-   * @param format The defined field format.
+   * @param format The defined field format, parsed when the plan was made.
    * @param fieldIndex Where the field value is located.
    * @param recordLocation The record location where the field is located.
    */
-  private void checkFormat(String value, String format, int fieldIndex,
+  private void checkFormat(String value, FieldValidationPlan.FieldFormat format, int fieldIndex,
       RecordLocation recordLocation) {
-    Matcher matcher = formatPattern.matcher(format);
-    int precision = -1;
+    String trimmedValue = value.trim();
+    int width = format.width;
+    int precision = format.precision;
+    String specifier = format.specifier;
     boolean isValid = true;
-    if (matcher.matches()) {
-      int width = Integer.parseInt(matcher.group(2));
-      if (matcher.group(4) != null) {
-        precision = Integer.parseInt(matcher.group(4));
+    if (format.justified == '+') {
+      // check if there is trailing whitespace
+      if (trailingWhiteSpacePattern.matcher(value).matches()) {
+        addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_NOT_RIGHT_JUSTIFIED,
+            "The value '" + value + "' is not right-justified.", recordLocation, fieldIndex);
+        isValid = false;
       }
-      String specifier = matcher.group(5);
-      if (matcher.group(1) != null) {
-        String justified = matcher.group(1);
-        if ("+".equals(justified)) {
-          // check if there is trailing whitespace
-          if (trailingWhiteSpacePattern.matcher(value).matches()) {
-            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_NOT_RIGHT_JUSTIFIED,
-                "The value '" + value + "' is not right-justified.", recordLocation, fieldIndex);
-            isValid = false;
-          }
-        } else if ("-".equals(justified)) {
-          if (leadingWhiteSpacePattern.matcher(value).matches()) {
-            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_NOT_LEFT_JUSTIFIED,
-                "The value '" + value + "' is not left-justified.", recordLocation, fieldIndex);
-            isValid = false;
-          }
-        }
+    } else if (format.justified == '-') {
+      if (leadingWhiteSpacePattern.matcher(value).matches()) {
+        addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_NOT_LEFT_JUSTIFIED,
+            "The value '" + value + "' is not left-justified.", recordLocation, fieldIndex);
+        isValid = false;
       }
-      try {
-        if (specifier.matches("[eE]")) {
-          String p = "(\\+|-)?([0-9]+(\\.[0-9]*)?|\\.[0-9]+)([Ee](\\+|-)?[0-9]+)";
-          if (!value.trim().matches(p)) {
-            throw new NumberFormatException("Value does not match pattern.");
-          }
-          Double.parseDouble(value.trim());
-        } else if (specifier.equals("f")) {
-          String p = "(\\+|-)?([0-9]+(\\.[0-9]*)?|\\.[0-9]+)";
-          if (!value.trim().matches(p)) {
-            throw new NumberFormatException("Value does not match pattern.");
-          }
-          Double.parseDouble(value.trim());
-        } else if (specifier.equals("d")) {
-          BigInteger bi = new BigInteger(value.trim());
-        } else if (specifier.equals("o")) {
-          BigInteger bi = new BigInteger(value.trim());
-          if (bi.signum() == -1) {
-            throw new NumberFormatException("Value must be unsigned.");
-          }
-        } else if (specifier.equals("x")) {
-          BigInteger bi = new BigInteger(value.trim());
-          if (bi.signum() == -1) {
-            throw new NumberFormatException("Value must be unsigned.");
-          }
+    }
+    try {
+      if (specifier.equals("e") || specifier.equals("E")) {
+        if (!FieldValueLexer.isReal(trimmedValue, true, true)) {
+          throw new NumberFormatException("Value does not match pattern.");
+        }
+      } else if (specifier.equals("f")) {
+        if (!FieldValueLexer.isReal(trimmedValue, false, false)) {
+          throw new NumberFormatException("Value does not match pattern.");
+        }
+      } else if (specifier.equals("d")) {
+        BigInteger bi = new BigInteger(trimmedValue);
+      } else if (specifier.equals("o")) {
+        BigInteger bi = new BigInteger(trimmedValue);
+        if (bi.signum() == -1) {
+          throw new NumberFormatException("Value must be unsigned.");
+        }
+      } else if (specifier.equals("x")) {
+        BigInteger bi = new BigInteger(trimmedValue);
+        if (bi.signum() == -1) {
+          throw new NumberFormatException("Value must be unsigned.");
         }
-      } catch (NumberFormatException e) {
-        addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_FORMAT_SPECIFIER_MISMATCH,
-            "The value '" + value.trim() + "' does not match the "
-                + "defined field format specifier '" + specifier + "': " + e.getMessage(),
-            recordLocation, fieldIndex);
-      }
-      if (value.trim().length() > width) {
-        addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_TOO_LONG,
-            "The length of the value '" + value.trim() + "' exceeds the max "
-                + "width set in the defined field format " + "(max " + width + ", got "
-                + value.trim().length() + ").",
-            recordLocation, fieldIndex);
-        isValid = false;
       }
-      if (precision != -1) {
-        if (specifier.matches("[feE]")) {
-          String[] tokens = value.trim().split("[eE]", 2);
-          int length = 0;
-          if (tokens[0].indexOf(".") != -1) {
-            length = tokens[0].substring(tokens[0].indexOf(".") + 1).length();
-          }
-          if (length != precision) {
-            addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_FORMAT_PRECISION_MISMATCH,
-                "The number of digits to the right of the decimal point " + "in the value '"
-                    + value.trim() + "' does not equal the "
-                    + "precision set in the defined field format " + "(expected " + precision
-                    + ", got " + length + ").",
-                recordLocation, fieldIndex);
-            isValid = false;
+    } catch (NumberFormatException e) {
+      addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_FORMAT_SPECIFIER_MISMATCH,
+          "The value '" + trimmedValue + "' does not match the "
+              + "defined field format specifier '" + specifier + "': " + e.getMessage(),
+          recordLocation, fieldIndex);
+    }
+    if (trimmedValue.length() > width) {
+      addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_TOO_LONG,
+          "The length of the value '" + trimmedValue + "' exceeds the max "
+              + "width set in the defined field format " + "(max " + width + ", got "
+              + trimmedValue.length() + ").",
+          recordLocation, fieldIndex);
+      isValid = false;
+    }
+    if (precision != -1) {
+      if (format.isFloatingPoint()) {
+        // Count the digits between the decimal point and the exponent, if any.
+        int end = trimmedValue.length();
+        for (int i = 0; i < end; i++) {
+          char c = trimmedValue.charAt(i);
+          if (c == 'e' || c == 'E') {
+            end = i;
+            break;
           }
         }
+        int point = trimmedValue.indexOf('.');
+        int length = 0;
+        if (point != -1 && point < end) {
+          length = end - point - 1;
+        }
+        if (length != precision) {
+          addTableProblem(ExceptionType.ERROR, ProblemType.FIELD_VALUE_FORMAT_PRECISION_MISMATCH,
+              "The number of digits to the right of the decimal point " + "in the value '"
+                  + trimmedValue + "' does not equal the "
+                  + "precision set in the defined field format " + "(expected " + precision
+                  + ", got " + length + ").",
+              recordLocation, fieldIndex);
+          isValid = false;
+        }
       }
-      if (isValid) {
-        addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_FORMAT_MATCH,
-            "Value '" + value + "' conforms to the defined field format '" + format + "'",
-            recordLocation, fieldIndex);
-      }
+    }
+    if (isValid && listener.isReported(ExceptionType.DEBUG)) {
+      addTableProblem(ExceptionType.DEBUG, ProblemType.FIELD_VALUE_FORMAT_MATCH,
+          "Value '" + value + "' conforms to the defined field format '" + format.format + "'",
+          recordLocation, fieldIndex);
     }
   }
 
@@ -1,5 +1,6 @@
 package gov.nasa.pds.tools.validate.rule;
 
+import org.apache.commons.chain.Command;
 import org.apache.commons.chain.impl.ChainBase;
 
 /**
@@ -27,4 +28,30 @@ public abstract class AbstractValidationChain extends ChainBase implements Valid
     this.caption = caption;
   }
 
+  /**
+   * Creates a copy of this chain with new instances of each of its commands. Rules keep state
+   * between tests, so a chain that is executed on several threads at once must be copied for each
+   * thread.
+   *
+   * @return a new chain with the same class, caption and commands as this chain
+   * @throws ReflectiveOperationException if a command cannot be instantiated
+   */
+  public AbstractValidationChain newInstance() throws ReflectiveOperationException {
+    AbstractValidationChain chain = getClass().getDeclaredConstructor().newInstance();
+    chain.setCaption(caption);
+    for (Command command : commands) {
+      if (command instanceof AbstractValidationChain) {
+        chain.addCommand(((AbstractValidationChain) command).newInstance());
+      } else {
+        Command copy = command.getClass().getDeclaredConstructor().newInstance();
+        if (copy instanceof AbstractValidationRule) {
+          AbstractValidationRule rule = (AbstractValidationRule) copy;
+          rule.setCaption(((AbstractValidationRule) command).getCaption());
+        }
+        chain.addCommand(copy);
+      }
+    }
+    return chain;
+  }
+
 }
@@ -107,6 +107,11 @@ public abstract class AbstractValidationRule implements ValidationRule {
     newContext.setCheckData(context.getCheckData());
     newContext.setRegisteredProducts(context.getRegisteredProducts());
     newContext.setSpotCheckData(context.getSpotCheckData());
+    newContext.setSampleData(context.getSampleData());
+    newContext.setThreads(context.getThreads());
+    newContext.setTableThreads(context.getTableThreads());
+    newContext.setArrayThreads(context.getArrayThreads());
+    newContext.setLabelWorkerPool(context.getLabelWorkerPool());
     newContext.setAllowUnlabeledFiles(context.getAllowUnlabeledFiles());
     newContext.setValidateContext(context.getValidateContext());
     newContext.setSkipProductValidation(context.getSkipProductValidation());
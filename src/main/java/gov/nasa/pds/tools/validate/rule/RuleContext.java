@@ -29,26 +29,33 @@
 // POSSIBILITY OF SUCH DAMAGE.
 package gov.nasa.pds.tools.validate.rule;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.regex.Pattern;
+import javax.xml.transform.TransformerException;
 import org.apache.commons.chain.impl.ContextBase;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.label.LabelValidator;
 import gov.nasa.pds.tools.label.LocationValidator;
 import gov.nasa.pds.tools.label.XMLCatalogResolver;
 import gov.nasa.pds.tools.util.ContextProductReference;
+import gov.nasa.pds.tools.util.LabelParser;
 import gov.nasa.pds.tools.validate.AdditionalTarget;
 import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.TargetRegistrar;
 import gov.nasa.pds.tools.validate.crawler.Crawler;
 import gov.nasa.pds.tools.validate.crawler.WildcardOSFilter;
+import gov.nasa.pds.tools.validate.rule.pds4.LabelWorkerPool;
 import gov.nasa.pds.validate.constants.Constants;
+import net.sf.saxon.om.DocumentInfo;
 
 /**
  * Implements a type-safe context for using validation rules in commands and chains.
@@ -116,6 +123,12 @@ public class RuleContext extends ContextBase {
   /** The key used to retrieve the XMLCatalogResolver object. */
   public static final String CATALOG_RESOLVER = "validation.catalog-resolver";
 
+  /** The key used to retrieve the label validator used by the current thread. */
+  public static final String LABEL_VALIDATOR_KEY = "validation.label-validator";
+
+  /** The key used to retrieve the labels already parsed for the target, keyed by URL. */
+  public static final String PARSED_LABELS_KEY = "validation.parsed-labels";
+
   /** The key used to indicate whether to disable data content validation. */
   public static final String CHECK_DATA_KEY = "validate.check-data";
 
@@ -124,6 +137,33 @@ public class RuleContext extends ContextBase {
    */
   public static final String SPOT_CHECK_DATA_KEY = "validate.spot-check";
 
+  /**
+   * The key used to indicate how many records or elements to sample during content validation.
+   */
+  public static final String SAMPLE_DATA_KEY = "validate.sample-data";
+
+  /**
+   * The key used to indicate how many threads to use when validating the labels in a directory.
+   */
+  public static final String THREADS_KEY = "validate.threads";
+
+  /**
+   * The key used to indicate how many threads to use when validating the records of a single
+   * table.
+   */
+  public static final String TABLE_THREADS_KEY = "validate.table-threads";
+
+  /**
+   * The key used to indicate how many threads to use when validating the elements of a single
+   * array.
+   */
+  public static final String ARRAY_THREADS_KEY = "validate.array-threads";
+
+  /**
+   * The key used to hold the threads that validate the labels in the directories of a location.
+   */
+  public static final String LABEL_WORKER_POOL_KEY = "validate.label-worker-pool";
+
   /**
    * Key used to tell the tool to allow unlabeled files in a bundle or collection.
    */
@@ -386,6 +426,47 @@ public class RuleContext extends ContextBase {
     return getContextValue(CATALOG_RESOLVER, XMLCatalogResolver.class);
   }
 
+  /**
+   * Gets the label validator to use for the target, if one was given.
+   *
+   * @return the label validator, or null to use the shared label validator
+   */
+  public LabelValidator getLabelValidator() {
+    return getContextValue(LABEL_VALIDATOR_KEY, LabelValidator.class);
+  }
+
+  public void setLabelValidator(LabelValidator validator) {
+    putContextValue(LABEL_VALIDATOR_KEY, validator);
+  }
+
+  /**
+   * Gets the labels already parsed while validating the target, keyed by their URL. The rules
+   * share this map so a label is read and parsed only once.
+   *
+   * @return the map of parsed labels
+   */
+  @SuppressWarnings("unchecked")
+  public Map<String, DocumentInfo> getParsedLabels() {
+    Map<String, DocumentInfo> parsedLabels = getContextValue(PARSED_LABELS_KEY, Map.class);
+    if (parsedLabels == null) {
+      parsedLabels = new HashMap<>();
+      putContextValue(PARSED_LABELS_KEY, parsedLabels);
+    }
+    return parsedLabels;
+  }
+
+  /**
+   * Gets a parsed label, parsing it only if no rule has done so already for the target.
+   *
+   * @param url the location of the label
+   * @return the parsed label
+   * @throws TransformerException if the label cannot be parsed
+   * @throws IOException if the label cannot be read
+   */
+  public DocumentInfo getParsedLabel(URL url) throws TransformerException, IOException {
+    return LabelParser.parse(url, getParsedLabels());
+  }
+
   public boolean getCheckData() {
     return getContextValue(CHECK_DATA_KEY, Boolean.class);
   }
@@ -402,6 +483,60 @@ public class RuleContext extends ContextBase {
     putContextValue(SPOT_CHECK_DATA_KEY, value);
   }
 
+  public int getSampleData() {
+    // Unless set, the whole content is validated.
+    Integer sampleData = getContextValue(SAMPLE_DATA_KEY, Integer.class);
+    return (sampleData == null ? -1 : sampleData);
+  }
+
+  public void setSampleData(int value) {
+    putContextValue(SAMPLE_DATA_KEY, value);
+  }
+
+  public int getThreads() {
+    // Contexts created outside of the launcher may not have set a value, in which
+    // case the labels are validated on a single thread.
+    Integer threads = getContextValue(THREADS_KEY, Integer.class);
+    return (threads == null ? 1 : threads);
+  }
+
+  public void setThreads(int value) {
+    putContextValue(THREADS_KEY, value);
+  }
+
+  public int getTableThreads() {
+    // Unless set, the records of a table are validated on a single thread.
+    Integer tableThreads = getContextValue(TABLE_THREADS_KEY, Integer.class);
+    return (tableThreads == null ? 1 : tableThreads);
+  }
+
+  public void setTableThreads(int value) {
+    putContextValue(TABLE_THREADS_KEY, value);
+  }
+
+  public int getArrayThreads() {
+    // Unless set, the elements of an array are validated on a single thread.
+    Integer arrayThreads = getContextValue(ARRAY_THREADS_KEY, Integer.class);
+    return (arrayThreads == null ? 1 : arrayThreads);
+  }
+
+  public void setArrayThreads(int value) {
+    putContextValue(ARRAY_THREADS_KEY, value);
+  }
+
+  /**
+   * Gets the threads that validate the labels in the directories of the location.
+   *
+   * @return the worker pool, or null to validate the labels on the current thread
+   */
+  public LabelWorkerPool getLabelWorkerPool() {
+    return getContextValue(LABEL_WORKER_POOL_KEY, LabelWorkerPool.class);
+  }
+
+  public void setLabelWorkerPool(LabelWorkerPool pool) {
+    putContextValue(LABEL_WORKER_POOL_KEY, pool);
+  }
+
   public boolean getAllowUnlabeledFiles() {
     return getContextValue(ALLOW_UNLABELED_FILES_KEY, Boolean.class);
   }
@@ -24,6 +24,7 @@ import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.util.DOMSourceManager;
 import gov.nasa.pds.tools.util.ReferentialIntegrityUtil;
 import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.util.XMLExtractor;
@@ -100,7 +101,8 @@ public class BundleReferentialIntegrityRule extends AbstractValidationRule {
 
         if (matcher.matches()) {
           try {
-            XMLExtractor extractor = new XMLExtractor(child.getUrl());
+            XMLExtractor extractor =
+                new XMLExtractor(DOMSourceManager.getDocumentInfo(child.getUrl()));
             if ("Product_Bundle".equals(extractor.getValueFromDoc(PRODUCT_CLASS))) {
               String lid = extractor.getValueFromDoc(LOGICAL_IDENTIFIER);
               String vid = extractor.getValueFromDoc(VERSION_ID);
@@ -155,7 +157,7 @@ public class BundleReferentialIntegrityRule extends AbstractValidationRule {
     LOG.info("getBundleMembers:BEGIN_PROCESSING_BUNDLE:bundle {}", bundle);
     long startTime = System.currentTimeMillis();
     try {
-      XMLExtractor extractor = new XMLExtractor(bundle);
+      XMLExtractor extractor = new XMLExtractor(DOMSourceManager.getDocumentInfo(bundle));
       List<TinyNodeImpl> nodes = extractor.getNodesFromDoc(BUNDLE_MEMBER_ENTRY);
       for (TinyNodeImpl node : nodes) {
         String reference = extractor.getValueFromItem(IDENTITY_REFERENCE, node);
@@ -24,6 +24,7 @@ import gov.nasa.pds.tools.inventory.reader.InventoryEntry;
 import gov.nasa.pds.tools.inventory.reader.InventoryReaderException;
 import gov.nasa.pds.tools.inventory.reader.InventoryTableReader;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.util.DOMSourceManager;
 import gov.nasa.pds.tools.util.ReferentialIntegrityUtil;
 import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.util.XMLExtractor;
@@ -83,7 +84,8 @@ public class CollectionReferentialIntegrityRule extends AbstractValidationRule {
 
         Target collectionTarget = new Target(collection.getValue().getUrl(), false);
         try {
-          XMLExtractor extractor = new XMLExtractor(collectionTarget.getUrl());
+          XMLExtractor extractor =
+              new XMLExtractor(DOMSourceManager.getDocumentInfo(collectionTarget.getUrl()));
           if ("Product_Collection".equals(extractor.getValueFromDoc(PRODUCT_CLASS))) {
             getListener().addLocation(collectionTarget.getUrl().toString());
             this.lid = extractor.getValueFromDoc(LOGICAL_IDENTIFIER);
@@ -37,7 +37,6 @@ import java.util.List;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
@@ -47,6 +46,7 @@ import gov.nasa.pds.tools.label.ExceptionType;
 import gov.nasa.pds.tools.label.SourceLocation;
 import gov.nasa.pds.tools.util.ContextProductReference;
 import gov.nasa.pds.tools.util.Utility;
+import gov.nasa.pds.tools.util.XPathRegistry;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemType;
 import gov.nasa.pds.tools.validate.ValidationProblem;
@@ -180,8 +180,7 @@ public class ContextProductReferenceValidationRule extends AbstractValidationRul
       Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
       DOMSource source = new DOMSource(label);
       source.setSystemId(uri.toString());
-      XPathFactory xpathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
-      NodeList references = (NodeList) xpathFactory.newXPath().evaluate(INTERNAL_REF_XPATH, source,
+      NodeList references = (NodeList) XPathRegistry.compile(INTERNAL_REF_XPATH).evaluate(source,
           XPathConstants.NODESET);
 
       List<ContextProductReference> rgProds =
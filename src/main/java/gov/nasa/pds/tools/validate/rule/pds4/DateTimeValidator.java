@@ -16,6 +16,7 @@ package gov.nasa.pds.tools.validate.rule.pds4;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.regex.Pattern;
 import gov.nasa.pds.label.object.FieldType;
 
@@ -113,6 +114,37 @@ public class DateTimeValidator {
     DATE_TIME_FORMATS.put(FieldType.ASCII_TIME.getXMLType(), TIME_FORMATS);
   }
 
+  /**
+   * Mapping of field datetime types to a pattern matching any of its valid datetime formats. The
+   * patterns are compiled once, as they are matched against every datetime value of a table.
+   * 
+   */
+  private static final Map<String, Pattern> DATE_TIME_PATTERNS = new HashMap<>();
+  static {
+    for (Map.Entry<String, List<String>> entry : DATE_TIME_FORMATS.entrySet()) {
+      DATE_TIME_PATTERNS.put(entry.getKey(), compile(entry.getValue()));
+    }
+  }
+
+  /**
+   * Compiles a list of formats into a single pattern that matches a value if any of the formats
+   * matches it.
+   * 
+   * @param formats The formats.
+   * 
+   * @return The pattern.
+   */
+  private static Pattern compile(List<String> formats) {
+    StringBuilder regex = new StringBuilder();
+    for (String format : formats) {
+      if (regex.length() > 0) {
+        regex.append('|');
+      }
+      regex.append("(?:").append(format).append(')');
+    }
+    return Pattern.compile(regex.toString());
+  }
+
   /**
    * Checks to see if the given datetime value matches its defined data type.
    * 
@@ -124,17 +156,11 @@ public class DateTimeValidator {
    * @throws Exception
    */
   public static boolean isValid(FieldType type, String value) throws Exception {
-    boolean success = false;
-    if (!DATE_TIME_FORMATS.containsKey(type.getXMLType())) {
+    Pattern pattern = DATE_TIME_PATTERNS.get(type.getXMLType());
+    if (pattern == null) {
       throw new Exception("'" + type.getXMLType() + "' is not one of the valid datetime formats: "
           + DATE_TIME_FORMATS.toString());
     }
-    for (String format : DATE_TIME_FORMATS.get(type.getXMLType())) {
-      if (Pattern.matches(format, value.trim())) {
-        success = true;
-        break;
-      }
-    }
-    return success;
+    return pattern.matcher(value.trim()).matches();
   }
 }
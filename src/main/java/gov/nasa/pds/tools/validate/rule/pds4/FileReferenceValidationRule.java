@@ -105,11 +105,16 @@ public class FileReferenceValidationRule extends AbstractValidationRule {
     if (getContext().getChecksumManifest() != null) {
       checksumManifest = getContext().getChecksumManifest();
     }
-    Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
-    DOMSource source = new DOMSource(label);
-    source.setSystemId(uri.toString());
     try {
-      DocumentInfo xml = LabelParser.parse(source);
+      // The tree parsed for the document validators is used if there is one. Otherwise it is
+      // built from the label document, so the label is never read again.
+      DocumentInfo xml = getContext().getParsedLabels().get(getTarget().toString());
+      if (xml == null) {
+        Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
+        DOMSource source = new DOMSource(label);
+        source.setSystemId(uri.toString());
+        xml = LabelParser.parse(source);
+      }
       LOG.debug("FileReferenceValidationRule:validateFileReferences:uri {}", uri);
       validate(xml);
     } catch (TransformerException te) {
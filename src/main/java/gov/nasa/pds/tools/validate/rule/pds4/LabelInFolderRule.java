@@ -18,23 +18,28 @@ import java.io.IOException;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.List;
-import java.util.concurrent.ExecutorService;
-import java.util.concurrent.Executors;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.label.LabelValidator;
 import gov.nasa.pds.tools.util.Utility;
 import gov.nasa.pds.tools.validate.AdditionalTarget;
+import gov.nasa.pds.tools.validate.BufferedListenerPropagator;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
+import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.ProblemType;
 import gov.nasa.pds.tools.validate.Target;
 import gov.nasa.pds.tools.validate.ValidationProblem;
 import gov.nasa.pds.tools.validate.crawler.Crawler;
 import gov.nasa.pds.tools.validate.rule.AbstractValidationRule;
 import gov.nasa.pds.tools.validate.rule.GenericProblems;
+import gov.nasa.pds.tools.validate.rule.RuleContext;
 import gov.nasa.pds.tools.validate.rule.ValidationRule;
 import gov.nasa.pds.tools.validate.rule.ValidationTest;
 
@@ -44,10 +49,26 @@ import gov.nasa.pds.tools.validate.rule.ValidationTest;
 public class LabelInFolderRule extends AbstractValidationRule {
 
   private static final Logger LOG = LoggerFactory.getLogger(LabelInFolderRule.class);
+
+  /** The number of labels per thread that may be validated but not yet reported. */
+  private static final int LABELS_PER_THREAD = 4;
+
   private double totalTimeElapsed = 0.0;
 
-  private ExecutorService validateThreadExecutor;
-  List<Future<?>> futures = new ArrayList<>();
+  /**
+   * A label submitted to the worker pool, with the problems it reported.
+   */
+  private static class PendingLabel {
+    private final Target target;
+    private final Future<?> future;
+    private final BufferedListenerPropagator listener;
+
+    private PendingLabel(Target target, Future<?> future, BufferedListenerPropagator listener) {
+      this.target = target;
+      this.future = future;
+      this.listener = listener;
+    }
+  }
 
   @Override
   public boolean isApplicable(String location) {
@@ -97,10 +118,58 @@ public class LabelInFolderRule extends AbstractValidationRule {
     return (allTargets);
   }
 
+  /**
+   * Validates a label, reporting to the given listener.
+   *
+   * @param labelRule The label rule to execute.
+   * @param validator The label validator to use, or null to use the shared label validator.
+   * @param target The label.
+   * @param listener The listener of the problems of the label.
+   */
+  private void validateLabel(ValidationRule labelRule, LabelValidator validator, Target target,
+      ProblemListener listener) {
+    try {
+      LOG.debug("doValidateLabelsInFolder:t.getUrl() {}", target.getUrl());
+      RuleContext childContext = getChildContext(target.getUrl());
+      childContext.setProblemListener(listener);
+      if (validator != null) {
+        childContext.setLabelValidator(validator);
+      }
+      labelRule.execute(childContext);
+    } catch (Exception e) {
+      listener.addProblem(new ValidationProblem(GenericProblems.UNCAUGHT_EXCEPTION,
+          target.getUrl(), -1, -1, e.getMessage()));
+      e.printStackTrace();
+    }
+  }
+
+  /**
+   * Waits for the validation of a label submitted to the worker pool, then reports its problems.
+   *
+   * @param pending The validation of the label.
+   */
+  private void completeLabel(PendingLabel pending) {
+    try {
+      pending.future.get();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      reportError(GenericProblems.UNCAUGHT_EXCEPTION, pending.target.getUrl(), -1, -1,
+          e.getMessage());
+    } catch (ExecutionException e) {
+      reportError(GenericProblems.UNCAUGHT_EXCEPTION, pending.target.getUrl(), -1, -1,
+          e.getMessage());
+    }
+    pending.listener.replay();
+  }
+
   /**
    * Perform the validation of files in a directory (each with a file with a label suffix as a PDS4
    * label).
    *
+   * When the context holds a worker pool, the labels are validated on its threads. At most a few
+   * labels per thread are in flight at once, and the problems of each label are held until all the
+   * labels found before it are reported, so that the report follows the order of the crawl.
+   *
    * @param target The location of the directory of files (labels) to validate.
    * @param getDirectories Boolean flag to either crawler recursively or not.
    */
@@ -109,19 +178,17 @@ public class LabelInFolderRule extends AbstractValidationRule {
     // capability to specify multiple locations for pds4.bundle validation
     // This function is a re-factor of validateLabelsInFolder() to receive an input
     // and a flag to crawl recursively or not.
-    validateThreadExecutor = Executors.newFixedThreadPool(1);
+    final LabelWorkerPool workerPool = getContext().getLabelWorkerPool();
 
-    ValidationRule labelRuleTmp = null;
-
-    labelRuleTmp = getContext().getRuleManager().findRuleByName("pds4.label");
-    final ValidationRule labelRule = labelRuleTmp;
+    final ValidationRule labelRule = getContext().getRuleManager().findRuleByName("pds4.label");
 
     Crawler crawler = getContext().getCrawler();
     // The target is already provided no need to call getTarget()
     long startTime = System.currentTimeMillis();
 
-    LOG.info("doValidateLabelsInFolder:BEGIN_PROCESSING_FOLDER:target,labelRuleTmp {},{}", target,
-        labelRuleTmp);
+    LOG.info(
+        "doValidateLabelsInFolder:BEGIN_PROCESSING_FOLDER:target,labelRule,threads {},{},{}",
+        target, labelRule, workerPool == null ? 1 : workerPool.getThreads());
     try {
       int targetCount = 0;
       // Crawl recursively or not depending on value of getDirectories.
@@ -138,33 +205,37 @@ public class LabelInFolderRule extends AbstractValidationRule {
             ProblemType.GENERAL_INFO, "Targets need to be validated: " + targetList.size()),
             target));
       }
-      for (Target t : targetList) {
-        Future<?> f = validateThreadExecutor.submit(new Runnable() {
-          @Override
-          public void run() {
-            try {
-              LOG.debug("doValidateLabelsInFolder:t.getUrl() {}", t.getUrl());
-              labelRule.execute(getChildContext(t.getUrl()));
-            } catch (Exception e) {
-              reportError(GenericProblems.UNCAUGHT_EXCEPTION, t.getUrl(), -1, -1, e.getMessage());
-              e.printStackTrace();
+      Deque<PendingLabel> pendingLabels = new ArrayDeque<>();
+      try {
+        for (Target t : targetList) {
+          if (workerPool == null) {
+            validateLabel(labelRule, null, t, getListener());
+          } else {
+            if (pendingLabels.size() >= workerPool.getThreads() * LABELS_PER_THREAD) {
+              completeLabel(pendingLabels.removeFirst());
             }
+            BufferedListenerPropagator listener = new BufferedListenerPropagator(getListener());
+            Future<?> future = workerPool.submit(() -> {
+              // A copy that cannot be made fails the label, see completeLabel().
+              ValidationRule rule = workerPool.getRule(labelRule);
+              LabelValidator validator = workerPool.getValidator();
+              listener.run(() -> validateLabel(rule, validator, t, listener));
+              return null;
+            });
+            pendingLabels.addLast(new PendingLabel(t, future, listener));
           }
-        });
-        futures.add(f);
-
-        targetCount++;
-      } // end for
+          targetCount++;
+        } // end for
 
-      try {
         // Wait for threads to complete
-        for (Future<?> future : futures) {
-          future.get();
+        while (!pendingLabels.isEmpty()) {
+          completeLabel(pendingLabels.removeFirst());
+        }
+      } finally {
+        // Labels still in flight after a failure are not reported.
+        for (PendingLabel pending : pendingLabels) {
+          pending.future.cancel(true);
         }
-
-        validateThreadExecutor.shutdown();
-      } catch (Exception e) {
-        e.printStackTrace();
       }
       getListener().addProblem(new ValidationProblem(new ProblemDefinition(ExceptionType.DEBUG,
           ProblemType.GENERAL_INFO, "Targets completed: " + targetCount), target));
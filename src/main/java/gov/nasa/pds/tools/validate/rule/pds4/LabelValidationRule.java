@@ -27,7 +27,7 @@ import java.util.StringTokenizer;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.stream.StreamSource;
@@ -72,16 +72,18 @@ public class LabelValidationRule extends AbstractValidationRule {
   private SchemaValidator schemaValidator;
   private SchematronTransformer schematronTransformer;
   private Map<URL, ProblemContainer> labelSchemaResults;
+  // The problems found while reading each schema into memory, reported again for each label
+  // that reuses the results of the schema.
+  private Map<URL, ProblemContainer> labelSchemaLoadProblems;
   private Map<URL, ProblemContainer> labelSchematronResults;
-  private Map<URL, Transformer> labelSchematrons;
+  private Map<URL, Templates> labelSchematrons;
   private XMLExtractor extractor;
 
-  private static Object lock = new Object();
-
   public LabelValidationRule() throws TransformerConfigurationException {
     schemaValidator = new SchemaValidator();
     schematronTransformer = new SchematronTransformer();
     labelSchemaResults = new HashMap<>();
+    labelSchemaLoadProblems = new HashMap<>();
     labelSchematronResults = new HashMap<>();
     labelSchematrons = new HashMap<>();
     extractor = null;
@@ -190,7 +192,11 @@ public class LabelValidationRule extends AbstractValidationRule {
     String targetFileName = target.toString().substring(target.toString().lastIndexOf("/") + 1);
     ProblemProcessor processor = new ProblemProcessor(getListener(), target);
 
-    LabelValidator validator = ValidationResourceManager.INSTANCE.getResource(LabelValidator.class);
+    // Labels validated in parallel each use a copy of the label validator owned by their thread.
+    LabelValidator validator = getContext().getLabelValidator();
+    if (validator == null) {
+      validator = ValidationResourceManager.INSTANCE.getResource(LabelValidator.class);
+    }
 
     LOG.debug("validateLabel:target,targetFileName {},{}", target, targetFileName);
     LOG.debug("validateLabel:getContext().isForceLabelSchemaValidation() {}",
@@ -239,81 +245,84 @@ public class LabelValidationRule extends AbstractValidationRule {
                                           // schematron.
       boolean hasValidSchemas = false;
       ProblemContainer problemContainer = new ProblemContainer();
-      if (getContext().getCatalogResolver() != null
-          || getContext().isForceLabelSchemaValidation()) {
-        // boolean hasValidSchemas = false;
-        Map<String, Transformer> labelSchematrons = null;
-        synchronized (lock) {
+      // The label validator may be shared with other threads, so the label specific
+      // settings made below must not be changed by another thread until the label
+      // has been parsed and validated.
+      synchronized (validator) {
+        if (getContext().getCatalogResolver() != null
+            || getContext().isForceLabelSchemaValidation()) {
+          // boolean hasValidSchemas = false;
           // Validate the label's schema and schematron first before doing
-          // label validation
+          // label validation. Each thread runs its own copy of this rule, and the
+          // compiled schematrons it gets back can be shared by several threads.
           hasValidSchemas =
               validateLabelSchemas(target, problemContainer, getContext().getCatalogResolver());
 
-          labelSchematrons =
-              validateLabelSchematrons(target, problemContainer, getContext().getCatalogResolver());
-          LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.size() {},{},{}", target,
-              hasValidSchemas, labelSchematrons.size());
-        }
-
-        // https://github.com/NASA-PDS/validate/issues/17
-        // Important note: Any errors found in the above two functions:
-        //
-        // validateLabelSchemas(),
-        // `validateLabelSchematrons()
-        //
-        // would have been reported already to the listener. There is no need to keep
-        // them around
-        // because the same errors would be added again later in this function.
-        // The errors need to be cleared either by the object problemContainer
-        // performing an
-        // explicit clear function or by creating a new ProblemContainer object.
-        //
-        // Option 1: problemContainer.clear() [Chosen in this function]
-        // Option 2: problemContainer = new ProblemContainer()
-
-        // Option 1: problemContainer.clear() [Chosen in this function]
-        problemContainer.clear();
-
-        LOG.debug("validateLabel:problemContainer.clear() called");
-        LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.size() {},{},{}", target,
-            hasValidSchemas, labelSchematrons.size());
-
-        if (hasValidSchemas && !labelSchematrons.isEmpty()) {
-          CachedEntityResolver resolver = new CachedEntityResolver();
-          resolver.addCachedEntities(schemaValidator.getCachedLSResolver().getCachedEntities());
-          validator.setCachedEntityResolver(resolver);
-          validator.setCachedLSResourceResolver(schemaValidator.getCachedLSResolver());
-          validator.setLabelSchematrons(labelSchematrons);
-          if (getContext().isForceLabelSchemaValidation()) {
-            try {
-              schemaValidator.setExternalLocations(getExtractor(target).getSchemaLocation());
-            } catch (Exception ignore) {
-              // Should not throw an exception
+          Map<String, Templates> labelSchematrons = validateLabelSchematrons(target,
+              problemContainer, getContext().getCatalogResolver());
+          LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.size() {},{},{}",
+              target, hasValidSchemas, labelSchematrons.size());
+
+          // https://github.com/NASA-PDS/validate/issues/17
+          // Important note: Any errors found in the above two functions:
+          //
+          // validateLabelSchemas(),
+          // `validateLabelSchematrons()
+          //
+          // would have been reported already to the listener. There is no need to keep
+          // them around
+          // because the same errors would be added again later in this function.
+          // The errors need to be cleared either by the object problemContainer
+          // performing an
+          // explicit clear function or by creating a new ProblemContainer object.
+          //
+          // Option 1: problemContainer.clear() [Chosen in this function]
+          // Option 2: problemContainer = new ProblemContainer()
+
+          // Option 1: problemContainer.clear() [Chosen in this function]
+          problemContainer.clear();
+
+          LOG.debug("validateLabel:problemContainer.clear() called");
+          LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.size() {},{},{}",
+              target, hasValidSchemas, labelSchematrons.size());
+
+          if (hasValidSchemas && !labelSchematrons.isEmpty()) {
+            CachedEntityResolver resolver = new CachedEntityResolver();
+            resolver.addCachedEntities(schemaValidator.getCachedLSResolver().getCachedEntities());
+            validator.setCachedEntityResolver(resolver);
+            validator.setCachedLSResourceResolver(schemaValidator.getCachedLSResolver());
+            validator.setLabelSchematrons(labelSchematrons);
+            if (getContext().isForceLabelSchemaValidation()) {
+              try {
+                schemaValidator.setExternalLocations(getExtractor(target).getSchemaLocation());
+              } catch (Exception ignore) {
+                // Should not throw an exception
+              }
             }
-          }
-        } else {
-          // Print any label problems that occurred during schema and schematron
-          // validation.
-          if (problemContainer.getProblems().size() != 0) {
-            for (ValidationProblem problem : problemContainer.getProblems()) {
-              problem.setSource(target.toString());
-              getListener().addProblem(problem);
-              LOG.debug("validateLabel:addProblem(problem) {}", problem);
+          } else {
+            // Print any label problems that occurred during schema and schematron
+            // validation.
+            if (problemContainer.getProblems().size() != 0) {
+              for (ValidationProblem problem : problemContainer.getProblems()) {
+                problem.setSource(target.toString());
+                getListener().addProblem(problem);
+                LOG.debug("validateLabel:addProblem(problem) {}", problem);
+              }
             }
+            pass = false;
+            LOG.debug("validateLabel:PASS_TO_FALSE:target,pass {},{}", target, pass);
           }
-          pass = false;
-          LOG.debug("validateLabel:PASS_TO_FALSE:target,pass {},{}", target, pass);
         }
-      }
-      LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.isEmpty() {},{},{}", target,
-          hasValidSchemas, labelSchematrons.isEmpty());
-      LOG.debug("validateLabel:target,pass {},{}", target, pass);
-      // If forcedValidateLabel is true, call parseAndValidate() regardless.
-      if (pass || forcedValidateLabel) {
-        // if (2 == 2) {
-        getListener().addLocation(target.toString());
-        LOG.debug("validateLabel:afor:target {}", target);
-        document = validator.parseAndValidate(processor, target);
+        LOG.debug("validateLabel:target,hasValidSchemas,labelSchematrons.isEmpty() {},{},{}",
+            target, hasValidSchemas, labelSchematrons.isEmpty());
+        LOG.debug("validateLabel:target,pass {},{}", target, pass);
+        // If forcedValidateLabel is true, call parseAndValidate() regardless.
+        if (pass || forcedValidateLabel) {
+          // if (2 == 2) {
+          getListener().addLocation(target.toString());
+          LOG.debug("validateLabel:afor:target {}", target);
+          document = validator.parseAndValidate(processor, target, getContext().getParsedLabels());
+        }
       }
       LOG.debug("validateLabel:target,document {},{}", target, document);
       if (document != null) {
@@ -396,7 +405,38 @@ public class LabelValidationRule extends AbstractValidationRule {
     schemaValidator.getCachedLSResolver().setProblemHandler(problemContainer);
     LSInput input = schemaValidator.getCachedLSResolver().resolveResource("", "", "",
         schemaUrl.toString(), schemaUrl.toString());
+    labelSchemaLoadProblems.put(schemaUrl, problemContainer);
     boolean addSourceFlag = true;
+    if (!reportSchemaLoadProblems(label, schemaUrl, problemContainer, labelProblems)) {
+      streamSourcePassFlag = false;
+      addSourceFlag = false;
+    }
+
+    // Load the streamSource to streamSources if there are no problems.
+    if (addSourceFlag) {
+      StreamSource streamSource = new StreamSource(input.getByteStream());
+      streamSource.setSystemId(schemaUrl.toString());
+      streamSources.add(streamSource);
+    }
+
+    LOG.debug(
+        "loadSingleSchemaIntoSources:label,schemaUrl,addSourceFlag,streamSourcePassFlag,streamSources.size() {},{},{},{},{}",
+        label, schemaUrl, addSourceFlag, streamSourcePassFlag, streamSources.size());
+    return (streamSourcePassFlag);
+  }
+
+  /**
+   * Reports the problems found while reading a schema into memory against a label.
+   *
+   * @param label The label.
+   * @param schemaUrl The schema.
+   * @param problemContainer The problems found while reading the schema.
+   * @param labelProblems The problems with the label.
+   * @return false if the schema could not be read.
+   */
+  private boolean reportSchemaLoadProblems(URL label, URL schemaUrl,
+      ProblemContainer problemContainer, ProblemContainer labelProblems) {
+    boolean passFlag = true;
     if (problemContainer.getProblems().size() != 0) {
       try {
         for (ValidationProblem le : problemContainer.getProblems()) {
@@ -404,8 +444,7 @@ public class LabelValidationRule extends AbstractValidationRule {
           getListener().addProblem(le);
         }
         if (problemContainer.hasError() || problemContainer.hasFatal()) {
-          streamSourcePassFlag = false;
-          addSourceFlag = false;
+          passFlag = false;
         }
       } catch (URISyntaxException u) {
         labelProblems.addProblem(new ValidationProblem(new ProblemDefinition(ExceptionType.FATAL,
@@ -414,18 +453,7 @@ public class LabelValidationRule extends AbstractValidationRule {
             label));
       }
     }
-
-    // Load the streamSource to streamSources if there are no problems.
-    if (addSourceFlag) {
-      StreamSource streamSource = new StreamSource(input.getByteStream());
-      streamSource.setSystemId(schemaUrl.toString());
-      streamSources.add(streamSource);
-    }
-
-    LOG.debug(
-        "loadSingleSchemaIntoSources:label,schemaUrl,addSourceFlag,streamSourcePassFlag,streamSources.size() {},{},{},{},{}",
-        label, schemaUrl, addSourceFlag, streamSourcePassFlag, streamSources.size());
-    return (streamSourcePassFlag);
+    return passFlag;
   }
 
   private boolean validateLoadedSchemas(URL label, List<StreamSource> streamSources,
@@ -565,7 +593,17 @@ public class LabelValidationRule extends AbstractValidationRule {
           resolveSingleSchema(label, schemaLocation, schemaUrl, container, labelProblems, resolver);
 
       // If we found the schema, let's read it into memory
-      if (resolvableUrl) {
+      if (resolvableUrl && labelSchemaResults.containsKey(schemaUrl)) {
+        // The schema was already read and validated for another label, only its
+        // results are needed. The problems found while reading it are reported
+        // again for this label, as they would be if it were read again.
+        ProblemContainer loadProblems = labelSchemaLoadProblems.get(schemaUrl);
+        if (loadProblems != null
+            && !reportSchemaLoadProblems(label, schemaUrl, loadProblems, labelProblems)) {
+          passFlag = false;
+        }
+        sources.add(new StreamSource(schemaUrl.toString()));
+      } else if (resolvableUrl) {
 
         // Break up long code into loadSingleSchemaIntoSources() function for
         // readability.
@@ -588,7 +626,7 @@ public class LabelValidationRule extends AbstractValidationRule {
 
   private boolean validateSingleSchematron(URL label, URL schematronRef,
       XMLCatalogResolver resolver, ProblemContainer labelProblems,
-      Map<String, Transformer> results) {
+      Map<String, Templates> results) {
     // Note that these 2 parameters will serve as both input and output:
     // labelProblems, and results.
     // for holding problems with the label and the results will grow as a map.
@@ -644,7 +682,7 @@ public class LabelValidationRule extends AbstractValidationRule {
         } else {
           container = new ProblemContainer();
           try {
-            Transformer transformer = schematronTransformer.transform(schematronRef, container);
+            Templates transformer = schematronTransformer.transform(schematronRef, container);
             labelSchematrons.put(schematronRef, transformer);
             results.put(schematronRef.toString(), transformer);
           } catch (TransformerException te) {
@@ -681,10 +719,10 @@ public class LabelValidationRule extends AbstractValidationRule {
     return (schematronPassFlag);
   }
 
-  private Map<String, Transformer> validateLabelSchematrons(URL label,
+  private Map<String, Templates> validateLabelSchematrons(URL label,
       ProblemContainer labelProblems, XMLCatalogResolver resolver) {
     boolean passFlag = true;
-    Map<String, Transformer> results = new HashMap<>();
+    Map<String, Templates> results = new HashMap<>();
     List<URL> schematronRefs = new ArrayList<>();
     try {
       schematronRefs = getSchematrons(label, labelProblems);
@@ -914,9 +952,10 @@ public class LabelValidationRule extends AbstractValidationRule {
     return schematronRefs;
   }
 
-  private XMLExtractor getExtractor(URL label) throws XPathException, XPathExpressionException {
+  private XMLExtractor getExtractor(URL label)
+      throws TransformerException, IOException, XPathExpressionException {
     if (extractor == null || !(label.toString().equals(extractor.getSystemId()))) {
-      extractor = new XMLExtractor(label);
+      extractor = new XMLExtractor(getContext().getParsedLabel(label));
     }
     return extractor;
   }
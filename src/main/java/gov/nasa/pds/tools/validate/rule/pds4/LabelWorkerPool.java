@@ -0,0 +1,132 @@
+// Copyright 2006-2018, by the California Institute of Technology.
+// ALL RIGHTS RESERVED. United States Government Sponsorship acknowledged.
+// Any commercial use must be negotiated with the Office of Technology Transfer
+// at the California Institute of Technology.
+//
+// This software is subject to U. S. export control laws and regulations
+// (22 C.F.R. 120-130 and 15 C.F.R. 730-774). To the extent that the software
+// is subject to U.S. export control laws and regulations, the recipient has
+// the responsibility to obtain export licenses or other export authority as
+// may be required before exporting such information to foreign countries or
+// providing access to foreign nationals.
+//
+// $Id$
+package gov.nasa.pds.tools.validate.rule.pds4;
+
+import java.io.Closeable;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.TransformerConfigurationException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import gov.nasa.pds.tools.label.LabelValidator;
+import gov.nasa.pds.tools.validate.ValidationResourceManager;
+import gov.nasa.pds.tools.validate.rule.AbstractValidationChain;
+import gov.nasa.pds.tools.validate.rule.ValidationRule;
+
+/**
+ * The threads that validate the labels found in the directories of a validation run, with the copy
+ * of the label rule and of the label validator each thread runs. The pool is made once for the
+ * run, so the copies, and the schemas and schematrons they compile, are made once per thread
+ * rather than once per directory.
+ */
+public class LabelWorkerPool implements Closeable {
+  private static final Logger LOG = LoggerFactory.getLogger(LabelWorkerPool.class);
+
+  private final int threads;
+  private final ExecutorService executor;
+  private final ThreadLocal<ValidationRule> workerRule = new ThreadLocal<>();
+  private final ThreadLocal<LabelValidator> workerValidator = new ThreadLocal<>();
+
+  /**
+   * Constructor.
+   *
+   * @param threads The number of threads. Must be at least 2.
+   */
+  public LabelWorkerPool(int threads) {
+    this.threads = threads;
+    AtomicInteger count = new AtomicInteger();
+    // Daemon threads, so that a run that ends without closing the pool can still exit.
+    this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+      Thread thread = new Thread(runnable, "label-worker-" + count.incrementAndGet());
+      thread.setDaemon(true);
+      return thread;
+    });
+  }
+
+  public int getThreads() {
+    return threads;
+  }
+
+  /**
+   * Submits the validation of a label.
+   *
+   * @param task The validation.
+   * @return The future of the validation.
+   */
+  public <T> Future<T> submit(Callable<T> task) {
+    return executor.submit(task);
+  }
+
+  /**
+   * Gets the copy of the label rule run on the current worker thread, as the rules keep the state
+   * of the label they validate in fields. The shared rule is never run on a worker thread, so a
+   * copy that cannot be made fails the label.
+   *
+   * @param labelRule The label rule found in the rule manager.
+   * @return The label rule to execute on the current thread.
+   * @throws ReflectiveOperationException If the copy of the rule cannot be made.
+   */
+  ValidationRule getRule(ValidationRule labelRule) throws ReflectiveOperationException {
+    ValidationRule rule = workerRule.get();
+    if (rule == null) {
+      if (!(labelRule instanceof AbstractValidationChain)) {
+        throw new IllegalStateException(
+            "Cannot create a copy of the label rule " + labelRule.getCaption());
+      }
+      try {
+        rule = ((AbstractValidationChain) labelRule).newInstance();
+      } catch (ReflectiveOperationException e) {
+        LOG.error("Cannot create a copy of the label rule {}: {}", labelRule.getCaption(),
+            e.getMessage());
+        throw e;
+      }
+      workerRule.set(rule);
+    }
+    return rule;
+  }
+
+  /**
+   * Gets the copy of the label validator used on the current worker thread, so that the labels
+   * are parsed and validated concurrently. The shared validator is never used on a worker thread,
+   * so a copy that cannot be made fails the label.
+   *
+   * @return The label validator to use on the current thread.
+   * @throws ParserConfigurationException If the parser of the copy cannot be made.
+   * @throws TransformerConfigurationException If the transformer of the copy cannot be made.
+   */
+  LabelValidator getValidator()
+      throws ParserConfigurationException, TransformerConfigurationException {
+    LabelValidator validator = workerValidator.get();
+    if (validator == null) {
+      try {
+        validator = ValidationResourceManager.INSTANCE.getResource(LabelValidator.class)
+            .newInstance();
+      } catch (ParserConfigurationException | TransformerConfigurationException e) {
+        LOG.error("Cannot create a copy of the label validator: {}", e.getMessage());
+        throw e;
+      }
+      workerValidator.set(validator);
+    }
+    return validator;
+  }
+
+  @Override
+  public void close() {
+    executor.shutdownNow();
+  }
+}
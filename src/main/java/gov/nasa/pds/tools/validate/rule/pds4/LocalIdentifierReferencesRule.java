@@ -19,13 +19,13 @@ import java.util.regex.Matcher;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.apache.commons.io.FilenameUtils;
 import org.w3c.dom.Document;
 import org.w3c.dom.NodeList;
 import gov.nasa.pds.tools.label.ExceptionType;
 import gov.nasa.pds.tools.label.SourceLocation;
 import gov.nasa.pds.tools.util.Utility;
+import gov.nasa.pds.tools.util.XPathRegistry;
 import gov.nasa.pds.tools.validate.ProblemDefinition;
 import gov.nasa.pds.tools.validate.ProblemType;
 import gov.nasa.pds.tools.validate.ValidationProblem;
@@ -48,12 +48,6 @@ public class LocalIdentifierReferencesRule extends AbstractValidationRule {
   private static final String LOCAL_IDENTIFIER_PATH =
       "//*:local_identifier[namespace-uri()='" + PDS4_NS + "']";
 
-  private XPathFactory xPathFactory;
-
-  public LocalIdentifierReferencesRule() {
-    xPathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
-  }
-
   @Override
   public boolean isApplicable(String location) {
     if (Utility.isDir(location) || !Utility.canRead(location)
@@ -74,7 +68,7 @@ public class LocalIdentifierReferencesRule extends AbstractValidationRule {
 
     NodeList localIdRefs = null;
     try {
-      localIdRefs = (NodeList) xPathFactory.newXPath().evaluate(LOCAL_IDENTIFIER_REF_PATH, source,
+      localIdRefs = (NodeList) XPathRegistry.compile(LOCAL_IDENTIFIER_REF_PATH).evaluate(source,
           XPathConstants.NODESET);
     } catch (XPathExpressionException xe) {
       ProblemDefinition pd = new ProblemDefinition(ExceptionType.ERROR, ProblemType.INTERNAL_ERROR,
@@ -85,7 +79,7 @@ public class LocalIdentifierReferencesRule extends AbstractValidationRule {
     }
     NodeList localIds = null;
     try {
-      localIds = (NodeList) xPathFactory.newXPath().evaluate(LOCAL_IDENTIFIER_PATH, source,
+      localIds = (NodeList) XPathRegistry.compile(LOCAL_IDENTIFIER_PATH).evaluate(source,
           XPathConstants.NODESET);
     } catch (XPathExpressionException xe) {
       ProblemDefinition pd = new ProblemDefinition(ExceptionType.ERROR, ProblemType.INTERNAL_ERROR,
@@ -15,17 +15,22 @@ package gov.nasa.pds.tools.validate.rule.pds4;
 
 import java.net.URI;
 import java.net.URISyntaxException;
+import java.net.URL;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
+import gov.nasa.pds.tools.util.XPathRegistry;
+import gov.nasa.pds.tools.validate.BufferedListenerPropagator;
 import gov.nasa.pds.tools.validate.Identifier;
+import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.TargetRegistrar;
+import gov.nasa.pds.tools.validate.ValidationProblem;
+import gov.nasa.pds.tools.validate.ValidationTarget;
 import gov.nasa.pds.tools.validate.rule.AbstractValidationRule;
 import gov.nasa.pds.tools.validate.rule.ValidationTest;
 
@@ -44,15 +49,6 @@ public class RegisterLabelIdentifiers extends AbstractValidationRule {
   private static final String VERSION_ID_PATH = "//*:Identification_Area[namespace-uri()='"
       + PDS4_NS + "']" + "/*:version_id[namespace-uri()='" + PDS4_NS + "']";
 
-  private XPathFactory xPathFactory;
-
-  /**
-   * Creates a new instance.
-   */
-  public RegisterLabelIdentifiers() {
-    xPathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
-  }
-
   @Override
   public boolean isApplicable(String location) {
     // The rule is applicable if a label has been parsed.
@@ -73,14 +69,14 @@ public class RegisterLabelIdentifiers extends AbstractValidationRule {
     Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
     DOMSource source = new DOMSource(label);
 
-    NodeList identifiers = (NodeList) xPathFactory.newXPath().evaluate(IDENTIFIERS_PATH, source,
+    NodeList identifiers = (NodeList) XPathRegistry.compile(IDENTIFIERS_PATH).evaluate(source,
         XPathConstants.NODESET);
     String lid = "";
     for (int i = 0; i < identifiers.getLength(); ++i) {
       Node name = identifiers.item(i);
       lid = name.getTextContent();
     }
-    NodeList versions = (NodeList) xPathFactory.newXPath().evaluate(VERSION_ID_PATH, source,
+    NodeList versions = (NodeList) XPathRegistry.compile(VERSION_ID_PATH).evaluate(source,
         XPathConstants.NODESET);
     String vid = "";
     for (int i = 0; i < versions.getLength(); ++i) {
@@ -94,20 +90,28 @@ public class RegisterLabelIdentifiers extends AbstractValidationRule {
 
   private void registerIdentifier(Identifier identifier) {
     TargetRegistrar registrar = getRegistrar();
+    URL url = getTarget();
+    ProblemListener listener = getListener();
     URI target = null;
     try {
-      target = getTarget().toURI();
+      target = url.toURI();
     } catch (URISyntaxException e) {
       // Should never happen
     }
-    LOG.debug("RegisterLabelIdentifiers:registerIdentifier:getTarget(),identifier {},{}",
-        getTarget(), identifier);
-    if (registrar.getTargetForIdentifier(identifier) == null) {
-      registrar.setTargetIdentifier(target.normalize().toString(), identifier);
-    } else {
-      String message = String.format("Identifier %s already defined (old location: %s)",
-          identifier.toString(), registrar.getTargetForIdentifier(identifier));
-      reportError(PDS4Problems.DUPLICATE_LOGICAL_IDENTIFIER, getTarget(), -1, -1, message);
-    }
+    LOG.debug("RegisterLabelIdentifiers:registerIdentifier:getTarget(),identifier {},{}", url,
+        identifier);
+    // The first label to register an identifier owns it, so the labels validated on several
+    // threads register their identifiers in the order they were found.
+    String location = target.normalize().toString();
+    BufferedListenerPropagator.runInOrder(() -> {
+      if (registrar.getTargetForIdentifier(identifier) == null) {
+        registrar.setTargetIdentifier(location, identifier);
+      } else {
+        String message = String.format("Identifier %s already defined (old location: %s)",
+            identifier.toString(), registrar.getTargetForIdentifier(identifier));
+        listener.addProblem(new ValidationProblem(PDS4Problems.DUPLICATE_LOGICAL_IDENTIFIER,
+            new ValidationTarget(url), -1, -1, message));
+      }
+    });
   }
 }
@@ -19,7 +19,6 @@ import java.util.regex.Matcher;
 import javax.xml.transform.dom.DOMSource;
 import javax.xml.xpath.XPathConstants;
 import javax.xml.xpath.XPathExpressionException;
-import javax.xml.xpath.XPathFactory;
 import org.apache.commons.io.FilenameUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -27,6 +26,7 @@ import org.w3c.dom.Document;
 import org.w3c.dom.Node;
 import org.w3c.dom.NodeList;
 import gov.nasa.pds.tools.util.Utility;
+import gov.nasa.pds.tools.util.XPathRegistry;
 import gov.nasa.pds.tools.validate.rule.AbstractValidationRule;
 import gov.nasa.pds.tools.validate.rule.GenericProblems;
 import gov.nasa.pds.tools.validate.rule.ValidationTest;
@@ -45,15 +45,6 @@ public class RegisterTargetReferences extends AbstractValidationRule {
   private static final String DOCUMENT_FILE_NAMES_PATH = "//*:Document_File[namespace-uri()='"
       + PDS4_NS + "']" + "/*:file_name[namespace-uri()='" + PDS4_NS + "']";
 
-  private XPathFactory xPathFactory;
-
-  /**
-   * Creates a new instance.
-   */
-  public RegisterTargetReferences() {
-    xPathFactory = new net.sf.saxon.xpath.XPathFactoryImpl();
-  }
-
   @Override
   public boolean isApplicable(String location) {
     Matcher matcher = getContext().getLabelPattern().matcher(FilenameUtils.getName(location));
@@ -78,7 +69,7 @@ public class RegisterTargetReferences extends AbstractValidationRule {
     Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
     DOMSource source = new DOMSource(label);
 
-    NodeList fileNames = (NodeList) xPathFactory.newXPath().evaluate(FILE_NAMES_PATH, source,
+    NodeList fileNames = (NodeList) XPathRegistry.compile(FILE_NAMES_PATH).evaluate(source,
         XPathConstants.NODESET);
     for (int i = 0; i < fileNames.getLength(); ++i) {
       Node name = fileNames.item(i);
@@ -107,8 +98,8 @@ public class RegisterTargetReferences extends AbstractValidationRule {
     Document label = getContext().getContextValue(PDS4Context.LABEL_DOCUMENT, Document.class);
     DOMSource source = new DOMSource(label);
 
-    NodeList fileNames = (NodeList) xPathFactory.newXPath().evaluate(DOCUMENT_FILE_NAMES_PATH,
-        source, XPathConstants.NODESET);
+    NodeList fileNames = (NodeList) XPathRegistry.compile(DOCUMENT_FILE_NAMES_PATH)
+        .evaluate(source, XPathConstants.NODESET);
     for (int i = 0; i < fileNames.getLength(); ++i) {
       Node name = fileNames.item(i);
       Node directory = getSiblingNode(name, "directory_path_name");
@@ -105,7 +105,8 @@ public class TableFieldDefinitionRule {
     int numFields = 0;
 
     try {
-      XMLExtractor extractor = new XMLExtractor(this.context.getTarget());
+      XMLExtractor extractor =
+          new XMLExtractor(this.context.getParsedLabel(this.context.getTarget()));
       TinyNodeImpl tableCharacterNode = extractor.getNodeFromDoc(TABLE_CHARACTER);
       TinyNodeImpl recordCharacterNode = extractor.getNodeFromDoc(RECORD_CHARACTER);
 
@@ -15,10 +15,19 @@ package gov.nasa.pds.tools.validate.rule.pds4;
 
 import java.io.IOException;
 import java.net.MalformedURLException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.nio.BufferUnderflowException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Deque;
 import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import com.opencsv.exceptions.CsvValidationException;
@@ -33,9 +42,13 @@ import gov.nasa.pds.objectAccess.table.TableBinaryAdapter;
 import gov.nasa.pds.objectAccess.table.TableDelimitedAdapter;
 import gov.nasa.pds.tools.label.ExceptionType;
 import gov.nasa.pds.tools.util.FileService;
+import gov.nasa.pds.tools.util.MappedRecordSource;
 import gov.nasa.pds.tools.util.TableCharacterUtil;
+import gov.nasa.pds.tools.validate.ProblemContainer;
 import gov.nasa.pds.tools.validate.ProblemListener;
 import gov.nasa.pds.tools.validate.ProblemType;
+import gov.nasa.pds.tools.validate.ValidationProblem;
+import gov.nasa.pds.tools.validate.content.ContentSampler;
 import gov.nasa.pds.tools.validate.content.table.FieldContentFatalException;
 import gov.nasa.pds.tools.validate.content.table.FieldValueValidator;
 import gov.nasa.pds.tools.validate.content.table.TableContentProblem;
@@ -51,6 +64,22 @@ import gov.nasa.pds.validate.constants.Constants;
  */
 public class TableValidator implements DataObjectValidator {
   private static final Logger LOG = LoggerFactory.getLogger(TableValidator.class);
+
+  /** The smallest number of records validated by a single task of a parallel table validation. */
+  private static final int MIN_CHUNK_RECORDS = 10000;
+
+  /** The number of tasks per thread, so that threads finishing early pick up more records. */
+  private static final int CHUNKS_PER_THREAD = 4;
+
+  /** The number of tasks per thread validated or waiting to be reported at any time. */
+  private static final int CHUNKS_IN_FLIGHT_PER_THREAD = 2;
+
+  /**
+   * The number of problems kept for a task before it stops. The rest of its records are validated
+   * when its problems are reported, so that a table full of errors is not kept in memory.
+   */
+  private static final int MAX_CHUNK_PROBLEMS = 10000;
+
   private int progressCounter = 0;
   private long currentObjectRecordCounter = 0;
 
@@ -147,7 +176,14 @@ public class TableValidator implements DataObjectValidator {
 
       TableRecord record = null;
 
-      if (this.tableAdapter instanceof TableBinaryAdapter) {
+      int sampleData = this.context.getSampleData();
+      if (sampleData != -1 && this.isTableFixedLength()) {
+        LOG.debug("validateTableDataContents:TABLE_SAMPLED {}", this.dataFile);
+        this.validateTableSample(sampleData, keepQuotationsFlag);
+      } else if (this.isTableChunked(spotCheckData)) {
+        LOG.debug("validateTableDataContents:TABLE_CHUNKED {}", this.dataFile);
+        this.validateTableChunks(keepQuotationsFlag);
+      } else if (this.tableAdapter instanceof TableBinaryAdapter) {
         this.validateTableBinaryContent(fieldValueValidator, record, spotCheckData,
             keepQuotationsFlag);
       } else if (!this.isTableLineOriented() && !this.getCheckInbetweenFields()) {
@@ -227,9 +263,17 @@ public class TableValidator implements DataObjectValidator {
     LOG.debug("validateTableDelimited:dataFile {}", this.dataFile);
 
     TableRecord record = null;
+    MappedRecordSource mappedRecords = this.openMappedRecords();
+    byte[] buffer = mappedRecords != null ? new byte[mappedRecords.getRecordLength()] : null;
+    int row = 1;
 
     try {
-      record = this.currentTableReader.readNext();
+      if (mappedRecords != null) {
+        record = readMappedRecord(this.currentTableReader, mappedRecords, buffer, row,
+            keepQuotationsFlag);
+      } else {
+        record = this.currentTableReader.readNext();
+      }
       while (record != null) {
         LOG.debug("validateTableDelimited: recordNumber {}", currentObjectRecordCounter);
         LOG.debug("record {}", record);
@@ -250,7 +294,11 @@ public class TableValidator implements DataObjectValidator {
           break;
         }
 
-        if (spotCheckData != -1) {
+        if (mappedRecords != null) {
+          row += spotCheckData != -1 ? spotCheckData : 1;
+          record = readMappedRecord(this.currentTableReader, mappedRecords, buffer, row,
+              keepQuotationsFlag);
+        } else if (spotCheckData != -1) {
           try {
             // TODO: Need to update this logic to count every record, even if we don't
             // validate them
@@ -274,12 +322,66 @@ public class TableValidator implements DataObjectValidator {
       ioEx.printStackTrace();
       throw new IOException("Unexpected exception reached while reading data object '"
           + this.tableObject.getDataObjectLocation().getDataObject() + "', record '"
-          + this.currentTableReader.getCurrentRow() + "'");
+          + (mappedRecords != null ? row : this.currentTableReader.getCurrentRow()) + "'");
+    } finally {
+      if (mappedRecords != null) {
+        mappedRecords.close();
+      }
     }
   }
 
+  /**
+   * Opens the records of a fixed-length Table_Character from its memory-mapped data file. The
+   * records of a Table_Binary are still read by the RawTableReader, as the records decoding binary
+   * fields can only be made by the reader itself.
+   * 
+   * @return The records, or null if the table is not a fixed-length Table_Character in a local
+   *         file.
+   */
+  private MappedRecordSource openMappedRecords() {
+    if (this.tableAdapter instanceof TableBinaryAdapter
+        || this.tableAdapter instanceof TableDelimitedAdapter
+        || this.tableAdapter.getRecordLength() <= 0 || this.dataFile == null
+        || !"file".equalsIgnoreCase(this.dataFile.getProtocol())) {
+      return null;
+    }
+    try {
+      return new MappedRecordSource(Paths.get(this.dataFile.toURI()), this.tableObject.getOffset(),
+          this.tableAdapter.getRecordLength(), this.tableAdapter.getRecordCount());
+    } catch (IOException | URISyntaxException | IllegalArgumentException e) {
+      // The records are then read by the RawTableReader.
+      LOG.debug("openMappedRecords:cannot map {}: {}", this.dataFile, e.getMessage());
+      return null;
+    }
+  }
+
+  /**
+   * Reads a record of a fixed-length Table_Character from its memory-mapped data file. A record
+   * holding only ASCII bytes is made from the mapped bytes. Any other record is read by the reader
+   * from the data file, so that its bytes are decoded as they always are.
+   * 
+   * @param reader The reader of the table, which makes the record.
+   * @param mappedRecords The records of the table.
+   * @param buffer The buffer the bytes of the record are copied to.
+   * @param row The index of the record, starting at 1.
+   * @param keepQuotationsFlag Flag to keep the double quote or not
+   * @return The record, or null if there are no more records in the table.
+   * @throws BufferUnderflowException If the data file ends before the record.
+   */
+  private static TableRecord readMappedRecord(RawTableReader reader,
+      MappedRecordSource mappedRecords, byte[] buffer, int row, boolean keepQuotationsFlag)
+      throws IOException {
+    if (row > mappedRecords.getRecordCount()) {
+      return null;
+    }
+    if (mappedRecords.readAscii(row, buffer)) {
+      return reader.toRecord(new String(buffer, 0, buffer.length, StandardCharsets.US_ASCII), row);
+    }
+    return reader.getRecord(row, keepQuotationsFlag);
+  }
+
   private void recordLineLength(ArrayList<Integer> lineLengthsArray,
-      ArrayList<Long> lineNumbersArray, String line, long l) {
+      ArrayList<Long> lineNumbersArray, int lineLength, long l) {
     // This is a special processing for file that ends .tab but records have
     // different lengths.
     // For every line encountered, record the line number, line length, and the URL
@@ -290,16 +392,17 @@ public class TableValidator implements DataObjectValidator {
 
     // Check if a particular line length has not been record already. We only want
     // to record lines that are of different lengths.
-    int lineLength = line.length();
-    if (!lineLengthsArray.contains(lineLength)) {
-      lineLengthsArray.add(lineLength);
-      lineNumbersArray.add(l);
-      LOG.debug("recordLineLength:ADDING:lineLength,lineLengthsArray.size,lineNumber {},{},{}",
-          lineLength, lineLengthsArray.size(), l);
-    } else {
-      LOG.debug("recordLineLength:REJECTING:lineLength,lineLengthsArray.size,lineNumber {},{},{}",
-          lineLength, lineLengthsArray.size(), l);
+    // The lengths are compared as int values so that the records of the usual length, which
+    // are nearly all of them, do not box their length and line number.
+    for (int i = 0; i < lineLengthsArray.size(); i++) {
+      if (lineLengthsArray.get(i).intValue() == lineLength) {
+        return;
+      }
     }
+    lineLengthsArray.add(lineLength);
+    lineNumbersArray.add(l);
+    LOG.debug("recordLineLength:ADDING:lineLength,lineLengthsArray.size,lineNumber {},{},{}",
+        lineLength, lineLengthsArray.size(), l);
   }
 
   private void reportIfDifferentLengths(ArrayList<Integer> lineLengthsArray,
@@ -382,23 +485,38 @@ public class TableValidator implements DataObjectValidator {
     if (this.tableAdapter instanceof TableDelimitedAdapter) {
       tableIsFixedLength = false;
     } else {
-      tableCharacterUtil = new TableCharacterUtil(this.context.getTarget(), this.listener);
+      tableCharacterUtil = new TableCharacterUtil(this.context.getTarget(),
+          this.context.getParsedLabels(), this.listener);
       tableCharacterUtil.parseFieldsInfo();
     }
 
     String recordDelimiter = this.tableAdapter.getRecordDelimiter();
 
+    // The record delimiter and the lengths from the label are the same for every record, so they
+    // are looked up once rather than for each record.
+    boolean delimiterIsLineFeed = recordDelimiter != null
+        && recordDelimiter.equalsIgnoreCase(DelimiterType.LINE_FEED.getXmlType());
+    // If cannot find a record delimiter, check for the default carriage return line feed.
+    boolean delimiterIsCrlf = recordDelimiter == null || recordDelimiter
+        .equalsIgnoreCase(DelimiterType.CARRIAGE_RETURN_LINE_FEED.getXmlType());
+    String crlf = DelimiterType.CARRIAGE_RETURN_LINE_FEED.getRecordDelimiter();
+    String lf = DelimiterType.LINE_FEED.getRecordDelimiter();
+    long recordLength = this.tableAdapter.getRecordLength();
+    long maximumRecordLength = this.tableAdapter.getMaximumRecordLength();
+    boolean checkInBetweenFields = tableCharacterUtil != null && this.getCheckInbetweenFields();
+    LOG.debug("validateTableCharacter:checkInBetweenFields {}", checkInBetweenFields);
+
     // Add 2 arrays to keep track of each line number and its length.
     ArrayList<Integer> lineLengthsArray = new ArrayList<>(0);
     ArrayList<Long> lineNumbersArray = new ArrayList<>(0);
 
     if (line != null) {
-      LOG.debug("validateTableCharacter:POSITION_1:lineNumber,line {},[{}],{}", lineNumber, line,
-          line.length());
-      LOG.debug("validateTableCharacter:POSITION_1:lineNumber,line.length,line {},{},[{}]",
-          lineNumber, line.length(), line);
+      if (LOG.isDebugEnabled()) {
+        LOG.debug("validateTableCharacter:POSITION_1:lineNumber,line.length,line {},{},[{}]",
+            lineNumber, line.length(), line);
+      }
       if (tableIsFixedLength) {
-        this.recordLineLength(lineLengthsArray, lineNumbersArray, line, lineNumber + 1);
+        this.recordLineLength(lineLengthsArray, lineNumbersArray, line.length(), lineNumber + 1);
       }
     } else {
       LOG.debug("validateTableCharacter:POSITION_1:lineNumber,line {},[{}]", lineNumber, line);
@@ -411,55 +529,38 @@ public class TableValidator implements DataObjectValidator {
       this.currentObjectRecordCounter++;
 
       // Check record delimiter
-      if (recordDelimiter != null) {
-        // Check for how the line ends keying off what was provided in the label.
-        // If the delimiter is "Carriage-Return Line-Feed" then the line should end with
-        // a carriage return and a line feed.
-        if (recordDelimiter.equalsIgnoreCase(DelimiterType.CARRIAGE_RETURN_LINE_FEED.getXmlType())
-            && !line.endsWith(DelimiterType.CARRIAGE_RETURN_LINE_FEED.getRecordDelimiter())) {
-          addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_CRLF,
-              "Record does not end in carriage-return line feed.", dataFile, dataObjectIndex,
-              this.currentTableReader.getCurrentRow());
-          manuallyParseRecord = true;
-        } else if (recordDelimiter.equalsIgnoreCase(DelimiterType.LINE_FEED.getXmlType())) {
-          if (!line.endsWith(DelimiterType.LINE_FEED.getRecordDelimiter())) { // If the delimiter is
-                                                                              // Line-Feed, then the
-                                                                              // line should end
-            // with "\n"
-            // Perform a check if the record ends in line feed or not ("\n")
-            // https://github.com/nasa-pds/validate/issues/292
-            // If the delimiter is "Line-Feed" then the line should end with a line feed.
-            addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_LF,
-                "Record does not end in line feed.", dataFile, dataObjectIndex,
-                this.currentTableReader.getCurrentRow());
-          }
-          if (line.endsWith(DelimiterType.CARRIAGE_RETURN_LINE_FEED.getRecordDelimiter())) { //
-            // If the delimiter is Line-Feed, then the line should not end with "\r\n"
-            addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_LF,
-                "Record delimited with 'Line-Feed' should not end with carriage-return line-feed.",
-                dataFile, dataObjectIndex, this.currentTableReader.getCurrentRow());
-          }
-          manuallyParseRecord = true;
-        } else {
-          addTableProblem(ExceptionType.DEBUG, ProblemType.CRLF_DETECTED,
-              "Record ends in carriage-return line feed.", dataFile, dataObjectIndex,
-              this.currentTableReader.getCurrentRow());
-        }
-      } else // If cannot find a record delimiter, check for the default carriage return line
-             // feed.
-      if (!line.endsWith(DelimiterType.CARRIAGE_RETURN_LINE_FEED.getRecordDelimiter())) {
+      // Check for how the line ends keying off what was provided in the label.
+      // If the delimiter is "Carriage-Return Line-Feed" then the line should end with
+      // a carriage return and a line feed.
+      if (delimiterIsCrlf && !line.endsWith(crlf)) {
         addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_CRLF,
             "Record does not end in carriage-return line feed.", dataFile, dataObjectIndex,
             this.currentTableReader.getCurrentRow());
         manuallyParseRecord = true;
-      } else {
+      } else if (delimiterIsLineFeed) {
+        if (!line.endsWith(lf)) { // If the delimiter is Line-Feed, then the line should end
+          // with "\n"
+          // Perform a check if the record ends in line feed or not ("\n")
+          // https://github.com/nasa-pds/validate/issues/292
+          // If the delimiter is "Line-Feed" then the line should end with a line feed.
+          addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_LF,
+              "Record does not end in line feed.", dataFile, dataObjectIndex,
+              this.currentTableReader.getCurrentRow());
+        }
+        if (line.endsWith(crlf)) {
+          // If the delimiter is Line-Feed, then the line should not end with "\r\n"
+          addTableProblem(ExceptionType.ERROR, ProblemType.MISSING_LF,
+              "Record delimited with 'Line-Feed' should not end with carriage-return line-feed.",
+              dataFile, dataObjectIndex, this.currentTableReader.getCurrentRow());
+        }
+        manuallyParseRecord = true;
+      } else if (listener.isReported(ExceptionType.DEBUG)) {
         addTableProblem(ExceptionType.DEBUG, ProblemType.CRLF_DETECTED,
             "Record ends in carriage-return line feed.", dataFile, dataObjectIndex,
             this.currentTableReader.getCurrentRow());
       }
 
       // Check record length
-      long recordLength = this.tableAdapter.getRecordLength();
       if (recordLength != -1) {
         if (line.length() != recordLength) {
           addTableProblem(ExceptionType.ERROR, ProblemType.RECORD_LENGTH_MISMATCH,
@@ -467,7 +568,7 @@ public class TableValidator implements DataObjectValidator {
                   + ", got " + line.length() + ").",
               dataFile, dataObjectIndex, this.currentTableReader.getCurrentRow());
           manuallyParseRecord = true;
-        } else {
+        } else if (listener.isReported(ExceptionType.DEBUG)) {
           addTableProblem(ExceptionType.DEBUG, ProblemType.RECORD_MATCH,
               "Record equals the defined record length " + "(expected " + recordLength + ", got "
                   + line.length() + ").",
@@ -476,7 +577,6 @@ public class TableValidator implements DataObjectValidator {
       }
 
       // Check max record length (delimited tables only)
-      long maximumRecordLength = this.tableAdapter.getMaximumRecordLength();
       if (maximumRecordLength != -1) {
         if (line.length() > maximumRecordLength) {
           addTableProblem(ExceptionType.ERROR, ProblemType.RECORD_LENGTH_MISMATCH,
@@ -484,7 +584,7 @@ public class TableValidator implements DataObjectValidator {
                   + maximumRecordLength + ", got " + line.length() + ").",
               dataFile, dataObjectIndex, this.currentTableReader.getCurrentRow());
           manuallyParseRecord = true;
-        } else {
+        } else if (listener.isReported(ExceptionType.DEBUG)) {
           addTableProblem(ExceptionType.DEBUG, ProblemType.GOOD_RECORD_LENGTH,
               "Record length is less than or equal to the max " + "defined record length " + "(max "
                   + maximumRecordLength + ", got " + line.length() + ").",
@@ -512,9 +612,7 @@ public class TableValidator implements DataObjectValidator {
 
         // https://github.com/NASA-PDS/validate/issues/57 As a user, I want to be warned
         // when there are alphanumeric characters between fields in Table_Character
-        LOG.debug("this.getCheckInbetweenFields(): {}", this.getCheckInbetweenFields());
-        LOG.debug("tableCharacterUtil: ", tableCharacterUtil);
-        if ((tableCharacterUtil != null) && this.getCheckInbetweenFields()) {
+        if (checkInBetweenFields) {
           tableCharacterUtil.validateInBetweenFields(line, lineNumber);
         }
 
@@ -583,10 +681,12 @@ public class TableValidator implements DataObjectValidator {
 
       line = this.currentTableReader.readNextLine();
       if (line != null) {
-        LOG.debug("recordNumber: {}, line.length: {}, record: [{}]", lineNumber, line.length(),
-            line);
+        if (LOG.isDebugEnabled()) {
+          LOG.debug("recordNumber: {}, line.length: {}, record: [{}]", lineNumber, line.length(),
+              line);
+        }
         if (tableIsFixedLength) {
-          this.recordLineLength(lineLengthsArray, lineNumbersArray, line, lineNumber + 1);
+          this.recordLineLength(lineLengthsArray, lineNumbersArray, line.length(), lineNumber + 1);
         }
       } else {
         LOG.debug("recordNumber: {}, record: [{}]", lineNumber, line);
@@ -709,6 +809,273 @@ public class TableValidator implements DataObjectValidator {
     }
   }
 
+  /**
+   * Checks whether the records of the table can be read at any position without reading the
+   * records before them. The checks between fields still read the records one after the other.
+   * 
+   * @return true if the table has fixed-length records
+   */
+  private boolean isTableFixedLength() {
+    return this.tableAdapter instanceof TableBinaryAdapter
+        || (!(this.tableAdapter instanceof TableDelimitedAdapter) && !this.isTableLineOriented()
+            && !this.getCheckInbetweenFields());
+  }
+
+  /**
+   * Checks whether the records of the table are split into chunks validated in parallel. Only the
+   * tables with fixed-length records can be split without reading them, and the spot checks still
+   * read the records one after the other.
+   * 
+   * @param spotCheckData The number of records to spot check
+   * @return true if the table is validated in chunks
+   */
+  private boolean isTableChunked(int spotCheckData) {
+    if (this.context.getTableThreads() < 2 || spotCheckData != -1) {
+      return false;
+    }
+    return this.isTableFixedLength()
+        && this.tableAdapter.getRecordCount() >= 2 * MIN_CHUNK_RECORDS;
+  }
+
+  /**
+   * Validates a stratified random sample of the records of a table with fixed-length records.
+   * Each sampled record is read from its position in the data file, and the confidence of the
+   * sample is reported once it is validated.
+   * 
+   * @param sampleSize The number of records to sample
+   * @param keepQuotationsFlag Flag to keep the double quote or not
+   */
+  private void validateTableSample(int sampleSize, boolean keepQuotationsFlag) throws Exception {
+    int recordCount = this.tableAdapter.getRecordCount();
+    int dataObjectIndex = this.tableObject.getDataObjectLocation().getDataObject();
+    // The same records are sampled each time the table is validated.
+    long[] sample = ContentSampler.sample(recordCount, sampleSize,
+        this.dataFile.toString().hashCode() * 31L + dataObjectIndex);
+
+    // The problems of each record are kept apart to find out whether the record has errors.
+    ProblemContainer recordProblems = new ProblemContainer() {
+      @Override
+      public ExceptionType getSeverityThreshold() {
+        return listener.getSeverityThreshold();
+      }
+    };
+    FieldValueValidator fieldValueValidator = new FieldValueValidator(recordProblems, this.context);
+    MappedRecordSource mappedRecords = this.openMappedRecords();
+    byte[] buffer = mappedRecords != null ? new byte[mappedRecords.getRecordLength()] : null;
+    int sampled = 0;
+    int invalid = 0;
+    int row = 0;
+    try {
+      for (long index : sample) {
+        // A sampled record missing from a data file cut short ends the validation with a fatal
+        // read error, rather than leaving a smaller sample.
+        row = (int) index + 1;
+        TableRecord record = mappedRecords != null
+            ? readMappedRecord(this.currentTableReader, mappedRecords, buffer, row,
+                keepQuotationsFlag)
+            : this.currentTableReader.getRecord(row, keepQuotationsFlag);
+        if (record == null) {
+          break;
+        }
+        progressCounter();
+        this.currentObjectRecordCounter++;
+        sampled++;
+
+        boolean fatal = false;
+        recordProblems.clear();
+        try {
+          fieldValueValidator.validate(record, this.currentTableReader.getFields(), false);
+        } catch (FieldContentFatalException e) {
+          FileService.printStackTraceToFile(null, e);
+          LOG.error("TableDataContentValidationRule:message:" + e.getMessage());
+          fatal = true;
+        }
+        boolean hasErrors = false;
+        for (ValidationProblem problem : recordProblems.getProblems()) {
+          hasErrors |= problem.getProblem().getSeverity().getValue() <= ExceptionType.ERROR
+              .getValue();
+          this.listener.addProblem(problem);
+        }
+        if (hasErrors) {
+          invalid++;
+        }
+        if (fatal) {
+          break;
+        }
+      }
+    } catch (BufferUnderflowException be) {
+      throw new IOException("Unexpected end-of-file reached while reading file area "
+          + this.tableObject.getDataObjectLocation().getFileArea() + ", data object "
+          + dataObjectIndex + ", " + "record '" + row + "'");
+    } finally {
+      if (mappedRecords != null) {
+        mappedRecords.close();
+      }
+    }
+    addTableProblem(ExceptionType.INFO, ProblemType.TABLE_SAMPLED,
+        ContentSampler.describe(recordCount, sampled, invalid, "record"), this.dataFile,
+        dataObjectIndex, -1);
+  }
+
+  /**
+   * Validates the records of a table with fixed-length records in parallel. The table is split
+   * into ranges of records, each read by its own reader, and the problems found in each range are
+   * reported in record order once the ranges before it are done. Only a few ranges per thread are
+   * submitted ahead of the range being reported, and none after a fatal error.
+   * 
+   * @param keepQuotationsFlag Flag to keep the double quote or not
+   */
+  private void validateTableChunks(boolean keepQuotationsFlag) throws Exception {
+    int recordCount = this.tableAdapter.getRecordCount();
+    int tableThreads = this.context.getTableThreads();
+    int chunkRecords = Math.max(MIN_CHUNK_RECORDS,
+        (int) (((long) recordCount + tableThreads * CHUNKS_PER_THREAD - 1)
+            / (tableThreads * CHUNKS_PER_THREAD)));
+    LOG.debug("validateTableChunks:recordCount,tableThreads,chunkRecords {},{},{}", recordCount,
+        tableThreads, chunkRecords);
+
+    ForkJoinPool pool = new ForkJoinPool(tableThreads);
+    try {
+      Deque<Future<TableChunk>> chunks = new ArrayDeque<>();
+      long first = 1;
+      while (first <= recordCount || !chunks.isEmpty()) {
+        while (first <= recordCount && chunks.size() < tableThreads * CHUNKS_IN_FLIGHT_PER_THREAD) {
+          int last = (int) Math.min(first + chunkRecords - 1, recordCount);
+          chunks.addLast(pool.submit(new TableChunk((int) first, last, keepQuotationsFlag, null)));
+          first = last + 1L;
+        }
+        TableChunk chunk = null;
+        try {
+          chunk = chunks.removeFirst().get();
+        } catch (ExecutionException e) {
+          if (e.getCause() instanceof Exception) {
+            throw (Exception) e.getCause();
+          }
+          throw e;
+        }
+        for (ValidationProblem problem : chunk.problems.getProblems()) {
+          this.listener.addProblem(problem);
+        }
+        chunk.problems.clear();
+        reportChunkProgress(chunk);
+        if (!chunk.fatal && chunk.nextRecord > 0) {
+          // The problems of the rest of the range are reported as they are found.
+          chunk = new TableChunk(chunk.nextRecord, chunk.lastRecord, keepQuotationsFlag,
+              this.listener).call();
+          reportChunkProgress(chunk);
+        }
+        if (chunk.fatal) {
+          // As when the records are read one after the other, a fatal error stops the
+          // validation of the rest of the table. The ranges in flight are cancelled.
+          break;
+        }
+      }
+    } finally {
+      pool.shutdownNow();
+    }
+  }
+
+  private void reportChunkProgress(TableChunk chunk) {
+    for (int i = 0; i < chunk.recordsRead; i++) {
+      progressCounter();
+    }
+    this.currentObjectRecordCounter += chunk.recordsRead;
+  }
+
+  /**
+   * A range of records of a table validated on its own thread. The problems are kept until they
+   * can be reported in record order, up to MAX_CHUNK_PROBLEMS of them.
+   */
+  private class TableChunk implements Callable<TableChunk> {
+    private final int firstRecord;
+    private final int lastRecord;
+    private final boolean keepQuotationsFlag;
+    private final ProblemContainer problems = new ProblemContainer() {
+      @Override
+      public ExceptionType getSeverityThreshold() {
+        return listener.getSeverityThreshold();
+      }
+    };
+
+    /** The listener the problems are reported to as they are found, or null to keep them. */
+    private final ProblemListener output;
+
+    private int recordsRead = 0;
+    private boolean fatal = false;
+
+    /** The first record left to validate once the problems are reported, or 0 if none. */
+    private int nextRecord = 0;
+
+    TableChunk(int firstRecord, int lastRecord, boolean keepQuotationsFlag,
+        ProblemListener output) {
+      this.firstRecord = firstRecord;
+      this.lastRecord = lastRecord;
+      this.keepQuotationsFlag = keepQuotationsFlag;
+      this.output = output;
+    }
+
+    @Override
+    public TableChunk call() throws Exception {
+      // Each call returns a new reader, so the chunks never share a file position.
+      RawTableReader reader = tableObject.getRawTableReader();
+      MappedRecordSource mappedRecords = openMappedRecords();
+      byte[] buffer = mappedRecords != null ? new byte[mappedRecords.getRecordLength()] : null;
+      ProblemListener problemListener = this.output != null ? this.output : this.problems;
+      FieldValueValidator fieldValueValidator = new FieldValueValidator(problemListener, context);
+      int row = this.firstRecord;
+      try {
+        TableRecord record = mappedRecords != null
+            ? readMappedRecord(reader, mappedRecords, buffer, row, this.keepQuotationsFlag)
+            : reader.getRecord(row, this.keepQuotationsFlag);
+        while (record != null) {
+          this.recordsRead++;
+          try {
+            fieldValueValidator.validate(record, reader.getFields(), false);
+          } catch (FieldContentFatalException e) {
+            FileService.printStackTraceToFile(null, e);
+            LOG.error("TableDataContentValidationRule:message:" + e.getMessage());
+            this.fatal = true;
+            break;
+          } catch (ArrayIndexOutOfBoundsException e) {
+            if (!(tableAdapter instanceof TableBinaryAdapter)) {
+              // As when the records are read one after the other, the error is only logged and
+              // the rest of the table is not validated.
+              LOG.error("ERROR: Cannot validate data file {}", dataFile);
+              FileService.printStackTraceToFile(null, e);
+              this.fatal = true;
+              break;
+            }
+            problemListener.addProblem(new TableContentProblem(ExceptionType.ERROR,
+                ProblemType.INVALID_OBJECT_DEFINITION, e.getMessage(), dataFile,
+                context.getTarget(), tableObject.getDataObjectLocation().getDataObject(),
+                record.getLocation().getRecord(), -1));
+          }
+          if (row++ >= this.lastRecord) {
+            break;
+          }
+          if (this.output == null && this.problems.getProblemCount() >= MAX_CHUNK_PROBLEMS) {
+            this.nextRecord = row;
+            break;
+          }
+          record = mappedRecords != null
+              ? readMappedRecord(reader, mappedRecords, buffer, row, this.keepQuotationsFlag)
+              : reader.readNext();
+        }
+      } catch (BufferUnderflowException be) {
+        throw new IOException("Unexpected end-of-file reached while reading file area "
+            + tableObject.getDataObjectLocation().getFileArea() + ", data object "
+            + tableObject.getDataObjectLocation().getDataObject() + ", " + "record '"
+            + row + "'");
+      } finally {
+        if (mappedRecords != null) {
+          mappedRecords.close();
+        }
+        reader.close();
+      }
+      return this;
+    }
+  }
+
   /**
    * Adds a table-related exception to the ProblemListener.
    * 
@@ -55,7 +55,7 @@ import java.util.Map;
 import java.util.TimeZone;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import javax.xml.transform.TransformerException;
 import javax.xml.transform.stream.StreamSource;
@@ -92,11 +92,14 @@ import com.google.gson.JsonObject;
 import com.google.gson.stream.JsonWriter;
 import gov.nasa.pds.tools.label.CachedEntityResolver;
 import gov.nasa.pds.tools.label.ExceptionType;
+import gov.nasa.pds.tools.label.LabelValidator;
 import gov.nasa.pds.tools.label.LocationValidator;
 import gov.nasa.pds.tools.label.MissingLabelSchemaException;
+import gov.nasa.pds.tools.label.SchemaGrammarPool;
 import gov.nasa.pds.tools.label.SchematronTransformer;
 import gov.nasa.pds.tools.label.validate.DocumentValidator;
 import gov.nasa.pds.tools.util.ContextProductReference;
+import gov.nasa.pds.tools.util.DOMSourceManager;
 import gov.nasa.pds.tools.util.FlagsUtil;
 import gov.nasa.pds.tools.util.LabelUtil;
 import gov.nasa.pds.tools.util.ReferentialIntegrityUtil;
@@ -193,7 +196,7 @@ public class ValidateLauncher {
 
   private SchematronTransformer schematronTransformer;
 
-  private List<Transformer> transformedSchematrons;
+  private List<Templates> transformedSchematrons;
 
   private CachedEntityResolver resolver;
 
@@ -222,6 +225,21 @@ public class ValidateLauncher {
 
   private int spotCheckData;
 
+  /** The number of records or elements sampled in each table or array, or -1 to check them all. */
+  private int sampleData;
+
+  /** The number of threads used to validate the labels in a directory, by default one per core. */
+  private static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+  /** The number of threads used to validate the labels in a directory. */
+  private int threads;
+
+  /** The number of threads used to validate the records of a single table. */
+  private int tableThreads;
+
+  /** The number of threads used to validate the elements of a single array. */
+  private int arrayThreads;
+
   private boolean allowUnlabeledFiles;
 
   private File registeredProductsFile;
@@ -271,6 +289,10 @@ public class ValidateLauncher {
     skipProductValidation = false;
     maxErrors = MAX_ERRORS;
     spotCheckData = -1;
+    sampleData = -1;
+    threads = DEFAULT_THREADS;
+    tableThreads = 1;
+    arrayThreads = 1;
     allowUnlabeledFiles = false;
     registeredAndNonRegistedProducts = new HashMap<>();
     registeredProductsFile = new File(
@@ -432,6 +454,42 @@ public class ValidateLauncher {
               "Could not parse value '" + o.getValue() + "': " + a.getMessage());
         }
         setSpotCheckData(value);
+      } else if (Flag.SAMPLE_DATA.getLongName().equals(o.getLongOpt())) {
+        int value = 0;
+        try {
+          value = Integer.parseInt(o.getValue());
+        } catch (IllegalArgumentException a) {
+          throw new InvalidOptionException(
+              "Could not parse value '" + o.getValue() + "': " + a.getMessage());
+        }
+        setSampleData(value);
+      } else if (Flag.THREADS.getLongName().equals(o.getLongOpt())) {
+        int value = 0;
+        try {
+          value = Integer.parseInt(o.getValue());
+        } catch (IllegalArgumentException a) {
+          throw new InvalidOptionException(
+              "Could not parse value '" + o.getValue() + "': " + a.getMessage());
+        }
+        setThreads(value);
+      } else if (Flag.TABLE_THREADS.getLongName().equals(o.getLongOpt())) {
+        int value = 0;
+        try {
+          value = Integer.parseInt(o.getValue());
+        } catch (IllegalArgumentException a) {
+          throw new InvalidOptionException(
+              "Could not parse value '" + o.getValue() + "': " + a.getMessage());
+        }
+        setTableThreads(value);
+      } else if (Flag.ARRAY_THREADS.getLongName().equals(o.getLongOpt())) {
+        int value = 0;
+        try {
+          value = Integer.parseInt(o.getValue());
+        } catch (IllegalArgumentException a) {
+          throw new InvalidOptionException(
+              "Could not parse value '" + o.getValue() + "': " + a.getMessage());
+        }
+        setArrayThreads(value);
       } else if (Flag.ALLOW_UNLABELED_FILES.getLongName().equals(o.getLongOpt())) {
         setAllowUnlabeledFiles(true);
       } else if (Flag.LATEST_JSON_FILE.getLongName().equals(o.getLongOpt())) {
@@ -746,6 +804,18 @@ public class ValidateLauncher {
       if (config.containsKey(ConfigKey.SPOT_CHECK_DATA)) {
         setSpotCheckData(config.getInt(ConfigKey.SPOT_CHECK_DATA));
       }
+      if (config.containsKey(ConfigKey.SAMPLE_DATA)) {
+        setSampleData(config.getInt(ConfigKey.SAMPLE_DATA));
+      }
+      if (config.containsKey(ConfigKey.THREADS)) {
+        setThreads(config.getInt(ConfigKey.THREADS));
+      }
+      if (config.containsKey(ConfigKey.TABLE_THREADS)) {
+        setTableThreads(config.getInt(ConfigKey.TABLE_THREADS));
+      }
+      if (config.containsKey(ConfigKey.ARRAY_THREADS)) {
+        setArrayThreads(config.getInt(ConfigKey.ARRAY_THREADS));
+      }
       if (config.containsKey(ConfigKey.ALLOW_UNLABELED_FILES)) {
         setAllowUnlabeledFiles(true);
       }
@@ -1056,6 +1126,58 @@ public class ValidateLauncher {
     this.spotCheckData = value;
   }
 
+  /**
+   * Sets the number of records or elements sampled in each table or array.
+   *
+   * @param value The size of the sample. Must be at least 1.
+   * @throws InvalidOptionException If the value is less than 1.
+   */
+  public void setSampleData(int value) throws InvalidOptionException {
+    if (value < 1) {
+      throw new InvalidOptionException("Size of the data sample must be at least 1: " + value);
+    }
+    this.sampleData = value;
+  }
+
+  /**
+   * Sets the number of threads used to validate the labels in a directory.
+   *
+   * @param value The number of threads. Must be at least 1.
+   * @throws InvalidOptionException If the value is less than 1.
+   */
+  public void setThreads(int value) throws InvalidOptionException {
+    if (value < 1) {
+      throw new InvalidOptionException("Number of threads must be at least 1: " + value);
+    }
+    this.threads = value;
+  }
+
+  /**
+   * Sets the number of threads used to validate the records of a single table.
+   *
+   * @param value The number of threads. Must be at least 1.
+   * @throws InvalidOptionException If the value is less than 1.
+   */
+  public void setTableThreads(int value) throws InvalidOptionException {
+    if (value < 1) {
+      throw new InvalidOptionException("Number of table threads must be at least 1: " + value);
+    }
+    this.tableThreads = value;
+  }
+
+  /**
+   * Sets the number of threads used to validate the elements of a single array.
+   *
+   * @param value The number of threads. Must be at least 1.
+   * @throws InvalidOptionException If the value is less than 1.
+   */
+  public void setArrayThreads(int value) throws InvalidOptionException {
+    if (value < 1) {
+      throw new InvalidOptionException("Number of array threads must be at least 1: " + value);
+    }
+    this.arrayThreads = value;
+  }
+
   public void setAllowUnlabeledFiles(boolean flag) {
     this.allowUnlabeledFiles = flag;
   }
@@ -1286,6 +1408,18 @@ public class ValidateLauncher {
     if (spotCheckData != -1) {
       report.addParameter("   Data Spot Check               " + spotCheckData);
     }
+    if (sampleData != -1) {
+      report.addParameter("   Data Sample                   " + sampleData);
+    }
+    if (threads != DEFAULT_THREADS) {
+      report.addParameter("   Threads                       " + threads);
+    }
+    if (tableThreads != 1) {
+      report.addParameter("   Table Threads                 " + tableThreads);
+    }
+    if (arrayThreads != 1) {
+      report.addParameter("   Array Threads                 " + arrayThreads);
+    }
     if (validationRule != null && (validationRule.equalsIgnoreCase("pds4.bundle")
         || validationRule.equalsIgnoreCase("pds4.collection"))) {
       report.addParameter("   Allow Unlabeled Files         " + allowUnlabeledFiles);
@@ -1359,6 +1493,10 @@ public class ValidateLauncher {
         validator.setRecurse(traverse);
         validator.setCheckData(contentValidationFlag);
         validator.setSpotCheckData(spotCheckData);
+        validator.setSampleData(sampleData);
+        validator.setThreads(threads);
+        validator.setTableThreads(tableThreads);
+        validator.setArrayThreads(arrayThreads);
         validator.setAllowUnlabeledFiles(allowUnlabeledFiles);
         validator.setValidateContext(validateContext);
         validator.setSkipProductValidation(skipProductValidation);
@@ -1493,6 +1631,18 @@ public class ValidateLauncher {
     // reset() if running a regression test.
     ReferentialIntegrityUtil.reset();
 
+    if (severity.isInfoApplicable()) {
+      System.out.println("\nINFO   Document cache: " + DOMSourceManager.getHitCount() + " hits, "
+          + DOMSourceManager.getMissCount() + " misses (at most "
+          + DOMSourceManager.getMaxEntries() + " labels kept)\n");
+    }
+
+    // The cached bundle and collection labels and the compiled schemas are released
+    // so a later run reads the files again.
+    DOMSourceManager.clear();
+    SchemaGrammarPool.INSTANCE.clear();
+    LabelValidator.clearLabelSchemas();
+
     return success;
   }
 
@@ -1532,12 +1682,12 @@ public class ValidateLauncher {
    * @param schematron A schematron to transform.
    * @param container Container to hold problems.
    *
-   * @return The ISO Schematron transformer associated with the given schematron.
+   * @return The compiled ISO Schematron stylesheet associated with the given schematron.
    *
    * @throws TransformerException If an error occurred during the transform process.
    */
-  private Transformer transformSchematron(URL schematron, ProblemContainer container) {
-    Transformer transformer = null;
+  private Templates transformSchematron(URL schematron, ProblemContainer container) {
+    Templates transformer = null;
     try {
       transformer = schematronTransformer.transform(schematron, container);
       return transformer;
@@ -1674,7 +1824,7 @@ public class ValidateLauncher {
       if (!schematrons.isEmpty()) {
         for (URL schematron : schematrons) {
           ProblemContainer container = new ProblemContainer();
-          Transformer transformer = transformSchematron(schematron, container);
+          Templates transformer = transformSchematron(schematron, container);
           if (container.getProblems().size() != 0) {
             report.record(schematron.toURI(), container.getProblems());
             invalidSchematron = true;
@@ -1762,7 +1912,7 @@ public class ValidateLauncher {
     }
 
     @Override
-    public void addProblem(ValidationProblem problem) {
+    public synchronized void addProblem(ValidationProblem problem) {
       if (problem.getProblem().getSeverity().getValue() <= verbosityLevel.getValue()) {
         String location = rootLocation;
         if (problem instanceof ContentProblem) {
@@ -1793,7 +1943,7 @@ public class ValidateLauncher {
     }
 
     @Override
-    public void record(String location) {
+    public synchronized void record(String location) {
       URI uri = null;
       LOG.debug("record:location {}", location);
       try {
@@ -1821,7 +1971,7 @@ public class ValidateLauncher {
       }
     }
 
-    public void endValidation() {
+    public synchronized void endValidation() {
       for (String location : exceptions.keySet()) {
         URI uri = null;
         try {
@@ -1834,7 +1984,7 @@ public class ValidateLauncher {
     }
 
     @Override
-    public void addLocation(String location) {
+    public synchronized void addLocation(String location) {
       if (!exceptions.containsKey(location)) {
         ProblemContainer container = new ProblemContainer();
         exceptions.put(location, container);
@@ -1844,6 +1994,11 @@ public class ValidateLauncher {
     public void setMaxErrors(long value) {
       this.maxErrors = value;
     }
+
+    @Override
+    public ExceptionType getSeverityThreshold() {
+      return verbosityLevel;
+    }
   }
 
   public String getLabelExtension() {
@@ -35,7 +35,7 @@ import java.net.URL;
 import java.util.ArrayList;
 import java.util.List;
 import javax.xml.parsers.ParserConfigurationException;
-import javax.xml.transform.Transformer;
+import javax.xml.transform.Templates;
 import javax.xml.transform.TransformerConfigurationException;
 import org.xml.sax.SAXException;
 import gov.nasa.pds.tools.label.CachedEntityResolver;
@@ -127,7 +127,7 @@ public abstract class Validator {
    *
    * @param schematrons A list of schematrons.
    */
-  public void setSchematrons(List<Transformer> schematrons) {
+  public void setSchematrons(List<Templates> schematrons) {
     labelValidator.setSchematrons(schematrons);
   }
 
@@ -116,6 +116,26 @@ public class ConfigKey {
    */
   public static final String SPOT_CHECK_DATA = "validate.spotCheckData";
 
+  /**
+   * Property to specify how many records or elements to sample during content validation.
+   */
+  public static final String SAMPLE_DATA = "validate.sampleData";
+
+  /**
+   * Property to specify the number of threads used to validate labels in a directory.
+   */
+  public static final String THREADS = "validate.threads";
+
+  /**
+   * Property to specify the number of threads used to validate the records of a single table.
+   */
+  public static final String TABLE_THREADS = "validate.tableThreads";
+
+  /**
+   * Property to specify the number of threads used to validate the elements of a single array.
+   */
+  public static final String ARRAY_THREADS = "validate.arrayThreads";
+
   /**
    * Property to allow the tool to not report on unlabeled files in a bundle or collection.
    */
@@ -159,6 +159,22 @@ public enum Flag {
   SPOT_CHECK_DATA(null, "spot-check-data", "num", int.class,
       "Tool only checks every nth record or line and skips the rest during data content validation."),
 
+  SAMPLE_DATA(null, "sample-data", "num", int.class,
+      "Tool only checks a stratified random sample of n records of each table with fixed-length "
+          + "records, or n elements of each array, and reports the confidence of the sample."),
+
+  THREADS(null, "threads", "num", int.class,
+      "Specify the number of threads used to validate the labels found in a directory. "
+          + "Default is the number of available processors."),
+
+  TABLE_THREADS(null, "table-threads", "num", int.class,
+      "Specify the number of threads used to validate the records of a large table with "
+          + "fixed-length records. Default is 1."),
+
+  ARRAY_THREADS(null, "array-threads", "num", int.class,
+      "Specify the number of threads used to validate the elements of a large array. "
+          + "Default is 1."),
+
   ALLOW_UNLABELED_FILES(null, "allow-unlabeled-files",
       "Tells the tool to not check for unlabeled files in a bundle or collection."),
 
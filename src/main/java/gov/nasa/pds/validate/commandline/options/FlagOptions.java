@@ -68,6 +68,10 @@ public class FlagOptions {
     options.addOption(new ToolsOption(Flag.ENABLE_STACK_PRINTING));
     options.addOption(new ToolsOption(Flag.NO_DATA));
     options.addOption(new ToolsOption(Flag.SPOT_CHECK_DATA));
+    options.addOption(new ToolsOption(Flag.SAMPLE_DATA));
+    options.addOption(new ToolsOption(Flag.THREADS));
+    options.addOption(new ToolsOption(Flag.TABLE_THREADS));
+    options.addOption(new ToolsOption(Flag.ARRAY_THREADS));
     options.addOption(new ToolsOption(Flag.ALLOW_UNLABELED_FILES));
     options.addOption(new ToolsOption(Flag.LATEST_JSON_FILE));
     options.addOption(new ToolsOption(Flag.NONREGPROD_JSON_FILE));
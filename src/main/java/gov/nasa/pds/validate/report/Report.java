@@ -205,7 +205,7 @@ public abstract class Report {
    */
   protected abstract void printHeader(PrintWriter writer, String title);
 
-  public Status record(URI sourceUri, final ValidationProblem problem) {
+  public synchronized Status record(URI sourceUri, final ValidationProblem problem) {
     List<ValidationProblem> problems = new ArrayList<>();
     problems.add(problem);
     LOG.debug("record:RECORDING_PROBLEM:sourceUri {}", sourceUri);
@@ -220,7 +220,7 @@ public abstract class Report {
    * @param problems the set of issues found with the file. to be reported on
    * @return status of the file (i.e. PASS, FAIL, or SKIP)
    */
-  public Status record(URI sourceUri, final List<ValidationProblem> problems) {
+  public synchronized Status record(URI sourceUri, final List<ValidationProblem> problems) {
     int numErrors = 0;
     int numWarnings = 0;
     int numInfos = 0;
@@ -364,7 +364,7 @@ public abstract class Report {
     }
   }
 
-  public Status recordSkip(final URI sourceUri, final ValidationProblem problem) {
+  public synchronized Status recordSkip(final URI sourceUri, final ValidationProblem problem) {
     this.numSkipped++;
     LOG.debug("recordSkip:sourceUri,numSkipped {},{}", sourceUri, this.numSkipped);
     LOG.debug(
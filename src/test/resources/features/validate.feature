@@ -390,4 +390,22 @@ Scenario Outline: Execute validate command for tests below.
  |"NASA-PDS/validate#292 INVENTORY VALID CRLF" | "github292" | 0 | "0 error messages expected." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_github292_label_inventory_valid_crlf.json -s json -R pds4.label -t {resourceDir}/github292/inventory/collection_eetable_inventory_CRLF_VALID.xml" | "report_github292_label_inventory_valid_crlf.json" |
  |"NASA-PDS/validate#292 INVENTORY INVALID LF" | "github292" | 3 | "3 error messages expected for MISSING_LF." | "MISSING_LF" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_github292_label_inventory_invalid_lf.json -s json -R pds4.label -t {resourceDir}/github292/inventory/collection_eetable_inventory_LF_FAIL.xml" | "report_github292_label_inventory_invalid_lf.json" |
  |"NASA-PDS/validate#292 INVENTORY INVALID CRLF" | "github292" | 3 | "3 error messages expected for MISSING_CRLF." | "MISSING_CRLF" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_github292_label_inventory_invalid_crlf.json -s json -R pds4.label -t {resourceDir}/github292/inventory/collection_eetable_inventory_CRLF_FAIL.xml" | "report_github292_label_inventory_invalid_crlf.json" |
+ |"ARRAY STATISTICS VALID" | "array_statistics" | 0 | "0 error messages expected." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_statistics_valid.json -s json -R pds4.label -t {resourceDir}/array_statistics/array_statistics_valid.xml" | "report_array_statistics_valid.json" |
+ |"ARRAY STATISTICS VALID" | "array_statistics" | 0 | "0 warning messages expected for the statistics." | "ARRAY_STATISTICS_APPROXIMATE_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_statistics_valid_warnings.json -s json -R pds4.label -t {resourceDir}/array_statistics/array_statistics_valid.xml" | "report_array_statistics_valid_warnings.json" |
+ |"ARRAY STATISTICS INVALID" | "array_statistics" | 1 | "1 error message expected for the minimum." | "ARRAY_STATISTICS_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_statistics_invalid.json -s json -R pds4.label -t {resourceDir}/array_statistics/array_statistics_invalid.xml" | "report_array_statistics_invalid.json" |
+ |"ARRAY STATISTICS INVALID" | "array_statistics" | 3 | "3 warning messages expected for the mean, standard deviation and median." | "ARRAY_STATISTICS_APPROXIMATE_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_statistics_invalid_approximate.json -s json -R pds4.label -t {resourceDir}/array_statistics/array_statistics_invalid.xml" | "report_array_statistics_invalid_approximate.json" |
+ |"TABLE SHORT DATA FILE SAMPLED" | "table_short_data_file" | 1 | "1 fatal read error message expected for the first sampled record missing from the data file." | "TABLE_FILE_READ_ERROR" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch --sample-data 10 -r {reportDir}/report_table_short_data_file.json -s json -R pds4.label -t {resourceDir}/table_short_data_file/short_table_crlf.xml" | "report_table_short_data_file.json" |
+ |"LABELS IN FOLDER DUPLICATE_LOGICAL_IDENTIFIER THREADS 1" | "github292" | 3 | "3 error messages expected for the labels sharing one identifier." | "DUPLICATE_LOGICAL_IDENTIFIER" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_labels_in_folder_duplicate_logical_identifier_threads_1.json -s json -R pds4.folder --threads 1 -t {resourceDir}/github292/table_delimited/" | "report_labels_in_folder_duplicate_logical_identifier_threads_1.json" |
+ |"LABELS IN FOLDER DUPLICATE_LOGICAL_IDENTIFIER THREADS 4" | "github292" | 3 | "3 error messages expected for the labels sharing one identifier." | "DUPLICATE_LOGICAL_IDENTIFIER" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_labels_in_folder_duplicate_logical_identifier_threads_4.json -s json -R pds4.folder --threads 4 -t {resourceDir}/github292/table_delimited/" | "report_labels_in_folder_duplicate_logical_identifier_threads_4.json" |
+ |"LABELS IN FOLDER MISSING_LF THREADS 1" | "github292" | 1 | "1 error message expected for MISSING_LF." | "MISSING_LF" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_labels_in_folder_missing_lf_threads_1.json -s json -R pds4.folder --threads 1 -t {resourceDir}/github292/table_delimited/" | "report_labels_in_folder_missing_lf_threads_1.json" |
+ |"LABELS IN FOLDER MISSING_LF THREADS 4" | "github292" | 1 | "1 error message expected for MISSING_LF." | "MISSING_LF" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_labels_in_folder_missing_lf_threads_4.json -s json -R pds4.folder --threads 4 -t {resourceDir}/github292/table_delimited/" | "report_labels_in_folder_missing_lf_threads_4.json" |
+ |"TABLE MAPPED RECORDS VALID" | "table_mapped_records" | 0 | "0 error messages expected." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_table_mapped_records_valid.json -s json -R pds4.label -t {resourceDir}/table_mapped_records/mapped_table_valid.xml" | "report_table_mapped_records_valid.json" |
+ |"TABLE MAPPED RECORDS INVALID" | "table_mapped_records" | 1 | "1 error message expected for the invalid integer of the second record." | "FIELD_VALUE_DATA_TYPE_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_table_mapped_records_invalid.json -s json -R pds4.label -t {resourceDir}/table_mapped_records/mapped_table_invalid.xml" | "report_table_mapped_records_invalid.json" |
+ |"TABLE MAPPED RECORDS UTF8" | "table_mapped_records" | 0 | "0 error messages expected for the record read by the table reader." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_table_mapped_records_utf8.json -s json -R pds4.label -t {resourceDir}/table_mapped_records/mapped_table_utf8.xml" | "report_table_mapped_records_utf8.json" |
+ |"TABLE CHUNKS FIELD_VALUE_DATA_TYPE_MISMATCH TABLE THREADS 1" | "table_mapped_records" | 20 | "20 error messages expected for the invalid integers." | "FIELD_VALUE_DATA_TYPE_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_chunked_table_field_value_data_type_mismatch_threads_1.json -s json -R pds4.label --table-threads 1 -t {resourceDir}/table_mapped_records/chunked_table.xml" | "report_chunked_table_field_value_data_type_mismatch_threads_1.json" |
+ |"TABLE CHUNKS FIELD_VALUE_DATA_TYPE_MISMATCH TABLE THREADS 4" | "table_mapped_records" | 20 | "20 error messages expected for the invalid integers." | "FIELD_VALUE_DATA_TYPE_MISMATCH" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_chunked_table_field_value_data_type_mismatch_threads_4.json -s json -R pds4.label --table-threads 4 -t {resourceDir}/table_mapped_records/chunked_table.xml" | "report_chunked_table_field_value_data_type_mismatch_threads_4.json" |
+ |"TABLE CHUNKS totalErrors TABLE THREADS 1" | "table_mapped_records" | 20 | "20 error messages expected in total." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_chunked_table_totalerrors_threads_1.json -s json -R pds4.label --table-threads 1 -t {resourceDir}/table_mapped_records/chunked_table.xml" | "report_chunked_table_totalerrors_threads_1.json" |
+ |"TABLE CHUNKS totalErrors TABLE THREADS 4" | "table_mapped_records" | 20 | "20 error messages expected in total." | "totalErrors" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_chunked_table_totalerrors_threads_4.json -s json -R pds4.label --table-threads 4 -t {resourceDir}/table_mapped_records/chunked_table.xml" | "report_chunked_table_totalerrors_threads_4.json" |
+ |"ARRAY TILES ARRAY THREADS 1" | "array_tiles" | 4 | "4 error messages expected for the elements above the maximum." | "ARRAY_VALUE_OUT_OF_MIN_MAX_RANGE" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_tiles_threads_1.json -s json -R pds4.label --array-threads 1 -t {resourceDir}/array_tiles/array_tiles.xml" | "report_array_tiles_threads_1.json" |
+ |"ARRAY TILES ARRAY THREADS 4" | "array_tiles" | 4 | "4 error messages expected for the elements above the maximum." | "ARRAY_VALUE_OUT_OF_MIN_MAX_RANGE" | "src/test/resources" | "target/test" | "--skip-context-validation -C {reportDir}/catalog.xml -schema  src/test/resources/github292/pds/v1/PDS4_PDS_1G00.xsd -schematron src/test/resources/github292/pds/v1/PDS4_PDS_1G00.sch -r {reportDir}/report_array_tiles_threads_4.json -s json -R pds4.label --array-threads 4 -t {resourceDir}/array_tiles/array_tiles.xml" | "report_array_tiles_threads_4.json" |
 